@@ -0,0 +1,113 @@
+package com.github.michalzurawski.algorithms.collinearpoints;
+
+import edu.princeton.cs.algs4.StdOut;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * Algorithm for finding 4 collinear points on a plane given as arrays of coordinates.
+ * Points are kept as parallel int arrays and sorted as packed long keys, so the search touches no objects;
+ * Point and LineSegment objects are created only for the returned segments.
+ * The result is the same, in the same order, as the result of FastCollinearPoints.
+ * Complexity: O(n^2) expected where n is the number of points.
+ */
+public class ArrayCollinearPoints {
+  /**
+   * x-coordinates of naturally sorted points.
+   */
+  private final int[] xs;
+  /**
+   * y-coordinates of naturally sorted points.
+   */
+  private final int[] ys;
+  /**
+   * Indices of the smallest and the largest point of every segment, one pair after another.
+   */
+  private final int[] ends;
+
+  /**
+   * Finds all line segments containing 4 collinear points.
+   * When coordinates span more than 2^31 in either axis the search falls back to FastCollinearPoints.
+   * Complexity: O(n^2) expected where n is the number of points.
+   *
+   * @param xs x-coordinates of points
+   * @param ys y-coordinates of points
+   */
+  public ArrayCollinearPoints(final int[] xs, final int[] ys) {
+    final long[] keys = PointValidator.sortedKeys(xs, ys);
+    final int n = keys.length;
+    this.xs = new int[n];
+    this.ys = new int[n];
+    for (int i = 0; i < n; ++i) {
+      this.xs[i] = PointValidator.x(keys[i]);
+      this.ys[i] = PointValidator.y(keys[i]);
+    }
+    if (HashCollinearPoints.fitsInKey(this.xs, this.ys)) {
+      ends = HashCollinearPoints.findSegments(this.xs, this.ys);
+    } else {
+      ends = fallback(this.xs, this.ys);
+    }
+  }
+
+  /**
+   * Finds segments with FastCollinearPoints, used for coordinates too far apart to pack directions.
+   *
+   * @param xs x-coordinates of naturally sorted points
+   * @param ys y-coordinates of naturally sorted points
+   * @return indices of the smallest and the largest point of every segment, one pair after another
+   */
+  private static int[] fallback(final int[] xs, final int[] ys) {
+    final Point[] points = new Point[xs.length];
+    for (int i = 0; i < points.length; ++i) {
+      points[i] = new Point(xs[i], ys[i]);
+    }
+    final LineSegment[] segments = new FastCollinearPoints(points).segments();
+    final int[] ends = new int[2 * segments.length];
+    for (int i = 0; i < segments.length; ++i) {
+      ends[2 * i] = Arrays.binarySearch(points, segments[i].p());
+      ends[2 * i + 1] = Arrays.binarySearch(points, segments[i].q());
+    }
+    return ends;
+  }
+
+  /**
+   * Returns the number of line segments containing 4 collinear points.
+   * Complexity: O(1)
+   *
+   * @return the number of line segments containing 4 collinear points
+   */
+  public int numberOfSegments() {
+    return ends.length / 2;
+  }
+
+  /**
+   * Returns all line segments containing 4 collinear points.
+   * Complexity: O(k) where k is the number of segments.
+   *
+   * @return line segments containing 4 collinear points
+   */
+  public LineSegment[] segments() {
+    final LineSegment[] segments = new LineSegment[ends.length / 2];
+    for (int i = 0; i < segments.length; ++i) {
+      final int p = ends[2 * i];
+      final int q = ends[2 * i + 1];
+      segments[i] = new LineSegment(new Point(xs[p], ys[p]), new Point(xs[q], ys[q]));
+    }
+    return segments;
+  }
+
+  /**
+   * Prints all line segments containing 4 collinear points based on the input from file.
+   *
+   * @param args Args[0] name of the file
+   * @throws IOException when the file cannot be read
+   */
+  public static void main(final String[] args) throws IOException {
+    final PointFile file = PointFile.readText(Paths.get(args[0]));
+    for (final LineSegment segment : new ArrayCollinearPoints(file.xs(), file.ys()).segments()) {
+      StdOut.println(segment);
+    }
+  }
+}
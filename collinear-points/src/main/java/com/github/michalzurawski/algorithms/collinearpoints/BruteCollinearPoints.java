@@ -1,9 +1,10 @@
 package com.github.michalzurawski.algorithms.collinearpoints;
 
-import edu.princeton.cs.algs4.In;
 import edu.princeton.cs.algs4.StdDraw;
 import edu.princeton.cs.algs4.StdOut;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 
@@ -24,30 +25,23 @@ public class BruteCollinearPoints {
    * @param points Points to check.
    */
   public BruteCollinearPoints(final Point[] points) {
-    final Point[] pointsCopy = Arrays.copyOf(points, points.length);
-    Arrays.sort(pointsCopy);
+    final Point[] pointsCopy = PointValidator.sortedCopy(points);
     final int n = pointsCopy.length;
-    for (int i = 1; i < n; ++i) {
-      if (pointsCopy[i].compareTo(pointsCopy[i - 1]) == 0) {
-        throw new IllegalArgumentException();
-      }
-    }
     final ArrayList<LineSegment> segments = new ArrayList<>();
+    final SlopeComparator slopeOrder = new SlopeComparator();
     for (int i = 0; i < n; ++i) {
       final Point p = pointsCopy[i];
+      slopeOrder.setAnchor(p);
       for (int j = i + 1; j < n; ++j) {
         final Point q = pointsCopy[j];
-        final double slopeQ = p.slopeTo(q);
         for (int k = j + 1; k < n; ++k) {
           final Point r = pointsCopy[k];
-          final double slopeR = p.slopeTo(r);
-          if (slopeQ != slopeR) {
+          if (slopeOrder.compare(q, r) != 0) {
             continue;
           }
           for (int m = k + 1; m < n; ++m) {
             final Point s = pointsCopy[m];
-            final double slopeS = p.slopeTo(s);
-            if (slopeQ == slopeS) {
+            if (slopeOrder.compare(q, s) == 0) {
               segments.add(new LineSegment(p, s));
             }
           }
@@ -82,18 +76,12 @@ public class BruteCollinearPoints {
    * Finds all 4th collinear points on the two-dimensional plane based on the input from file.
    *
    * @param args Args[0] name of the file
+   * @throws IOException when the file cannot be read
    */
-  public static void main(final String[] args) {
+  public static void main(final String[] args) throws IOException {
 
     // read the n points from a file
-    final In in = new In(args[0]);
-    final int n = in.readInt();
-    final Point[] points = new Point[n];
-    for (int i = 0; i < n; i++) {
-      final int x = in.readInt();
-      final int y = in.readInt();
-      points[i] = new Point(x, y);
-    }
+    final Point[] points = PointFile.readText(Paths.get(args[0])).points();
 
     // draw the points
     final int screenSize = 32768;
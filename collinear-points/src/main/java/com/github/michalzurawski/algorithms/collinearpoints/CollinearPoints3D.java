@@ -0,0 +1,112 @@
+package com.github.michalzurawski.algorithms.collinearpoints;
+
+import java.util.Arrays;
+
+/**
+ * Algorithm for finding 4 collinear points in space given as arrays of coordinates.
+ * For every anchor the vectors to all other points are reduced by the greatest common divisor of their components,
+ * so points on one line through the anchor share the same key, and are grouped in a primitive hash map.
+ * All arithmetic is exact on integers. Like FastCollinearPoints only maximal segments are returned:
+ * one per line, from its smallest to its largest point, where points are ordered by z, then y, then x.
+ * Complexity: O(n^2) expected where n is the number of points.
+ */
+public class CollinearPoints3D {
+  /**
+   * Input indices of the smallest and the largest point of every segment, one pair after another.
+   */
+  private final int[] ends;
+
+  /**
+   * Finds all line segments containing 4 collinear points.
+   * Complexity: O(n^2) expected where n is the number of points.
+   *
+   * @param xs x-coordinates of points
+   * @param ys y-coordinates of points
+   * @param zs z-coordinates of points
+   * @throws NullPointerException     when an array is null
+   * @throws IllegalArgumentException when arrays differ in length, two points are equal
+   *                                  or coordinates span more than 2^31 in some axis
+   */
+  public CollinearPoints3D(final int[] xs, final int[] ys, final int[] zs) {
+    final Points3D points = new Points3D(xs, ys, zs);
+    final int n = points.size();
+    final int[] px = points.xs();
+    final int[] py = points.ys();
+    final int[] pz = points.zs();
+    final DirectionHashMap groups = new DirectionHashMap(n);
+    final int[] groupFirst = new int[n];
+    final int[] groupLast = new int[n];
+    final int[] groupSize = new int[n];
+    final long[] direction = new long[3];
+    int[] found = new int[2];
+    int count = 0;
+
+    for (int i = 0; i < n; ++i) {
+      groups.clear();
+      for (int j = 0; j < n; ++j) {
+        if (j == i) {
+          continue;
+        }
+        Points3D.reduce(px[j] - (long) px[i], py[j] - (long) py[i], pz[j] - (long) pz[i], direction);
+        final int newGroup = groups.size();
+        final int group = groups.putIfAbsent(direction[0], direction[1], direction[2], newGroup);
+        if (group == newGroup) {
+          groupFirst[group] = j;
+          groupSize[group] = 0;
+        }
+        ++groupSize[group];
+        groupLast[group] = j;
+      }
+      // points are visited in natural order, so the anchor is the smallest point of a group iff it precedes the first
+      for (int group = 0; group < groups.size(); ++group) {
+        if (groupSize[group] > 2 && groupFirst[group] > i) {
+          if (2 * count == found.length) {
+            found = Arrays.copyOf(found, 2 * found.length);
+          }
+          found[2 * count] = points.index(i);
+          found[2 * count + 1] = points.index(groupLast[group]);
+          ++count;
+        }
+      }
+    }
+    ends = Arrays.copyOf(found, 2 * count);
+  }
+
+  /**
+   * Returns number of line segments containing 4 collinear points.
+   * Complexity: O(1)
+   *
+   * @return number of line segments
+   */
+  public int numberOfSegments() {
+    return ends.length / 2;
+  }
+
+  /**
+   * Returns input index of the smallest point of the segment.
+   * Complexity: O(1)
+   *
+   * @param segment index of the segment
+   * @return index of the point in the input arrays
+   */
+  public int from(final int segment) {
+    if (segment < 0 || segment >= numberOfSegments()) {
+      throw new IllegalArgumentException();
+    }
+    return ends[2 * segment];
+  }
+
+  /**
+   * Returns input index of the largest point of the segment.
+   * Complexity: O(1)
+   *
+   * @param segment index of the segment
+   * @return index of the point in the input arrays
+   */
+  public int to(final int segment) {
+    if (segment < 0 || segment >= numberOfSegments()) {
+      throw new IllegalArgumentException();
+    }
+    return ends[2 * segment + 1];
+  }
+}
@@ -0,0 +1,151 @@
+package com.github.michalzurawski.algorithms.collinearpoints;
+
+import java.util.Arrays;
+
+/**
+ * Algorithm for finding 4 coplanar points in space given as arrays of coordinates.
+ * Every plane is found from its two smallest points i and j: the normals of planes through i, j and every other
+ * point are reduced by the greatest common divisor of their components and grouped in a primitive hash map,
+ * points on the line through i and j belong to all of these planes. All arithmetic is exact on integers.
+ * Only maximal sets of at least 4 coplanar points which are not all collinear are returned,
+ * their points ordered by z, then y, then x.
+ * Complexity: O(n^3) expected where n is the number of points.
+ */
+public class CoplanarPoints3D {
+  /**
+   * Index of the first member of every plane in members, and the number of members at the end.
+   */
+  private final int[] planeStart;
+  /**
+   * Input indices of points of all planes, plane after plane.
+   */
+  private final int[] members;
+
+  /**
+   * Finds all planes containing 4 coplanar points.
+   * Complexity: O(n^3) expected where n is the number of points.
+   *
+   * @param xs x-coordinates of points
+   * @param ys y-coordinates of points
+   * @param zs z-coordinates of points
+   * @throws NullPointerException     when an array is null
+   * @throws IllegalArgumentException when arrays differ in length, two points are equal
+   *                                  or coordinates span more than 2^31 in some axis
+   */
+  public CoplanarPoints3D(final int[] xs, final int[] ys, final int[] zs) {
+    final Points3D points = new Points3D(xs, ys, zs);
+    final int n = points.size();
+    final int[] px = points.xs();
+    final int[] py = points.ys();
+    final int[] pz = points.zs();
+    final DirectionHashMap groups = new DirectionHashMap(n);
+    final int[] groupFirst = new int[n];
+    final int[] groupLast = new int[n];
+    final int[] groupSize = new int[n];
+    final int[] next = new int[n];
+    final int[] line = new int[n];
+    final long[] normal = new long[3];
+    final int[] plane = new int[n];
+    int[] starts = new int[2];
+    int[] found = new int[4];
+    int count = 0;
+
+    for (int i = 0; i < n; ++i) {
+      for (int j = i + 1; j < n; ++j) {
+        final long ux = px[j] - (long) px[i];
+        final long uy = py[j] - (long) py[i];
+        final long uz = pz[j] - (long) pz[i];
+        groups.clear();
+        int onLine = 0;
+        boolean smallest = true;
+        for (int k = 0; k < n && smallest; ++k) {
+          if (k == i || k == j) {
+            continue;
+          }
+          final long vx = px[k] - (long) px[i];
+          final long vy = py[k] - (long) py[i];
+          final long vz = pz[k] - (long) pz[i];
+          // differences fit in an int, so every cross product component fits in a long
+          final long nx = uy * vz - uz * vy;
+          final long ny = uz * vx - ux * vz;
+          final long nz = ux * vy - uy * vx;
+          if (nx == 0 && ny == 0 && nz == 0) {
+            // a point before j on the line means i and j are not the two smallest points of any plane through it
+            smallest = k > j;
+            line[onLine] = k;
+            ++onLine;
+            continue;
+          }
+          Points3D.reduce(nx, ny, nz, normal);
+          final int newGroup = groups.size();
+          final int group = groups.putIfAbsent(normal[0], normal[1], normal[2], newGroup);
+          if (group == newGroup) {
+            groupFirst[group] = k;
+            groupSize[group] = 0;
+          } else {
+            next[groupLast[group]] = k;
+          }
+          ++groupSize[group];
+          groupLast[group] = k;
+        }
+        if (!smallest) {
+          continue;
+        }
+        for (int group = 0; group < groups.size(); ++group) {
+          // points are visited in natural order, so j is the second smallest point iff it precedes the first
+          if (groupFirst[group] < j || groupSize[group] + onLine < 2) {
+            continue;
+          }
+          int size = 0;
+          plane[size++] = i;
+          plane[size++] = j;
+          for (int k = 0; k < onLine; ++k) {
+            plane[size++] = line[k];
+          }
+          for (int k = groupFirst[group], left = groupSize[group]; left > 0; k = next[k], --left) {
+            plane[size++] = k;
+          }
+          Arrays.sort(plane, 0, size);
+          if (count + 1 >= starts.length) {
+            starts = Arrays.copyOf(starts, 2 * starts.length);
+          }
+          final int start = starts[count];
+          while (start + size > found.length) {
+            found = Arrays.copyOf(found, 2 * found.length);
+          }
+          for (int k = 0; k < size; ++k) {
+            found[start + k] = points.index(plane[k]);
+          }
+          ++count;
+          starts[count] = start + size;
+        }
+      }
+    }
+    planeStart = Arrays.copyOf(starts, count + 1);
+    members = Arrays.copyOf(found, planeStart[count]);
+  }
+
+  /**
+   * Returns number of planes containing 4 coplanar points.
+   * Complexity: O(1)
+   *
+   * @return number of planes
+   */
+  public int numberOfPlanes() {
+    return planeStart.length - 1;
+  }
+
+  /**
+   * Returns input indices of points of the plane in natural order.
+   * Complexity: O(m) where m is the number of points of the plane.
+   *
+   * @param plane index of the plane
+   * @return indices of points in the input arrays
+   */
+  public int[] plane(final int plane) {
+    if (plane < 0 || plane >= numberOfPlanes()) {
+      throw new IllegalArgumentException();
+    }
+    return Arrays.copyOfRange(members, planeStart[plane], planeStart[plane + 1]);
+  }
+}
@@ -0,0 +1,128 @@
+package com.github.michalzurawski.algorithms.collinearpoints;
+
+import java.util.Arrays;
+
+/**
+ * Hash map from vectors of three long components to int values with open addressing and linear probing,
+ * the counterpart of LongIntHashMap for directions in space.
+ * Components and values are kept in primitive arrays and the whole map is cleared in constant time.
+ */
+final class DirectionHashMap {
+  /**
+   * Multiplier spreading keys over the table (golden ratio).
+   */
+  private static final long MIX = 0x9E3779B97F4A7C15L;
+  /**
+   * Stored x-components.
+   */
+  private final long[] xs;
+  /**
+   * Stored y-components.
+   */
+  private final long[] ys;
+  /**
+   * Stored z-components.
+   */
+  private final long[] zs;
+  /**
+   * Stored values.
+   */
+  private final int[] values;
+  /**
+   * Round in which each slot was filled, slot is empty if it differs from the current round.
+   */
+  private final int[] rounds;
+  /**
+   * Number of bits of the table index.
+   */
+  private final int bits;
+  /**
+   * Maximal number of entries.
+   */
+  private final int capacity;
+  /**
+   * Current round, incremented by clear().
+   */
+  private int round = 1;
+  /**
+   * Number of entries.
+   */
+  private int size = 0;
+
+  /**
+   * Creates map holding at most capacity entries.
+   *
+   * @param capacity maximal number of entries
+   */
+  DirectionHashMap(final int capacity) {
+    if (capacity < 0 || capacity > 1 << 29) {
+      throw new IllegalArgumentException();
+    }
+    // keep load factor at most 1/2
+    int tableBits = 1;
+    while (1 << tableBits < 2 * capacity) {
+      ++tableBits;
+    }
+    bits = tableBits;
+    this.capacity = capacity;
+    xs = new long[1 << bits];
+    ys = new long[1 << bits];
+    zs = new long[1 << bits];
+    values = new int[1 << bits];
+    rounds = new int[1 << bits];
+  }
+
+  /**
+   * Returns number of entries.
+   *
+   * @return number of entries
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Removes all entries.
+   * Complexity: O(1) amortized
+   */
+  void clear() {
+    if (round == Integer.MAX_VALUE) {
+      Arrays.fill(rounds, 0);
+      round = 0;
+    }
+    ++round;
+    size = 0;
+  }
+
+  /**
+   * Returns value associated with the vector, inserting given value if the vector is absent.
+   * Complexity: O(1) expected
+   *
+   * @param x     x-component of the vector
+   * @param y     y-component of the vector
+   * @param z     z-component of the vector
+   * @param value value inserted if the vector is absent
+   * @return value associated with the vector after the call
+   * @throws IllegalStateException when the map is full and the vector is absent
+   */
+  int putIfAbsent(final long x, final long y, final long z, final int value) {
+    final int mask = xs.length - 1;
+    int slot = (int) ((((x * MIX + y) * MIX + z) * MIX) >>> (Long.SIZE - bits));
+    while (rounds[slot] == round) {
+      if (xs[slot] == x && ys[slot] == y && zs[slot] == z) {
+        return values[slot];
+      }
+      slot = (slot + 1) & mask;
+    }
+    if (size == capacity) {
+      throw new IllegalStateException();
+    }
+    rounds[slot] = round;
+    xs[slot] = x;
+    ys[slot] = y;
+    zs[slot] = z;
+    values[slot] = value;
+    ++size;
+    return value;
+  }
+}
@@ -1,21 +1,29 @@
 package com.github.michalzurawski.algorithms.collinearpoints;
 
-import edu.princeton.cs.algs4.In;
 import edu.princeton.cs.algs4.StdDraw;
 import edu.princeton.cs.algs4.StdOut;
 
 import java.awt.Color;
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
-import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * Fast algorithm for finding 4 collinear points on a plane.
- * Complexity: O(n^2 log n) where n is the number of points.
+ * Points are ordered by slope to every anchor with a linear-time radix sort.
+ * Complexity: O(n^2) where n is the number of points.
  */
 public class FastCollinearPoints {
+  /**
+   * Number of tasks per thread of the pool in parallel mode, more tasks balance uneven anchors better.
+   */
+  private static final int TASKS_PER_THREAD = 4;
   /**
    * Line segments containing all 4 collinear points.
    */
@@ -23,51 +31,321 @@ public class FastCollinearPoints {
 
   /**
    * Finds all line segments containing 4 collinear points.
-   * Complexity: O(n^2 lg n) where n is the number of points.
+   * Complexity: O(n^2) where n is the number of points.
    *
    * @param points Points to check.
    */
   public FastCollinearPoints(final Point[] points) {
-    final Point[] pointsCopy = Arrays.copyOf(points, points.length);
-    Arrays.sort(pointsCopy);
+    this(points, false);
+  }
+
+  /**
+   * Finds all line segments containing 4 collinear points, optionally splitting anchors across the common pool.
+   * The result is the same, in the same order, in both modes.
+   * Complexity: O(n^2) where n is the number of points.
+   *
+   * @param points   Points to check.
+   * @param parallel true to search from many anchors at once
+   */
+  public FastCollinearPoints(final Point[] points, final boolean parallel) {
+    final Point[] pointsCopy = PointValidator.sortedCopy(points);
     final int n = pointsCopy.length;
-    for (int i = 1; i < n; ++i) {
-      if (pointsCopy[i].compareTo(pointsCopy[i - 1]) == 0) {
-        throw new IllegalArgumentException();
+    final List<LineSegment> segments;
+    if (parallel) {
+      final int grain = Math.max(1, n / (ForkJoinPool.getCommonPoolParallelism() * TASKS_PER_THREAD));
+      segments = ForkJoinPool.commonPool().invoke(new AnchorTask(pointsCopy, 0, n, grain));
+    } else {
+      segments = findSegments(pointsCopy, 0, n);
+    }
+
+    lineSegments = new LineSegment[segments.size()];
+    segments.toArray(lineSegments);
+  }
+
+  /**
+   * Sends every line segment containing 4 collinear points to the consumer as soon as it is found,
+   * without storing the segments. Segments come in the same order as from segments().
+   * Complexity: O(n^2) where n is the number of points.
+   *
+   * @param points   Points to check.
+   * @param consumer receiver of segments
+   */
+  public static void forEachSegment(final Point[] points, final SegmentConsumer consumer) {
+    if (consumer == null) {
+      throw new NullPointerException();
+    }
+    final Point[] pointsCopy = PointValidator.sortedCopy(points);
+    forEachSegment(pointsCopy, 0, pointsCopy.length, consumer);
+  }
+
+  /**
+   * Sends line segments starting at anchors in range [from, to) of the naturally sorted points to the consumer.
+   * Every segment starts at its smallest point, so disjoint ranges never send the same segment.
+   * Complexity: O(n (to - from)) where n is the number of points.
+   *
+   * @param points   naturally sorted points without duplicates
+   * @param from     index of the first anchor
+   * @param to       index after the last anchor
+   * @param consumer receiver of segments
+   */
+  static void forEachSegment(final Point[] points, final int from, final int to, final SegmentConsumer consumer) {
+    final AnchorSearch search = new AnchorSearch(points);
+    for (int i = from; i < to; ++i) {
+      final Point point = points[i];
+      final int found = search.search(i);
+      for (int k = 0; k < found; ++k) {
+        final Point end = search.ends[k];
+        consumer.accept(point.x(), point.y(), end.x(), end.y());
+      }
+    }
+  }
+
+  /**
+   * Returns line segments containing 4 collinear points which are searched for lazily during iteration.
+   * Points are validated immediately, but only segments of one anchor are held in memory at a time.
+   * Segments come in the same order as from segments().
+   * Complexity: O(n^2) for the whole iteration where n is the number of points.
+   *
+   * @param points Points to check.
+   * @return iterable over line segments, every iterator repeats the search
+   */
+  public static Iterable<LineSegment> lazySegments(final Point[] points) {
+    final Point[] pointsCopy = PointValidator.sortedCopy(points);
+    return () -> new LazySegmentIterator(pointsCopy);
+  }
+
+  /**
+   * Finds line segments starting at anchors in range [from, to) of the naturally sorted points.
+   * Segments are returned in the order of their anchors.
+   *
+   * @param points naturally sorted points without duplicates
+   * @param from   index of the first anchor
+   * @param to     index after the last anchor
+   * @return found line segments
+   */
+  private static List<LineSegment> findSegments(final Point[] points, final int from, final int to) {
+    final List<LineSegment> segments = new ArrayList<>();
+    final AnchorSearch search = new AnchorSearch(points);
+    for (int i = from; i < to; ++i) {
+      final int found = search.search(i);
+      for (int k = 0; k < found; ++k) {
+        segments.add(new LineSegment(points[i], search.ends[k]));
       }
     }
-    final Collection<LineSegment> segments = new ArrayList<>();
-
-    for (final Point point : pointsCopy) {
-      final Point[] sortedPoints = new Point[n];
-      System.arraycopy(pointsCopy, 0, sortedPoints, 0, n);
-      Arrays.sort(sortedPoints, point.slopeOrder());
-      for (int j = 1; j < n;) {
-        int index = j;
-        final List<Point> collinearPoints = new ArrayList<>();
-        collinearPoints.add(sortedPoints[j - 1]);
-        while (index < n && point.slopeTo(sortedPoints[index]) == point.slopeTo(sortedPoints[j - 1])) {
-          collinearPoints.add(sortedPoints[index]);
+    return segments;
+  }
+
+  /**
+   * Search for segments starting at one anchor, with scratch buffers reused for every anchor.
+   */
+  private static final class AnchorSearch {
+    /**
+     * Naturally sorted points.
+     */
+    private final Point[] points;
+    /**
+     * Comparator of slopes to the current anchor.
+     */
+    private final SlopeComparator slopeOrder = new SlopeComparator();
+    /**
+     * Sorter of points by slope.
+     */
+    private final SlopeSorter slopeSorter;
+    /**
+     * Points sorted by slope to the current anchor.
+     */
+    private final Point[] sortedPoints;
+    /**
+     * Points smaller than the current anchor sorted by slope to it.
+     */
+    private final Point[] smallerPoints;
+    /**
+     * Last points of segments found for the current anchor.
+     */
+    private final Point[] ends;
+
+    /**
+     * Creates search over points.
+     *
+     * @param points naturally sorted points without duplicates
+     */
+    private AnchorSearch(final Point[] points) {
+      this.points = points;
+      slopeSorter = new SlopeSorter(points.length);
+      sortedPoints = new Point[points.length];
+      smallerPoints = new Point[points.length];
+      ends = new Point[points.length];
+    }
+
+    /**
+     * Finds segments whose smallest point is the anchor and stores their last points in ends.
+     * Only points greater than the anchor are grouped by slope. Sorting keeps the natural order of points
+     * with equal slopes, so the last point of a group is its largest one and no group has to be sorted.
+     * A group is part of a segment found from an earlier anchor iff some smaller point has the same slope,
+     * which is checked by binary search among smaller points, sorted only when the first group is found.
+     *
+     * @param anchor index of the anchor
+     * @return number of found segments
+     */
+    private int search(final int anchor) {
+      final int n = points.length;
+      final Point point = points[anchor];
+      slopeOrder.setAnchor(point);
+      final int greater = n - anchor - 1;
+      slopeSorter.sort(points, anchor + 1, n, point, sortedPoints);
+      boolean smallerSorted = false;
+      int found = 0;
+      for (int j = 0; j < greater;) {
+        int index = j + 1;
+        while (index < greater && slopeOrder.compare(sortedPoints[index], sortedPoints[j]) == 0) {
           ++index;
         }
-        if (collinearPoints.size() > 2) {
-          j += collinearPoints.size() - 1;
-          Collections.sort(collinearPoints);
-          final Point first = collinearPoints.get(0);
-          if (point.compareTo(first) > 0) {
-            continue;
+        if (index - j > 2) {
+          if (!smallerSorted) {
+            slopeSorter.sort(points, 0, anchor, point, smallerPoints);
+            smallerSorted = true;
           }
-          final Point last = collinearPoints.get(collinearPoints.size() - 1);
-          final LineSegment lineSegment = new LineSegment(point, last);
-          segments.add(lineSegment);
+          if (!containsSlope(anchor, sortedPoints[j])) {
+            ends[found] = sortedPoints[index - 1];
+            ++found;
+          }
+        }
+        j = index;
+      }
+      return found;
+    }
+
+    /**
+     * Checks whether some point smaller than the anchor has the same slope to it as given point.
+     * Complexity: O(log n)
+     *
+     * @param count number of smaller points
+     * @param point point defining the slope
+     * @return true if there is a smaller point with the same slope
+     */
+    private boolean containsSlope(final int count, final Point point) {
+      int low = 0;
+      int high = count - 1;
+      while (low <= high) {
+        final int middle = (low + high) >>> 1;
+        final int result = slopeOrder.compare(smallerPoints[middle], point);
+        if (result < 0) {
+          low = middle + 1;
+        } else if (result > 0) {
+          high = middle - 1;
         } else {
-          ++j;
+          return true;
         }
       }
+      return false;
     }
+  }
 
-    lineSegments = new LineSegment[segments.size()];
-    segments.toArray(lineSegments);
+  /**
+   * Iterator searching for segments of the next anchor when segments of the previous one are used up.
+   */
+  private static final class LazySegmentIterator implements Iterator<LineSegment> {
+    /**
+     * Naturally sorted points.
+     */
+    private final Point[] points;
+    /**
+     * Search with segments of the current anchor.
+     */
+    private final AnchorSearch search;
+    /**
+     * Index of the next anchor to search.
+     */
+    private int anchor = 0;
+    /**
+     * Number of segments of the current anchor.
+     */
+    private int found = 0;
+    /**
+     * Index of the next segment of the current anchor.
+     */
+    private int next = 0;
+
+    /**
+     * Creates iterator over segments of points.
+     *
+     * @param points naturally sorted points without duplicates
+     */
+    private LazySegmentIterator(final Point[] points) {
+      this.points = points;
+      search = new AnchorSearch(points);
+    }
+
+    @Override
+    public boolean hasNext() {
+      while (next == found && anchor < points.length) {
+        found = search.search(anchor);
+        next = 0;
+        ++anchor;
+      }
+      return next < found;
+    }
+
+    @Override
+    public LineSegment next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      final LineSegment segment = new LineSegment(points[anchor - 1], search.ends[next]);
+      ++next;
+      return segment;
+    }
+  }
+
+  /**
+   * Task searching from a range of anchors, splitting it in halves until it is small enough.
+   */
+  private static final class AnchorTask extends RecursiveTask<List<LineSegment>> {
+    /**
+     * Naturally sorted points.
+     */
+    private final Point[] points;
+    /**
+     * Index of the first anchor.
+     */
+    private final int from;
+    /**
+     * Index after the last anchor.
+     */
+    private final int to;
+    /**
+     * Maximal number of anchors searched without splitting.
+     */
+    private final int grain;
+
+    /**
+     * Creates task for anchors in range [from, to).
+     *
+     * @param points naturally sorted points
+     * @param from   index of the first anchor
+     * @param to     index after the last anchor
+     * @param grain  maximal number of anchors searched without splitting
+     */
+    private AnchorTask(final Point[] points, final int from, final int to, final int grain) {
+      this.points = points;
+      this.from = from;
+      this.to = to;
+      this.grain = grain;
+    }
+
+    @Override
+    protected List<LineSegment> compute() {
+      if (to - from <= grain) {
+        return findSegments(points, from, to);
+      }
+      final int middle = (from + to) >>> 1;
+      final AnchorTask left = new AnchorTask(points, from, middle, grain);
+      left.fork();
+      final List<LineSegment> right = new AnchorTask(points, middle, to, grain).compute();
+      final List<LineSegment> segments = left.join();
+      segments.addAll(right);
+      return segments;
+    }
   }
 
   /**
@@ -94,18 +372,12 @@ public class FastCollinearPoints {
    * Finds all 4th collinear points on the two-dimensional plane based on the input from file.
    *
    * @param args Args[0] name of the file
+   * @throws IOException when the file cannot be read
    */
-  public static void main(final String[] args) {
+  public static void main(final String[] args) throws IOException {
 
     // read the n points from a file
-    final In in = new In(args[0]);
-    final int n = in.readInt();
-    final Point[] points = new Point[n];
-    for (int i = 0; i < n; i++) {
-      final int x = in.readInt();
-      final int y = in.readInt();
-      points[i] = new Point(x, y);
-    }
+    final Point[] points = PointFile.readText(Paths.get(args[0])).points();
 
     // draw the points
     final int screenSize = 32768;
@@ -0,0 +1,249 @@
+package com.github.michalzurawski.algorithms.collinearpoints;
+
+import edu.princeton.cs.algs4.StdOut;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * Hash based algorithm for finding 4 collinear points on a plane.
+ * For every anchor the directions to all other points are reduced by their greatest common divisor,
+ * so points on one line through the anchor share the same key, and are grouped in a primitive hash map.
+ * The result is the same, in the same order, as the result of FastCollinearPoints.
+ * Complexity: O(n^2) expected where n is the number of points.
+ */
+public class HashCollinearPoints {
+  /**
+   * Line segments containing all 4 collinear points.
+   */
+  private final LineSegment[] lineSegments;
+
+  /**
+   * Finds all line segments containing 4 collinear points.
+   * Directions are packed into 32-bit halves of a key, so when coordinates span more than 2^31 in either axis
+   * the search falls back to FastCollinearPoints.
+   * Complexity: O(n^2) expected where n is the number of points.
+   *
+   * @param points Points to check.
+   */
+  public HashCollinearPoints(final Point[] points) {
+    final Point[] pointsCopy = PointValidator.sortedCopy(points);
+    final int n = pointsCopy.length;
+    final int[] xs = new int[n];
+    final int[] ys = new int[n];
+    for (int i = 0; i < n; ++i) {
+      xs[i] = pointsCopy[i].x();
+      ys[i] = pointsCopy[i].y();
+    }
+    if (!fitsInKey(xs, ys)) {
+      lineSegments = new FastCollinearPoints(pointsCopy).segments();
+      return;
+    }
+    final int[] ends = findSegments(xs, ys);
+    lineSegments = new LineSegment[ends.length / 2];
+    for (int i = 0; i < lineSegments.length; ++i) {
+      lineSegments[i] = new LineSegment(pointsCopy[ends[2 * i]], pointsCopy[ends[2 * i + 1]]);
+    }
+  }
+
+  /**
+   * Finds all line segments containing 4 collinear points given by coordinate arrays.
+   * Complexity: O(n^2) expected where n is the number of points.
+   *
+   * @param xs x-coordinates of naturally sorted, distinct points whose differences fit in an int
+   * @param ys y-coordinates of the points
+   * @return indices of the smallest and the largest point of every segment, one pair after another
+   */
+  static int[] findSegments(final int[] xs, final int[] ys) {
+    return findSegments(xs, ys, 0, xs.length);
+  }
+
+  /**
+   * Finds line segments containing 4 collinear points whose smallest point is an anchor in range [from, to).
+   * Complexity: O(n (to - from + 1)) expected where n is the number of points.
+   *
+   * @param xs   x-coordinates of naturally sorted, distinct points whose differences fit in an int
+   * @param ys   y-coordinates of the points
+   * @param from index of the first anchor
+   * @param to   index after the last anchor
+   * @return indices of the smallest and the largest point of every segment, one pair after another
+   */
+  static int[] findSegments(final int[] xs, final int[] ys, final int from, final int to) {
+    final int n = xs.length;
+    final LongIntHashMap groups = new LongIntHashMap(n);
+    final int[] groupFirst = new int[n];
+    final int[] groupLast = new int[n];
+    final int[] groupSize = new int[n];
+    final int[] ends = new int[n];
+    int[] segments = new int[2];
+    int count = 0;
+
+    for (int i = from; i < to; ++i) {
+      groups.clear();
+      for (int j = 0; j < n; ++j) {
+        if (j == i) {
+          continue;
+        }
+        final int newGroup = groups.size();
+        final int group = groups.putIfAbsent(direction(xs[j] - (long) xs[i], ys[j] - (long) ys[i]), newGroup);
+        if (group == newGroup) {
+          groupFirst[group] = j;
+          groupSize[group] = 0;
+        }
+        ++groupSize[group];
+        groupLast[group] = j;
+      }
+      // points are visited in natural order, so the anchor is the smallest point of a group iff it precedes the first
+      int found = 0;
+      for (int group = 0; group < groups.size(); ++group) {
+        if (groupSize[group] > 2 && groupFirst[group] > i) {
+          ends[found] = groupLast[group];
+          ++found;
+        }
+      }
+      sortBySlope(xs, ys, i, ends, found);
+      for (int k = 0; k < found; ++k) {
+        if (2 * count == segments.length) {
+          segments = Arrays.copyOf(segments, 2 * segments.length);
+        }
+        segments[2 * count] = i;
+        segments[2 * count + 1] = ends[k];
+        ++count;
+      }
+    }
+    return Arrays.copyOf(segments, 2 * count);
+  }
+
+  /**
+   * Checks whether every difference of coordinates fits in an int.
+   *
+   * @param xs x-coordinates of points
+   * @param ys y-coordinates of points
+   * @return true if directions can be packed into keys
+   */
+  static boolean fitsInKey(final int[] xs, final int[] ys) {
+    return span(xs) <= Integer.MAX_VALUE && span(ys) <= Integer.MAX_VALUE;
+  }
+
+  /**
+   * Returns difference between the largest and the smallest value.
+   *
+   * @param values values to check
+   * @return the span of values, 0 if there are none
+   */
+  static long span(final int[] values) {
+    int min = Integer.MAX_VALUE;
+    int max = Integer.MIN_VALUE;
+    for (final int value : values) {
+      min = Math.min(min, value);
+      max = Math.max(max, value);
+    }
+    return values.length == 0 ? 0 : (long) max - min;
+  }
+
+  /**
+   * Returns key of the direction: the vector is divided by the greatest common divisor of its components
+   * and turned to point right (or up if vertical), then both components are packed into one long.
+   *
+   * @param dx x-component of the vector, fits in an int
+   * @param dy y-component of the vector, fits in an int
+   * @return key equal for all vectors lying on the same line
+   */
+  static long direction(final long dx, final long dy) {
+    final long divisor = gcd(Math.abs(dx), Math.abs(dy));
+    long x = dx / divisor;
+    long y = dy / divisor;
+    if (x < 0 || x == 0 && y < 0) {
+      x = -x;
+      y = -y;
+    }
+    return x << Integer.SIZE | y & 0xFFFFFFFFL;
+  }
+
+  /**
+   * Returns the greatest common divisor of two non-negative numbers, not both zero.
+   * Complexity: O(log(a + b))
+   *
+   * @param a first number
+   * @param b second number
+   * @return the greatest common divisor
+   */
+  static long gcd(final long a, final long b) {
+    if (a == 0 || b == 0) {
+      return a | b;
+    }
+    final int shift = Long.numberOfTrailingZeros(a | b);
+    long u = a >>> Long.numberOfTrailingZeros(a);
+    long v = b;
+    while (v != 0) {
+      v >>>= Long.numberOfTrailingZeros(v);
+      if (u > v) {
+        final long t = u;
+        u = v;
+        v = t;
+      }
+      v -= u;
+    }
+    return u << shift;
+  }
+
+  /**
+   * Sorts indices of segment ends by the slope they make with the anchor, like the order of FastCollinearPoints.
+   * There are only a few segments per anchor, so insertion sort is used.
+   *
+   * @param xs     x-coordinates of points
+   * @param ys     y-coordinates of points
+   * @param anchor index of the anchor
+   * @param ends   indices of segment ends
+   * @param count  number of segment ends
+   */
+  private static void sortBySlope(final int[] xs, final int[] ys, final int anchor, final int[] ends,
+                                  final int count) {
+    for (int i = 1; i < count; ++i) {
+      final int end = ends[i];
+      final long dx = xs[end] - (long) xs[anchor];
+      final long dy = ys[end] - (long) ys[anchor];
+      int j = i;
+      while (j > 0 && SlopeComparator.compareSlopes(xs[ends[j - 1]] - (long) xs[anchor],
+          ys[ends[j - 1]] - (long) ys[anchor], dx, dy) > 0) {
+        ends[j] = ends[j - 1];
+        --j;
+      }
+      ends[j] = end;
+    }
+  }
+
+  /**
+   * Returns the number of line segments containing 4 collinear points.
+   * Complexity: O(1)
+   *
+   * @return the number of line segments containing 4 collinear points
+   */
+  public int numberOfSegments() {
+    return lineSegments.length;
+  }
+
+  /**
+   * Returns all line segments containing 4 collinear points.
+   * Complexity: O(1)
+   *
+   * @return line segments containing 4 collinear points
+   */
+  public LineSegment[] segments() {
+    return Arrays.copyOf(lineSegments, lineSegments.length);
+  }
+
+  /**
+   * Prints all line segments containing 4 collinear points based on the input from file.
+   *
+   * @param args Args[0] name of the file
+   * @throws IOException when the file cannot be read
+   */
+  public static void main(final String[] args) throws IOException {
+    final Point[] points = PointFile.readText(Paths.get(args[0])).points();
+    for (final LineSegment segment : new HashCollinearPoints(points).segments()) {
+      StdOut.println(segment);
+    }
+  }
+}
@@ -0,0 +1,577 @@
+package com.github.michalzurawski.algorithms.collinearpoints;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Approximate detector of lines in large, noisy point sets using the Hough transform.
+ * Every point votes for all quantized lines (theta, rho) passing through it, where rho is the distance
+ * of the line from the center of the points and theta the angle of its normal.
+ * Votes are counted in a primitive int[] accumulator, in parallel on chunks of points with one accumulator
+ * per chunk, summed at the end. Local maxima of the accumulator with enough votes are refined in parallel, one task
+ * per peak: a line is fitted to the points of the peak cell and fitted again to the points in a band around it,
+ * halved down to the tolerance, so that distant noise in the wide band of the quantized line does not pull it away.
+ * Then, from the line with most points, every line keeps its points within the tolerance which no line with more
+ * points has taken; the segment is the longest run of these points without gaps longer than the maximal gap.
+ * Unlike FastCollinearPoints points need not be exactly collinear.
+ * Complexity: O(n * a + c + p * n) where a is the number of angles, c the number of cells and p of peaks.
+ */
+public class HoughLineDetector {
+  /**
+   * Minimal number of points voting in one task.
+   */
+  private static final int MIN_CHUNK = 1 << 12;
+  /**
+   * Number of low bits of a sort key holding the index of a point.
+   */
+  private static final int INDEX_BITS = 28;
+  /**
+   * Mask of the index in a sort key.
+   */
+  private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+  /**
+   * Maximal number of fits of one line.
+   */
+  private static final int MAX_FITS = 16;
+  /**
+   * Number of quantized angles in [0, pi).
+   */
+  private final int angles;
+  /**
+   * Width of a quantized distance.
+   */
+  private final double rhoStep;
+  /**
+   * Maximal distance of a point from the refined line.
+   */
+  private final double tolerance;
+  /**
+   * Minimal number of points on a line.
+   */
+  private final int minSupport;
+  /**
+   * Maximal distance between consecutive points of one segment.
+   */
+  private final double maxGap;
+  /**
+   * Cosines of quantized angles.
+   */
+  private final double[] cos;
+  /**
+   * Sines of quantized angles.
+   */
+  private final double[] sin;
+
+  /**
+   * Creates detector joining all points of a line into one segment.
+   *
+   * @param angles     number of quantized angles, angular resolution is pi / angles
+   * @param rhoStep    width of a quantized distance
+   * @param tolerance  maximal distance of a point from the detected line
+   * @param minSupport minimal number of points on a detected line, at least 2
+   */
+  public HoughLineDetector(final int angles, final double rhoStep, final double tolerance, final int minSupport) {
+    this(angles, rhoStep, tolerance, minSupport, Double.POSITIVE_INFINITY);
+  }
+
+  /**
+   * Creates detector.
+   *
+   * @param angles     number of quantized angles, angular resolution is pi / angles
+   * @param rhoStep    width of a quantized distance
+   * @param tolerance  maximal distance of a point from the detected line
+   * @param minSupport minimal number of points on a detected line, at least 2
+   * @param maxGap     maximal distance between consecutive points of a segment,
+   *                   of a line broken by longer gaps only the part with most points is detected
+   */
+  public HoughLineDetector(final int angles, final double rhoStep, final double tolerance, final int minSupport,
+                           final double maxGap) {
+    if (angles <= 0 || !(rhoStep > 0) || !(tolerance >= 0) || minSupport < 2 || !(maxGap >= 0)) {
+      throw new IllegalArgumentException();
+    }
+    this.maxGap = maxGap;
+    this.angles = angles;
+    this.rhoStep = rhoStep;
+    this.tolerance = tolerance;
+    this.minSupport = minSupport;
+    cos = new double[angles];
+    sin = new double[angles];
+    for (int i = 0; i < angles; ++i) {
+      cos[i] = Math.cos(Math.PI * i / angles);
+      sin[i] = Math.sin(Math.PI * i / angles);
+    }
+  }
+
+  /**
+   * Detects lines among points.
+   *
+   * @param points points to check
+   * @return segments between the extreme points of every detected line, strongest lines first
+   */
+  public LineSegment[] detect(final Point[] points) {
+    final int[] xs = new int[points.length];
+    final int[] ys = new int[points.length];
+    for (int i = 0; i < points.length; ++i) {
+      xs[i] = points[i].x();
+      ys[i] = points[i].y();
+    }
+    return detect(xs, ys);
+  }
+
+  /**
+   * Detects lines among points given by coordinate arrays.
+   *
+   * @param xs x-coordinates of points
+   * @param ys y-coordinates of points
+   * @return segments between the extreme points of every detected line, strongest lines first
+   */
+  public LineSegment[] detect(final int[] xs, final int[] ys) {
+    if (xs.length != ys.length || xs.length > INDEX_MASK) {
+      throw new IllegalArgumentException();
+    }
+    final int n = xs.length;
+    if (n == 0) {
+      return new LineSegment[0];
+    }
+    long minX = Long.MAX_VALUE;
+    long minY = Long.MAX_VALUE;
+    long maxX = Long.MIN_VALUE;
+    long maxY = Long.MIN_VALUE;
+    for (int i = 0; i < n; ++i) {
+      minX = Math.min(minX, xs[i]);
+      maxX = Math.max(maxX, xs[i]);
+      minY = Math.min(minY, ys[i]);
+      maxY = Math.max(maxY, ys[i]);
+    }
+    final double centerX = (minX + maxX) / 2.0;
+    final double centerY = (minY + maxY) / 2.0;
+    final double radius = Math.hypot(maxX - minX, maxY - minY) / 2;
+    final int distances = (int) Math.ceil(2 * radius / rhoStep) + 1;
+    if ((long) distances * angles > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException();
+    }
+    final Space space = new Space(xs, ys, centerX, centerY, radius, distances);
+
+    final int chunk = Math.max(MIN_CHUNK, n / ForkJoinPool.getCommonPoolParallelism() + 1);
+    final int[] votes = ForkJoinPool.commonPool().invoke(new VoteTask(space, 0, n, chunk));
+    return refine(space, peaks(votes, distances));
+  }
+
+  /**
+   * Points with the geometry of the accumulator.
+   */
+  private static final class Space {
+    /**
+     * x-coordinates of points.
+     */
+    private final int[] xs;
+    /**
+     * y-coordinates of points.
+     */
+    private final int[] ys;
+    /**
+     * x-coordinate of the center from which distances are measured.
+     */
+    private final double centerX;
+    /**
+     * y-coordinate of the center from which distances are measured.
+     */
+    private final double centerY;
+    /**
+     * Greatest distance of a point from the center.
+     */
+    private final double radius;
+    /**
+     * Number of quantized distances.
+     */
+    private final int distances;
+
+    /**
+     * Creates accumulator geometry.
+     *
+     * @param xs        x-coordinates of points
+     * @param ys        y-coordinates of points
+     * @param centerX   x-coordinate of the center
+     * @param centerY   y-coordinate of the center
+     * @param radius    greatest distance of a point from the center
+     * @param distances number of quantized distances
+     */
+    private Space(final int[] xs, final int[] ys, final double centerX, final double centerY, final double radius,
+                  final int distances) {
+      this.xs = xs;
+      this.ys = ys;
+      this.centerX = centerX;
+      this.centerY = centerY;
+      this.radius = radius;
+      this.distances = distances;
+    }
+  }
+
+  /**
+   * Task voting with a range of points, splitting it in halves until it is small enough.
+   * Every leaf votes into its own accumulator, accumulators are summed while joining.
+   */
+  private final class VoteTask extends RecursiveTask<int[]> {
+    /**
+     * Points and geometry of the accumulator.
+     */
+    private final Space space;
+    /**
+     * Index of the first point.
+     */
+    private final int from;
+    /**
+     * Index after the last point.
+     */
+    private final int to;
+    /**
+     * Maximal number of points voting without splitting.
+     */
+    private final int chunk;
+
+    /**
+     * Creates task for points in range [from, to).
+     *
+     * @param space points and geometry of the accumulator
+     * @param from  index of the first point
+     * @param to    index after the last point
+     * @param chunk maximal number of points voting without splitting
+     */
+    private VoteTask(final Space space, final int from, final int to, final int chunk) {
+      this.space = space;
+      this.from = from;
+      this.to = to;
+      this.chunk = chunk;
+    }
+
+    @Override
+    protected int[] compute() {
+      if (to - from <= chunk) {
+        final int[] votes = new int[angles * space.distances];
+        final double offset = space.radius / rhoStep;
+        for (int i = from; i < to; ++i) {
+          final double x = (space.xs[i] - space.centerX) / rhoStep;
+          final double y = (space.ys[i] - space.centerY) / rhoStep;
+          for (int angle = 0, cell = 0; angle < angles; ++angle, cell += space.distances) {
+            ++votes[cell + (int) (x * cos[angle] + y * sin[angle] + offset + 0.5)];
+          }
+        }
+        return votes;
+      }
+      final int middle = (from + to) >>> 1;
+      final VoteTask left = new VoteTask(space, from, middle, chunk);
+      left.fork();
+      final int[] votes = new VoteTask(space, middle, to, chunk).compute();
+      final int[] leftVotes = left.join();
+      for (int i = 0; i < votes.length; ++i) {
+        votes[i] += leftVotes[i];
+      }
+      return votes;
+    }
+  }
+
+  /**
+   * Returns cells of the accumulator with at least minSupport votes which are local maxima
+   * of their 3x3 neighbourhood, ordered by decreasing number of votes.
+   * Of equal neighbouring cells only the first one is a maximum.
+   *
+   * @param votes     accumulator
+   * @param distances number of quantized distances
+   * @return indices of peak cells
+   */
+  private int[] peaks(final int[] votes, final int distances) {
+    long[] peaks = new long[1];
+    int count = 0;
+    for (int angle = 0; angle < angles; ++angle) {
+      for (int distance = 0; distance < distances; ++distance) {
+        final int cell = angle * distances + distance;
+        final int value = votes[cell];
+        if (value < minSupport || !isMaximum(votes, distances, angle, distance)) {
+          continue;
+        }
+        if (count == peaks.length) {
+          peaks = Arrays.copyOf(peaks, 2 * count);
+        }
+        // more votes first, then smaller cells first
+        peaks[count] = (long) -value << Integer.SIZE | cell;
+        ++count;
+      }
+    }
+    Arrays.sort(peaks, 0, count);
+    final int[] cells = new int[count];
+    for (int i = 0; i < count; ++i) {
+      cells[i] = (int) peaks[i];
+    }
+    return cells;
+  }
+
+  /**
+   * Checks whether cell has more votes than preceding neighbours and not less than following ones.
+   *
+   * @param votes     accumulator
+   * @param distances number of quantized distances
+   * @param angle     angle of the cell
+   * @param distance  distance of the cell
+   * @return true if the cell is a local maximum
+   */
+  private boolean isMaximum(final int[] votes, final int distances, final int angle, final int distance) {
+    final int value = votes[angle * distances + distance];
+    for (int a = Math.max(0, angle - 1); a <= Math.min(angles - 1, angle + 1); ++a) {
+      for (int d = Math.max(0, distance - 1); d <= Math.min(distances - 1, distance + 1); ++d) {
+        final int neighbour = votes[a * distances + d];
+        final boolean preceding = a < angle || a == angle && d < distance;
+        if (neighbour > value || preceding && neighbour == value) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Task fitting lines to range of peaks, split in halves until it holds one peak.
+   */
+  private final class FitTask extends RecursiveAction {
+    /**
+     * Points and geometry of the accumulator.
+     */
+    private final Space space;
+    /**
+     * Peak cells.
+     */
+    private final int[] peaks;
+    /**
+     * Fitted line of every peak, null if it has too few points.
+     */
+    private final double[][] lines;
+    /**
+     * Indices of points within the tolerance of the fitted line of every peak.
+     */
+    private final int[][] supports;
+    /**
+     * Index of the first peak.
+     */
+    private final int from;
+    /**
+     * Index after the last peak.
+     */
+    private final int to;
+
+    /**
+     * Creates task fitting lines to peaks in range [from, to).
+     *
+     * @param space    points and geometry of the accumulator
+     * @param peaks    peak cells
+     * @param lines    array receiving fitted lines
+     * @param supports array receiving points of fitted lines
+     * @param from     index of the first peak
+     * @param to       index after the last peak
+     */
+    private FitTask(final Space space, final int[] peaks, final double[][] lines, final int[][] supports,
+                    final int from, final int to) {
+      this.space = space;
+      this.peaks = peaks;
+      this.lines = lines;
+      this.supports = supports;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from > 1) {
+        final int middle = (from + to) >>> 1;
+        invokeAll(new FitTask(space, peaks, lines, supports, from, middle),
+            new FitTask(space, peaks, lines, supports, middle, to));
+        return;
+      }
+      final int n = space.xs.length;
+      final int[] near = new int[n];
+      final int[] inliers = new int[n];
+      final int angle = peaks[from] / space.distances;
+      final double rho = (peaks[from] % space.distances) * rhoStep - space.radius;
+      // the quantized line may be turned by up to half of the angular step around its foot point
+      final double turn = Math.sin(Math.PI / (2 * angles));
+      int nearCount = 0;
+      for (int i = 0; i < n; ++i) {
+        final double x = space.xs[i] - space.centerX;
+        final double y = space.ys[i] - space.centerY;
+        final double distance = x * cos[angle] + y * sin[angle] - rho;
+        final double along = y * cos[angle] - x * sin[angle];
+        if (Math.abs(distance) <= tolerance + rhoStep / 2 + Math.abs(along) * turn) {
+          near[nearCount] = i;
+          ++nearCount;
+        }
+      }
+      // the first fit uses only the points which voted for the cell, then the band around the fitted line
+      // starts as wide as the nearby points and is halved with every fit until the points within the tolerance
+      // do not change, so noise far from the line never pulls it
+      final double[] cellLine = {space.centerX + rho * cos[angle], space.centerY + rho * sin[angle], -sin[angle],
+          cos[angle]};
+      int supported = select(space, cellLine, rhoStep / 2, near, nearCount, inliers);
+      if (supported < 2) {
+        return;
+      }
+      double[] line = fit(space, inliers, supported);
+      double band = Math.max(tolerance, rhoStep / 2 + space.radius * turn);
+      for (int fit = 0; fit < MAX_FITS; ++fit) {
+        final int previous = supported;
+        supported = select(space, line, band, near, nearCount, inliers);
+        if (supported < minSupport || band == tolerance && supported == previous) {
+          break;
+        }
+        line = fit(space, inliers, supported);
+        band = Math.max(tolerance, band / 2);
+      }
+      supported = select(space, line, tolerance, near, nearCount, inliers);
+      if (supported >= minSupport) {
+        lines[from] = line;
+        supports[from] = Arrays.copyOf(inliers, supported);
+      }
+    }
+  }
+
+  /**
+   * Turns peaks into line segments: fits lines of all peaks in parallel, then from the line with most points
+   * every line takes the points it supports. Lines are ordered by points within the tolerance rather than by votes,
+   * as the cell with most votes may hold only a part of a line slightly turned from its angle.
+   *
+   * @param space points and geometry of the accumulator
+   * @param peaks peak cells ordered by decreasing number of votes
+   * @return detected segments
+   */
+  private LineSegment[] refine(final Space space, final int[] peaks) {
+    final double[][] lines = new double[peaks.length][];
+    final int[][] supports = new int[peaks.length][];
+    if (peaks.length > 0) {
+      ForkJoinPool.commonPool().invoke(new FitTask(space, peaks, lines, supports, 0, peaks.length));
+    }
+    final long[] strongest = new long[peaks.length];
+    int fitted = 0;
+    for (int peak = 0; peak < peaks.length; ++peak) {
+      if (lines[peak] != null) {
+        // more points first, then more votes first
+        strongest[fitted] = (long) -supports[peak].length << Integer.SIZE | peak;
+        ++fitted;
+      }
+    }
+    Arrays.sort(strongest, 0, fitted);
+    final boolean[] taken = new boolean[space.xs.length];
+    final int[] inliers = new int[space.xs.length];
+    LineSegment[] segments = new LineSegment[1];
+    int count = 0;
+    for (int rank = 0; rank < fitted; ++rank) {
+      final int peak = (int) strongest[rank];
+      final double[] line = lines[peak];
+      int supported = 0;
+      for (final int i : supports[peak]) {
+        if (!taken[i]) {
+          inliers[supported] = i;
+          ++supported;
+        }
+      }
+      if (supported < minSupport) {
+        continue;
+      }
+      // keep the best run of points along the line without gaps longer than maxGap
+      final long[] order = new long[supported];
+      for (int k = 0; k < supported; ++k) {
+        final int i = inliers[k];
+        final double projection = (space.xs[i] - line[0]) * line[2] + (space.ys[i] - line[1]) * line[3];
+        order[k] = (long) Math.floor(projection) << INDEX_BITS | k;
+      }
+      Arrays.sort(order);
+      int bestStart = 0;
+      int bestEnd = 0;
+      for (int start = 0, k = 1; k <= supported; ++k) {
+        if (k == supported || (order[k] >> INDEX_BITS) - (order[k - 1] >> INDEX_BITS) > maxGap) {
+          if (k - start > bestEnd - bestStart) {
+            bestStart = start;
+            bestEnd = k;
+          }
+          start = k;
+        }
+      }
+      if (bestEnd - bestStart < minSupport) {
+        continue;
+      }
+      for (int k = bestStart; k < bestEnd; ++k) {
+        taken[inliers[(int) (order[k] & INDEX_MASK)]] = true;
+      }
+      final int first = inliers[(int) (order[bestStart] & INDEX_MASK)];
+      final int last = inliers[(int) (order[bestEnd - 1] & INDEX_MASK)];
+      Point p = new Point(space.xs[first], space.ys[first]);
+      Point q = new Point(space.xs[last], space.ys[last]);
+      if (p.compareTo(q) > 0) {
+        final Point swap = p;
+        p = q;
+        q = swap;
+      }
+      if (count == segments.length) {
+        segments = Arrays.copyOf(segments, 2 * count);
+      }
+      segments[count] = new LineSegment(p, q);
+      ++count;
+    }
+    return Arrays.copyOf(segments, count);
+  }
+
+  /**
+   * Copies points within the distance of the line to target.
+   *
+   * @param space    points
+   * @param line     point x, point y and unit direction x, y of the line
+   * @param distance maximal distance of a point from the line
+   * @param source   indices of points to check
+   * @param count    number of points to check
+   * @param target   array receiving indices of points within the distance
+   * @return number of points within the distance
+   */
+  private static int select(final Space space, final double[] line, final double distance, final int[] source,
+                            final int count, final int[] target) {
+    int selected = 0;
+    for (int k = 0; k < count; ++k) {
+      final int i = source[k];
+      final double dx = space.xs[i] - line[0];
+      final double dy = space.ys[i] - line[1];
+      if (Math.abs(dy * line[2] - dx * line[3]) <= distance) {
+        target[selected] = i;
+        ++selected;
+      }
+    }
+    return selected;
+  }
+
+  /**
+   * Fits a line minimizing the sum of squared perpendicular distances of points.
+   *
+   * @param space   points
+   * @param indices indices of points to fit
+   * @param count   number of points to fit
+   * @return centroid x, centroid y and unit direction x, y of the line
+   */
+  private static double[] fit(final Space space, final int[] indices, final int count) {
+    double meanX = 0;
+    double meanY = 0;
+    for (int k = 0; k < count; ++k) {
+      meanX += space.xs[indices[k]];
+      meanY += space.ys[indices[k]];
+    }
+    meanX /= count;
+    meanY /= count;
+    double xx = 0;
+    double xy = 0;
+    double yy = 0;
+    for (int k = 0; k < count; ++k) {
+      final double dx = space.xs[indices[k]] - meanX;
+      final double dy = space.ys[indices[k]] - meanY;
+      xx += dx * dx;
+      xy += dx * dy;
+      yy += dy * dy;
+    }
+    final double direction = Math.atan2(2 * xy, xx - yy) / 2;
+    return new double[] {meanX, meanY, Math.cos(direction), Math.sin(direction)};
+  }
+}
@@ -0,0 +1,226 @@
+package com.github.michalzurawski.algorithms.collinearpoints;
+
+import java.util.Arrays;
+
+/**
+ * Collinear points of a growing set: points are inserted one by one and every insertion reports
+ * line segments of 4 or more collinear points that appeared or got longer because of it.
+ * Directions from the new point to all earlier points are reduced by their greatest common divisor
+ * and grouped in a primitive hash map, so every group holds all earlier points of one line through the new point.
+ * Only maximal segments are kept: one segment per line, from its smallest to its largest point.
+ * Directions are packed into 32-bit halves of a key, so coordinates may span at most 2^31 in either axis.
+ */
+public class IncrementalCollinearPoints {
+  /**
+   * Inserted points.
+   */
+  private Point[] points = new Point[1];
+  /**
+   * x-coordinates of inserted points.
+   */
+  private int[] xs = new int[1];
+  /**
+   * y-coordinates of inserted points.
+   */
+  private int[] ys = new int[1];
+  /**
+   * Number of inserted points.
+   */
+  private int n = 0;
+  /**
+   * Indices of inserted points by their packed coordinates.
+   */
+  private final LongIntHashMap positions = new LongIntHashMap(1);
+  /**
+   * Groups of earlier points by direction to the inserted point.
+   */
+  private final LongIntHashMap groups = new LongIntHashMap(1);
+  /**
+   * Index of the earliest point of each group.
+   */
+  private int[] groupFirst = new int[1];
+  /**
+   * Index of the second earliest point of each group.
+   */
+  private int[] groupSecond = new int[1];
+  /**
+   * Index of the smallest point of each group.
+   */
+  private int[] groupMin = new int[1];
+  /**
+   * Index of the largest point of each group.
+   */
+  private int[] groupMax = new int[1];
+  /**
+   * Number of points in each group.
+   */
+  private int[] groupSize = new int[1];
+  /**
+   * Slots of segments by their lines, a line is named by its two earliest points.
+   */
+  private final LongIntHashMap lines = new LongIntHashMap(1);
+  /**
+   * Maximal line segments containing 4 collinear points.
+   */
+  private LineSegment[] lineSegments = new LineSegment[1];
+  /**
+   * Number of segments.
+   */
+  private int segmentCount = 0;
+  /**
+   * Smallest x-coordinate of inserted points.
+   */
+  private int minX = Integer.MAX_VALUE;
+  /**
+   * Greatest x-coordinate of inserted points.
+   */
+  private int maxX = Integer.MIN_VALUE;
+  /**
+   * Smallest y-coordinate of inserted points.
+   */
+  private int minY = Integer.MAX_VALUE;
+  /**
+   * Greatest y-coordinate of inserted points.
+   */
+  private int maxY = Integer.MIN_VALUE;
+
+  /**
+   * Inserts the point and returns segments it created or extended.
+   * A point inside an existing segment adds no segment and extends none.
+   * Complexity: O(n) expected where n is the number of inserted points.
+   *
+   * @param point point to insert
+   * @return new and extended segments, in the state after the insertion
+   * @throws NullPointerException     when the point is null
+   * @throws IllegalArgumentException when the point is already inserted or coordinates would span more than 2^31
+   */
+  public LineSegment[] insert(final Point point) {
+    final int x = point.x();
+    final int y = point.y();
+    if (Math.max(maxX, x) - (long) Math.min(minX, x) > Integer.MAX_VALUE
+        || Math.max(maxY, y) - (long) Math.min(minY, y) > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException();
+    }
+    positions.ensureCapacity(n + 1);
+    if (positions.putIfAbsent((long) y << Integer.SIZE | x & 0xFFFFFFFFL, n) != n) {
+      throw new IllegalArgumentException();
+    }
+    minX = Math.min(minX, x);
+    maxX = Math.max(maxX, x);
+    minY = Math.min(minY, y);
+    maxY = Math.max(maxY, y);
+    if (n == points.length) {
+      resize(2 * n);
+    }
+    groups.ensureCapacity(n);
+    groups.clear();
+    for (int i = 0; i < n; ++i) {
+      final int newGroup = groups.size();
+      final int group = groups.putIfAbsent(HashCollinearPoints.direction(x - (long) xs[i], y - (long) ys[i]), newGroup);
+      if (group == newGroup) {
+        groupFirst[group] = i;
+        groupSecond[group] = -1;
+        groupMin[group] = i;
+        groupMax[group] = i;
+        groupSize[group] = 1;
+        continue;
+      }
+      if (groupSecond[group] < 0) {
+        groupSecond[group] = i;
+      }
+      if (points[i].compareTo(points[groupMin[group]]) < 0) {
+        groupMin[group] = i;
+      }
+      if (points[i].compareTo(points[groupMax[group]]) > 0) {
+        groupMax[group] = i;
+      }
+      ++groupSize[group];
+    }
+    points[n] = point;
+    xs[n] = x;
+    ys[n] = y;
+    ++n;
+    return collectSegments(point);
+  }
+
+  /**
+   * Creates or extends segments of lines through the inserted point having at least 4 points.
+   *
+   * @param point the inserted point
+   * @return new and extended segments
+   */
+  private LineSegment[] collectSegments(final Point point) {
+    LineSegment[] changed = new LineSegment[0];
+    for (int group = 0; group < groups.size(); ++group) {
+      if (groupSize[group] < 3) {
+        continue;
+      }
+      final Point min = points[groupMin[group]];
+      final Point max = points[groupMax[group]];
+      final boolean isMin = point.compareTo(min) < 0;
+      final boolean isMax = point.compareTo(max) > 0;
+      if (groupSize[group] > 3 && !isMin && !isMax) {
+        continue;
+      }
+      final LineSegment segment = new LineSegment(isMin ? point : min, isMax ? point : max);
+      final long line = (long) groupFirst[group] << Integer.SIZE | groupSecond[group];
+      lines.ensureCapacity(segmentCount + 1);
+      final int slot = lines.putIfAbsent(line, segmentCount);
+      if (slot == segmentCount) {
+        if (segmentCount == lineSegments.length) {
+          lineSegments = Arrays.copyOf(lineSegments, 2 * segmentCount);
+        }
+        ++segmentCount;
+      }
+      lineSegments[slot] = segment;
+      changed = Arrays.copyOf(changed, changed.length + 1);
+      changed[changed.length - 1] = segment;
+    }
+    return changed;
+  }
+
+  /**
+   * Resizes arrays of points and groups.
+   *
+   * @param capacity new capacity
+   */
+  private void resize(final int capacity) {
+    points = Arrays.copyOf(points, capacity);
+    xs = Arrays.copyOf(xs, capacity);
+    ys = Arrays.copyOf(ys, capacity);
+    groupFirst = Arrays.copyOf(groupFirst, capacity);
+    groupSecond = Arrays.copyOf(groupSecond, capacity);
+    groupMin = Arrays.copyOf(groupMin, capacity);
+    groupMax = Arrays.copyOf(groupMax, capacity);
+    groupSize = Arrays.copyOf(groupSize, capacity);
+  }
+
+  /**
+   * Returns number of inserted points.
+   *
+   * @return number of points
+   */
+  public int size() {
+    return n;
+  }
+
+  /**
+   * Returns number of line segments containing 4 collinear points.
+   * Complexity: O(1)
+   *
+   * @return number of line segments
+   */
+  public int numberOfSegments() {
+    return segmentCount;
+  }
+
+  /**
+   * Returns all maximal line segments containing 4 collinear points, in the order they appeared.
+   * Complexity: O(k) where k is the number of segments.
+   *
+   * @return line segments containing 4 collinear points
+   */
+  public LineSegment[] segments() {
+    return Arrays.copyOf(lineSegments, segmentCount);
+  }
+}
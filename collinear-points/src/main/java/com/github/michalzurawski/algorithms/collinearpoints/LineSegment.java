@@ -33,6 +33,23 @@ public class LineSegment {
     this.q = to;
   }
 
+  /**
+   * Returns one endpoint of this line segment.
+   *
+   * @return the endpoint given first
+   */
+  Point p() {
+    return p;
+  }
+
+  /**
+   * Returns the other endpoint of this line segment.
+   *
+   * @return the endpoint given second
+   */
+  Point q() {
+    return q;
+  }
 
   /**
    * Draws this line segment to standard draw.
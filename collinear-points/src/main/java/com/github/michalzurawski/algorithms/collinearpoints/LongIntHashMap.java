@@ -0,0 +1,170 @@
+package com.github.michalzurawski.algorithms.collinearpoints;
+
+import java.util.Arrays;
+
+/**
+ * Hash map from long keys to int values with open addressing and linear probing.
+ * Keys and values are kept in primitive arrays, so no boxing happens.
+ * Entries are never removed one by one, instead the whole map is cleared in constant time,
+ * which makes it cheap to reuse for many rounds of grouping.
+ * The capacity is fixed unless it is explicitly raised by ensureCapacity.
+ */
+final class LongIntHashMap {
+  /**
+   * Multiplier spreading keys over the table (golden ratio).
+   */
+  private static final long MIX = 0x9E3779B97F4A7C15L;
+  /**
+   * Stored keys.
+   */
+  private long[] keys;
+  /**
+   * Stored values.
+   */
+  private int[] values;
+  /**
+   * Round in which each slot was filled, slot is empty if it differs from the current round.
+   */
+  private int[] rounds;
+  /**
+   * Number of bits of the table index.
+   */
+  private int bits;
+  /**
+   * Maximal number of entries.
+   */
+  private int capacity;
+  /**
+   * Current round, incremented by clear().
+   */
+  private int round;
+  /**
+   * Number of entries.
+   */
+  private int size;
+
+  /**
+   * Creates map holding at most capacity entries.
+   *
+   * @param capacity maximal number of entries
+   */
+  LongIntHashMap(final int capacity) {
+    allocate(capacity);
+  }
+
+  /**
+   * Allocates empty table holding at most capacity entries.
+   *
+   * @param newCapacity maximal number of entries
+   */
+  private void allocate(final int newCapacity) {
+    if (newCapacity < 0 || newCapacity > 1 << 29) {
+      throw new IllegalArgumentException();
+    }
+    // keep load factor at most 1/2
+    int tableBits = 1;
+    while (1 << tableBits < 2 * newCapacity) {
+      ++tableBits;
+    }
+    bits = tableBits;
+    capacity = newCapacity;
+    keys = new long[1 << bits];
+    values = new int[1 << bits];
+    rounds = new int[1 << bits];
+    round = 1;
+    size = 0;
+  }
+
+  /**
+   * Makes room for at least minCapacity entries, keeping all entries.
+   * The capacity is at least doubled when raised, so growing one by one is cheap.
+   * Complexity: O(1) if there is room, O(size) otherwise
+   *
+   * @param minCapacity required number of entries
+   */
+  void ensureCapacity(final int minCapacity) {
+    if (minCapacity <= capacity) {
+      return;
+    }
+    final long[] oldKeys = keys;
+    final int[] oldValues = values;
+    final int[] oldRounds = rounds;
+    final int oldRound = round;
+    allocate(Math.max(minCapacity, Math.min(2 * capacity, 1 << 29)));
+    for (int slot = 0; slot < oldKeys.length; ++slot) {
+      if (oldRounds[slot] == oldRound) {
+        putIfAbsent(oldKeys[slot], oldValues[slot]);
+      }
+    }
+  }
+
+  /**
+   * Returns number of entries.
+   *
+   * @return number of entries
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Removes all entries.
+   * Complexity: O(1) amortized
+   */
+  void clear() {
+    if (round == Integer.MAX_VALUE) {
+      Arrays.fill(rounds, 0);
+      round = 0;
+    }
+    ++round;
+    size = 0;
+  }
+
+  /**
+   * Returns value associated with the key, inserting given value if the key is absent.
+   * Complexity: O(1) expected
+   *
+   * @param key   key of the entry
+   * @param value value inserted if the key is absent
+   * @return value associated with the key after the call
+   * @throws IllegalStateException when the map is full and the key is absent
+   */
+  int putIfAbsent(final long key, final int value) {
+    final int mask = keys.length - 1;
+    int slot = (int) ((key * MIX) >>> (Long.SIZE - bits));
+    while (rounds[slot] == round) {
+      if (keys[slot] == key) {
+        return values[slot];
+      }
+      slot = (slot + 1) & mask;
+    }
+    if (size == capacity) {
+      throw new IllegalStateException();
+    }
+    rounds[slot] = round;
+    keys[slot] = key;
+    values[slot] = value;
+    ++size;
+    return value;
+  }
+
+  /**
+   * Returns value associated with the key.
+   * Complexity: O(1) expected
+   *
+   * @param key          key of the entry
+   * @param defaultValue value returned if the key is absent
+   * @return value associated with the key or defaultValue
+   */
+  int get(final long key, final int defaultValue) {
+    final int mask = keys.length - 1;
+    int slot = (int) ((key * MIX) >>> (Long.SIZE - bits));
+    while (rounds[slot] == round) {
+      if (keys[slot] == key) {
+        return values[slot];
+      }
+      slot = (slot + 1) & mask;
+    }
+    return defaultValue;
+  }
+}
@@ -29,6 +29,24 @@ public class Point implements Comparable<Point> {
     this.y = y;
   }
 
+  /**
+   * Returns x-coordinate of this point.
+   *
+   * @return x-coordinate
+   */
+  int x() {
+    return x;
+  }
+
+  /**
+   * Returns y-coordinate of this point.
+   *
+   * @return y-coordinate
+   */
+  int y() {
+    return y;
+  }
+
   /**
    * Draws this point to standard draw.
    */
@@ -68,17 +86,17 @@ public class Point implements Comparable<Point> {
     if (y == that.y) {
       return 0;
     }
-    return (double) (that.y - y) / (that.x - x);
+    return (double) ((long) that.y - y) / ((long) that.x - x);
   }
 
   /**
    * Compares two points by the slope they make with this point.
-   * The slope is defined as in the slopeTo() method.
+   * The slope is defined as in the slopeTo() method but compared exactly, without rounding.
    *
    * @return the Comparator that defines this ordering on points
    */
   Comparator<Point> slopeOrder() {
-    return new PointsComparator();
+    return new SlopeComparator(this);
   }
 
 
@@ -109,9 +127,9 @@ public class Point implements Comparable<Point> {
   @Override
   public int compareTo(final Point that) {
     if (y != that.y) {
-      return y - that.y;
+      return Integer.compare(y, that.y);
     }
-    return x - that.x;
+    return Integer.compare(x, that.x);
   }
 
   @Override
@@ -133,17 +151,4 @@ public class Point implements Comparable<Point> {
     result = prime * result + y;
     return result;
   }
-
-  /**
-   * Compares two argument points by the slope they make with current object.
-   */
-  private class PointsComparator implements Comparator<Point> {
-
-    @Override
-    public int compare(final Point p0, final Point p1) {
-      final double slope0 = slopeTo(p0);
-      final double slope1 = slopeTo(p1);
-      return Double.compare(slope0, slope1);
-    }
-  }
 }
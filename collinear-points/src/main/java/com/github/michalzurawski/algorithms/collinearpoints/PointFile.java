@@ -0,0 +1,310 @@
+package com.github.michalzurawski.algorithms.collinearpoints;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Points loaded from a file into coordinate arrays.
+ * Text files hold the number of points followed by coordinates x and y of every point, separated by whitespace.
+ * They are memory-mapped and integers are parsed straight from the mapped bytes.
+ * Binary files hold the magic number and the number of points followed by x, y pairs,
+ * all as little-endian ints; their pairs can be read in place through an IntBuffer view.
+ */
+public final class PointFile {
+  /**
+   * First int of a binary file, "PTS1" read as a little-endian int.
+   */
+  static final int MAGIC = 0x31535450;
+  /**
+   * Size of a binary header in bytes.
+   */
+  private static final int HEADER = 2 * Integer.BYTES;
+  /**
+   * Maximal number of bytes mapped at once.
+   */
+  private static final long WINDOW = 1 << 30;
+  /**
+   * x-coordinates of points.
+   */
+  private final int[] xs;
+  /**
+   * y-coordinates of points.
+   */
+  private final int[] ys;
+
+  /**
+   * Creates points from coordinates.
+   *
+   * @param xs x-coordinates of points
+   * @param ys y-coordinates of points
+   */
+  private PointFile(final int[] xs, final int[] ys) {
+    this.xs = xs;
+    this.ys = ys;
+  }
+
+  /**
+   * Returns number of points.
+   *
+   * @return number of points
+   */
+  public int size() {
+    return xs.length;
+  }
+
+  /**
+   * Returns x-coordinates of points.
+   *
+   * @return x-coordinates, not copied
+   */
+  public int[] xs() {
+    return xs;
+  }
+
+  /**
+   * Returns y-coordinates of points.
+   *
+   * @return y-coordinates, not copied
+   */
+  public int[] ys() {
+    return ys;
+  }
+
+  /**
+   * Creates Point objects.
+   *
+   * @return new array of points
+   */
+  public Point[] points() {
+    final Point[] points = new Point[xs.length];
+    for (int i = 0; i < points.length; ++i) {
+      points[i] = new Point(xs[i], ys[i]);
+    }
+    return points;
+  }
+
+  /**
+   * Reads points from a text file.
+   * Complexity: O(b) where b is the size of the file.
+   *
+   * @param path path of the file
+   * @return loaded points
+   * @throws IOException              when the file cannot be read
+   * @throws IllegalArgumentException when the file is malformed
+   */
+  public static PointFile readText(final Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      final TextParser parser = new TextParser();
+      final long size = channel.size();
+      for (long position = 0; position < size; position += WINDOW) {
+        parser.parse(channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(WINDOW, size - position)));
+      }
+      return parser.finish();
+    }
+  }
+
+  /**
+   * Reads points from a binary file.
+   * Complexity: O(n) where n is the number of points.
+   *
+   * @param path path of the file
+   * @return loaded points
+   * @throws IOException              when the file cannot be read
+   * @throws IllegalArgumentException when the file is malformed
+   */
+  public static PointFile readBinary(final Path path) throws IOException {
+    final IntBuffer pairs = mapBinary(path);
+    final int n = pairs.remaining() / 2;
+    final int[] xs = new int[n];
+    final int[] ys = new int[n];
+    for (int i = 0; i < n; ++i) {
+      xs[i] = pairs.get(2 * i);
+      ys[i] = pairs.get(2 * i + 1);
+    }
+    return new PointFile(xs, ys);
+  }
+
+  /**
+   * Maps a binary file and returns the view of its coordinates without copying them:
+   * x-coordinate of point i is at index 2 * i and y-coordinate at index 2 * i + 1.
+   * Complexity: O(1)
+   *
+   * @param path path of the file
+   * @return little-endian view of coordinate pairs
+   * @throws IOException              when the file cannot be read
+   * @throws IllegalArgumentException when the file is malformed
+   */
+  public static IntBuffer mapBinary(final Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      final long size = channel.size();
+      if (size < HEADER) {
+        throw new IllegalArgumentException();
+      }
+      final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      buffer.order(ByteOrder.LITTLE_ENDIAN);
+      final int n = buffer.getInt(Integer.BYTES);
+      if (buffer.getInt(0) != MAGIC || n < 0 || size != HEADER + 2L * Integer.BYTES * n) {
+        throw new IllegalArgumentException();
+      }
+      buffer.position(HEADER);
+      return buffer.slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+    }
+  }
+
+  /**
+   * Writes points to a binary file, replacing it if it exists.
+   * Complexity: O(n) where n is the number of points.
+   *
+   * @param path path of the file
+   * @param xs   x-coordinates of points
+   * @param ys   y-coordinates of points
+   * @throws IOException when the file cannot be written
+   */
+  public static void writeBinary(final Path path, final int[] xs, final int[] ys) throws IOException {
+    if (xs.length != ys.length) {
+      throw new IllegalArgumentException();
+    }
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING)) {
+      final ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+      buffer.putInt(MAGIC).putInt(xs.length);
+      for (int i = 0; i < xs.length; ++i) {
+        if (buffer.remaining() < 2 * Integer.BYTES) {
+          write(channel, buffer);
+        }
+        buffer.putInt(xs[i]).putInt(ys[i]);
+      }
+      write(channel, buffer);
+    }
+  }
+
+  /**
+   * Writes all filled bytes of the buffer and clears it.
+   *
+   * @param channel channel to write to
+   * @param buffer  buffer with bytes to write
+   * @throws IOException when the bytes cannot be written
+   */
+  static void write(final FileChannel channel, final ByteBuffer buffer) throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+
+  /**
+   * Parser of the text format fed with consecutive chunks of bytes.
+   * A number may be split between chunks.
+   */
+  private static final class TextParser {
+    /**
+     * Absolute value of the number being parsed.
+     */
+    private long value = 0;
+    /**
+     * Whether the number being parsed is negative.
+     */
+    private boolean negative = false;
+    /**
+     * Whether a number is being parsed.
+     */
+    private boolean inNumber = false;
+    /**
+     * Whether the number being parsed has at least one digit.
+     */
+    private boolean hasDigits = false;
+    /**
+     * Number of parsed coordinates, -1 before the number of points is parsed.
+     */
+    private long parsed = -1;
+    /**
+     * x-coordinates of points.
+     */
+    private int[] xs;
+    /**
+     * y-coordinates of points.
+     */
+    private int[] ys;
+
+    /**
+     * Parses all bytes of the buffer.
+     *
+     * @param buffer chunk of the file
+     */
+    private void parse(final ByteBuffer buffer) {
+      final int limit = buffer.limit();
+      for (int i = buffer.position(); i < limit; ++i) {
+        final byte b = buffer.get(i);
+        if (b >= '0' && b <= '9') {
+          value = value * 10 + (b - '0');
+          if (value > 1L + Integer.MAX_VALUE) {
+            throw new IllegalArgumentException();
+          }
+          inNumber = true;
+          hasDigits = true;
+        } else if (b == ' ' || b == '\n' || b == '\r' || b == '\t' || b == '\f' || b == 0x0B) {
+          endNumber();
+        } else if ((b == '-' || b == '+') && !inNumber) {
+          negative = b == '-';
+          inNumber = true;
+        } else {
+          throw new IllegalArgumentException();
+        }
+      }
+    }
+
+    /**
+     * Stores the number being parsed, if any.
+     */
+    private void endNumber() {
+      if (!inNumber) {
+        return;
+      }
+      if (!hasDigits || !negative && value > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException();
+      }
+      final int number = (int) (negative ? -value : value);
+      if (parsed < 0) {
+        if (number < 0) {
+          throw new IllegalArgumentException();
+        }
+        xs = new int[number];
+        ys = new int[number];
+      } else if (parsed < 2L * xs.length) {
+        if (parsed % 2 == 0) {
+          xs[(int) (parsed / 2)] = number;
+        } else {
+          ys[(int) (parsed / 2)] = number;
+        }
+      } else {
+        throw new IllegalArgumentException();
+      }
+      ++parsed;
+      value = 0;
+      negative = false;
+      inNumber = false;
+      hasDigits = false;
+    }
+
+    /**
+     * Returns parsed points.
+     *
+     * @return parsed points
+     * @throws IllegalArgumentException when some coordinates are missing
+     */
+    private PointFile finish() {
+      endNumber();
+      if (parsed < 0 || parsed != 2L * xs.length) {
+        throw new IllegalArgumentException();
+      }
+      return new PointFile(xs, ys);
+    }
+  }
+}
@@ -0,0 +1,200 @@
+package com.github.michalzurawski.algorithms.collinearpoints;
+
+import java.util.Arrays;
+
+/**
+ * Static k-d tree over points answering rectangle range queries.
+ * The tree is implicit: the root of every range of the arrays is its middle element,
+ * which splits the range by x-coordinate on even depths and by y-coordinate on odd depths.
+ * Coordinates are copied into int arrays, so queries compare primitives only.
+ */
+public class PointIndex {
+  /**
+   * Points arranged as the tree.
+   */
+  private final Point[] points;
+  /**
+   * x-coordinates of points.
+   */
+  private final int[] xs;
+  /**
+   * y-coordinates of points.
+   */
+  private final int[] ys;
+
+  /**
+   * Builds index over points.
+   * Complexity: O(n log n) expected where n is the number of points.
+   *
+   * @param points points to index
+   */
+  public PointIndex(final Point[] points) {
+    final int n = points.length;
+    this.points = Arrays.copyOf(points, n);
+    xs = new int[n];
+    ys = new int[n];
+    for (int i = 0; i < n; ++i) {
+      if (points[i] == null) {
+        throw new NullPointerException();
+      }
+      xs[i] = points[i].x();
+      ys[i] = points[i].y();
+    }
+    build(0, n, true);
+  }
+
+  /**
+   * Returns number of indexed points.
+   *
+   * @return number of points
+   */
+  public int size() {
+    return points.length;
+  }
+
+  /**
+   * Returns all points inside the rectangle, boundary included.
+   * Complexity: O(sqrt(n) + k) where k is the number of returned points.
+   *
+   * @param minX smallest x-coordinate of the rectangle
+   * @param minY smallest y-coordinate of the rectangle
+   * @param maxX greatest x-coordinate of the rectangle
+   * @param maxY greatest y-coordinate of the rectangle
+   * @return points inside the rectangle
+   */
+  public Point[] range(final int minX, final int minY, final int maxX, final int maxY) {
+    if (minX > maxX || minY > maxY) {
+      throw new IllegalArgumentException();
+    }
+    final Point[][] result = {new Point[1]};
+    final int count = range(0, points.length, true, minX, minY, maxX, maxY, result, 0);
+    return Arrays.copyOf(result[0], count);
+  }
+
+  /**
+   * Checks whether point is indexed.
+   * Complexity: O(log n) for points in general position.
+   *
+   * @param point point to look for
+   * @return true if the point is indexed
+   */
+  public boolean contains(final Point point) {
+    return range(point.x(), point.y(), point.x(), point.y()).length > 0;
+  }
+
+  /**
+   * Arranges range [from, to) as a subtree.
+   *
+   * @param from  index of the first point
+   * @param to    index after the last point
+   * @param byX   true if the root splits by x-coordinate
+   */
+  private void build(final int from, final int to, final boolean byX) {
+    if (to - from < 2) {
+      return;
+    }
+    final int middle = (from + to) >>> 1;
+    select(from, to - 1, middle, byX ? xs : ys);
+    build(from, middle, !byX);
+    build(middle + 1, to, !byX);
+  }
+
+  /**
+   * Moves the element of given rank to its place, smaller keys before it and greater after it.
+   * Complexity: O(n) expected
+   *
+   * @param low  index of the first element
+   * @param high index of the last element
+   * @param rank index of the element to place
+   * @param keys keys to compare
+   */
+  private void select(final int low, final int high, final int rank, final int[] keys) {
+    int lo = low;
+    int hi = high;
+    while (lo < hi) {
+      // three-way partition, so many equal keys do not slow the selection down
+      final int pivot = keys[lo + (hi - lo) / 2];
+      int less = lo;
+      int greater = hi;
+      int i = lo;
+      while (i <= greater) {
+        if (keys[i] < pivot) {
+          swap(i, less);
+          ++less;
+          ++i;
+        } else if (keys[i] > pivot) {
+          swap(i, greater);
+          --greater;
+        } else {
+          ++i;
+        }
+      }
+      if (rank < less) {
+        hi = less - 1;
+      } else if (rank > greater) {
+        lo = greater + 1;
+      } else {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Swaps two points.
+   *
+   * @param i index of the first point
+   * @param j index of the second point
+   */
+  private void swap(final int i, final int j) {
+    final Point point = points[i];
+    points[i] = points[j];
+    points[j] = point;
+    final int x = xs[i];
+    xs[i] = xs[j];
+    xs[j] = x;
+    final int y = ys[i];
+    ys[i] = ys[j];
+    ys[j] = y;
+  }
+
+  /**
+   * Appends points of the subtree inside the rectangle to the result.
+   *
+   * @param from   index of the first point of the subtree
+   * @param to     index after the last point of the subtree
+   * @param byX    true if the root splits by x-coordinate
+   * @param minX   smallest x-coordinate of the rectangle
+   * @param minY   smallest y-coordinate of the rectangle
+   * @param maxX   greatest x-coordinate of the rectangle
+   * @param maxY   greatest y-coordinate of the rectangle
+   * @param result holder of the growing result array
+   * @param count  number of points already in the result
+   * @return number of points in the result
+   */
+  private int range(final int from, final int to, final boolean byX, final int minX, final int minY,
+                    final int maxX, final int maxY, final Point[][] result, final int count) {
+    if (from >= to) {
+      return count;
+    }
+    final int middle = (from + to) >>> 1;
+    final int x = xs[middle];
+    final int y = ys[middle];
+    int found = count;
+    if (minX <= x && x <= maxX && minY <= y && y <= maxY) {
+      if (found == result[0].length) {
+        result[0] = Arrays.copyOf(result[0], 2 * found);
+      }
+      result[0][found] = points[middle];
+      ++found;
+    }
+    final int key = byX ? x : y;
+    // elements equal to the key may lie on both sides
+    if ((byX ? minX : minY) <= key) {
+      found = range(from, middle, !byX, minX, minY, maxX, maxY, result, found);
+    }
+    if (key <= (byX ? maxX : maxY)) {
+      found = range(middle + 1, to, !byX, minX, minY, maxX, maxY, result, found);
+    }
+    return found;
+  }
+}
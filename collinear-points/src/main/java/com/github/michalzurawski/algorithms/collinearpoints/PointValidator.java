@@ -0,0 +1,173 @@
+package com.github.michalzurawski.algorithms.collinearpoints;
+
+/**
+ * Validation of input points which sorts them on primitive keys instead of comparing Point objects.
+ * Every point is packed into a long whose unsigned order is the natural order of points: y-coordinate in the high
+ * and x-coordinate in the low half, both with the sign bit flipped. Keys are sorted by LSD radix sort,
+ * after which null points have been reported while packing and equal points are neighbours,
+ * so one linear pass finds duplicates.
+ */
+final class PointValidator {
+  /**
+   * Number of bits sorted in one pass.
+   */
+  private static final int RADIX_BITS = 8;
+  /**
+   * Number of buckets in one pass.
+   */
+  private static final int RADIX = 1 << RADIX_BITS;
+  /**
+   * Number of passes needed for 64-bit keys.
+   */
+  private static final int PASSES = Long.SIZE / RADIX_BITS;
+
+  /**
+   * Hides constructor of the utility class.
+   */
+  private PointValidator() {
+  }
+
+  /**
+   * Returns naturally sorted copy of points.
+   * Complexity: O(n) where n is the number of points.
+   *
+   * @param points points to copy
+   * @return sorted copy
+   * @throws NullPointerException     when the array or one of the points is null
+   * @throws IllegalArgumentException when two points are equal
+   */
+  static Point[] sortedCopy(final Point[] points) {
+    final int n = points.length;
+    final long[] keys = new long[n];
+    final int[] indices = new int[n];
+    for (int i = 0; i < n; ++i) {
+      if (points[i] == null) {
+        throw new NullPointerException();
+      }
+      keys[i] = pack(points[i].x(), points[i].y());
+      indices[i] = i;
+    }
+    radixSort(keys, indices);
+    final Point[] sorted = new Point[n];
+    for (int i = 0; i < n; ++i) {
+      if (i > 0 && keys[i] == keys[i - 1]) {
+        throw new IllegalArgumentException();
+      }
+      sorted[i] = points[indices[i]];
+    }
+    return sorted;
+  }
+
+  /**
+   * Returns keys of points given by coordinates in natural order.
+   * Complexity: O(n) where n is the number of points.
+   *
+   * @param xs x-coordinates of points
+   * @param ys y-coordinates of points
+   * @return sorted keys of points
+   * @throws IllegalArgumentException when arrays differ in length or two points are equal
+   */
+  static long[] sortedKeys(final int[] xs, final int[] ys) {
+    if (xs.length != ys.length) {
+      throw new IllegalArgumentException();
+    }
+    final int n = xs.length;
+    final long[] keys = new long[n];
+    for (int i = 0; i < n; ++i) {
+      keys[i] = pack(xs[i], ys[i]);
+    }
+    radixSort(keys, null);
+    for (int i = 1; i < n; ++i) {
+      if (keys[i] == keys[i - 1]) {
+        throw new IllegalArgumentException();
+      }
+    }
+    return keys;
+  }
+
+  /**
+   * Packs coordinates into a long whose unsigned order is the natural order of points.
+   *
+   * @param x x-coordinate
+   * @param y y-coordinate
+   * @return key of the point
+   */
+  static long pack(final int x, final int y) {
+    return (long) (y ^ Integer.MIN_VALUE) << Integer.SIZE | (x ^ Integer.MIN_VALUE) & 0xFFFFFFFFL;
+  }
+
+  /**
+   * Returns x-coordinate of the key.
+   *
+   * @param key key of the point
+   * @return x-coordinate
+   */
+  static int x(final long key) {
+    return (int) key ^ Integer.MIN_VALUE;
+  }
+
+  /**
+   * Returns y-coordinate of the key.
+   *
+   * @param key key of the point
+   * @return y-coordinate
+   */
+  static int y(final long key) {
+    return (int) (key >>> Integer.SIZE) ^ Integer.MIN_VALUE;
+  }
+
+  /**
+   * Sorts keys as unsigned numbers, moving indices along with them,
+   * and skips passes in which all keys share the digit.
+   *
+   * @param keys    keys to sort
+   * @param indices indices moved with keys, or null
+   */
+  private static void radixSort(final long[] keys, final int[] indices) {
+    final int n = keys.length;
+    final int[] counts = new int[PASSES * RADIX];
+    for (int i = 0; i < n; ++i) {
+      final long key = keys[i];
+      for (int pass = 0; pass < PASSES; ++pass) {
+        ++counts[pass * RADIX + ((int) (key >>> (pass * RADIX_BITS)) & RADIX - 1)];
+      }
+    }
+    long[] from = keys;
+    long[] to = new long[n];
+    int[] fromIndices = indices;
+    int[] toIndices = indices == null ? null : new int[n];
+    for (int pass = 0; pass < PASSES; ++pass) {
+      final int offset = pass * RADIX;
+      final int shift = pass * RADIX_BITS;
+      if (n == 0 || counts[offset + ((int) (from[0] >>> shift) & RADIX - 1)] == n) {
+        continue;
+      }
+      int total = 0;
+      for (int digit = 0; digit < RADIX; ++digit) {
+        final int count = counts[offset + digit];
+        counts[offset + digit] = total;
+        total += count;
+      }
+      for (int i = 0; i < n; ++i) {
+        final int bucket = offset + ((int) (from[i] >>> shift) & RADIX - 1);
+        to[counts[bucket]] = from[i];
+        if (toIndices != null) {
+          toIndices[counts[bucket]] = fromIndices[i];
+        }
+        ++counts[bucket];
+      }
+      final long[] swap = from;
+      from = to;
+      to = swap;
+      final int[] swapIndices = fromIndices;
+      fromIndices = toIndices;
+      toIndices = swapIndices;
+    }
+    if (from != keys) {
+      System.arraycopy(from, 0, keys, 0, n);
+      if (indices != null) {
+        System.arraycopy(fromIndices, 0, indices, 0, n);
+      }
+    }
+  }
+}
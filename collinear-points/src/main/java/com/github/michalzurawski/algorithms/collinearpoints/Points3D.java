@@ -0,0 +1,176 @@
+package com.github.michalzurawski.algorithms.collinearpoints;
+
+/**
+ * Validated points in space kept as parallel int arrays in natural order: by z-coordinate,
+ * then by y-coordinate, then by x-coordinate, which extends the order of Point.
+ */
+final class Points3D {
+  /**
+   * x-coordinates of naturally sorted points.
+   */
+  private final int[] xs;
+  /**
+   * y-coordinates of naturally sorted points.
+   */
+  private final int[] ys;
+  /**
+   * z-coordinates of naturally sorted points.
+   */
+  private final int[] zs;
+  /**
+   * Index in the input of every naturally sorted point.
+   */
+  private final int[] indices;
+
+  /**
+   * Validates and sorts points.
+   * Complexity: O(n log n) where n is the number of points.
+   *
+   * @param xs x-coordinates of points
+   * @param ys y-coordinates of points
+   * @param zs z-coordinates of points
+   * @throws NullPointerException     when an array is null
+   * @throws IllegalArgumentException when arrays differ in length, two points are equal
+   *                                  or coordinates span more than 2^31 in some axis
+   */
+  Points3D(final int[] xs, final int[] ys, final int[] zs) {
+    final int n = xs.length;
+    if (ys.length != n || zs.length != n || HashCollinearPoints.span(xs) > Integer.MAX_VALUE
+        || HashCollinearPoints.span(ys) > Integer.MAX_VALUE || HashCollinearPoints.span(zs) > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException();
+    }
+    indices = new int[n];
+    for (int i = 0; i < n; ++i) {
+      indices[i] = i;
+    }
+    sort(indices, new int[n], 0, n, xs, ys, zs);
+    this.xs = new int[n];
+    this.ys = new int[n];
+    this.zs = new int[n];
+    for (int i = 0; i < n; ++i) {
+      if (i > 0 && compare(indices[i - 1], indices[i], xs, ys, zs) == 0) {
+        throw new IllegalArgumentException();
+      }
+      this.xs[i] = xs[indices[i]];
+      this.ys[i] = ys[indices[i]];
+      this.zs[i] = zs[indices[i]];
+    }
+  }
+
+  /**
+   * Returns number of points.
+   *
+   * @return number of points
+   */
+  int size() {
+    return indices.length;
+  }
+
+  /**
+   * Returns x-coordinates of naturally sorted points.
+   *
+   * @return x-coordinates, not copied
+   */
+  int[] xs() {
+    return xs;
+  }
+
+  /**
+   * Returns y-coordinates of naturally sorted points.
+   *
+   * @return y-coordinates, not copied
+   */
+  int[] ys() {
+    return ys;
+  }
+
+  /**
+   * Returns z-coordinates of naturally sorted points.
+   *
+   * @return z-coordinates, not copied
+   */
+  int[] zs() {
+    return zs;
+  }
+
+  /**
+   * Returns index in the input of the point.
+   *
+   * @param i index of the point in natural order
+   * @return index of the point in the input
+   */
+  int index(final int i) {
+    return indices[i];
+  }
+
+  /**
+   * Compares two points in natural order.
+   *
+   * @param i  index of the first point
+   * @param j  index of the second point
+   * @param xs x-coordinates of points
+   * @param ys y-coordinates of points
+   * @param zs z-coordinates of points
+   * @return negative, zero or positive number as the first point is smaller than, equal to or greater than the second
+   */
+  private static int compare(final int i, final int j, final int[] xs, final int[] ys, final int[] zs) {
+    if (zs[i] != zs[j]) {
+      return Integer.compare(zs[i], zs[j]);
+    }
+    if (ys[i] != ys[j]) {
+      return Integer.compare(ys[i], ys[j]);
+    }
+    return Integer.compare(xs[i], xs[j]);
+  }
+
+  /**
+   * Sorts range [from, to) of indices of points in natural order with merge sort.
+   *
+   * @param order  indices to sort
+   * @param buffer auxiliary array of the same length
+   * @param from   first index of the range
+   * @param to     index after the range
+   * @param xs     x-coordinates of points
+   * @param ys     y-coordinates of points
+   * @param zs     z-coordinates of points
+   */
+  private static void sort(final int[] order, final int[] buffer, final int from, final int to,
+                           final int[] xs, final int[] ys, final int[] zs) {
+    if (to - from < 2) {
+      return;
+    }
+    final int middle = (from + to) >>> 1;
+    sort(order, buffer, from, middle, xs, ys, zs);
+    sort(order, buffer, middle, to, xs, ys, zs);
+    System.arraycopy(order, from, buffer, from, to - from);
+    int left = from;
+    int right = middle;
+    for (int i = from; i < to; ++i) {
+      if (right == to || left < middle && compare(buffer[left], buffer[right], xs, ys, zs) <= 0) {
+        order[i] = buffer[left];
+        ++left;
+      } else {
+        order[i] = buffer[right];
+        ++right;
+      }
+    }
+  }
+
+  /**
+   * Returns the vector divided by the greatest common divisor of its components
+   * and turned so that its first non-zero component is positive, stored in the result.
+   * Vectors along one line through the origin have equal reduced vectors.
+   *
+   * @param x      x-component, not all components zero
+   * @param y      y-component
+   * @param z      z-component
+   * @param result array receiving the reduced components
+   */
+  static void reduce(final long x, final long y, final long z, final long[] result) {
+    final long divisor = HashCollinearPoints.gcd(HashCollinearPoints.gcd(Math.abs(x), Math.abs(y)), Math.abs(z));
+    final long sign = x < 0 || x == 0 && (y < 0 || y == 0 && z < 0) ? -1 : 1;
+    result[0] = sign * (x / divisor);
+    result[1] = sign * (y / divisor);
+    result[2] = sign * (z / divisor);
+  }
+}
@@ -0,0 +1,299 @@
+package com.github.michalzurawski.algorithms.collinearpoints;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Cache of results of FastCollinearPoints stored in a directory, keyed by the fingerprint of the point set.
+ * The fingerprint is the 128-bit MurmurHash3 of naturally sorted points packed into longs, so the order of points
+ * does not matter. Every entry is a file named by the fingerprint holding the magic number, the number of points,
+ * the fingerprint and fromX, fromY, toX, toY of every segment, all little-endian.
+ * Entries which are missing, malformed or made for other points are computed again and replaced.
+ * The modification time of an entry is its last use and least recently used entries are evicted
+ * when the files exceed the size limit.
+ */
+public final class SegmentCache {
+  /**
+   * First int of an entry, "CSG1" read as a little-endian int.
+   */
+  static final int MAGIC = 0x31475343;
+  /**
+   * Extension of entry files.
+   */
+  private static final String EXTENSION = ".seg";
+  /**
+   * Size of an entry header in bytes: magic, number of points and two halves of the fingerprint.
+   */
+  private static final int HEADER = 2 * Integer.BYTES + 2 * Long.BYTES;
+  /**
+   * Size of a segment in an entry in bytes.
+   */
+  private static final int SEGMENT_BYTES = 4 * Integer.BYTES;
+  /**
+   * First mixing constant of MurmurHash3.
+   */
+  private static final long C1 = 0x87C37B91114253D5L;
+  /**
+   * Second mixing constant of MurmurHash3.
+   */
+  private static final long C2 = 0x4CF5AD432745937FL;
+  /**
+   * Directory of entry files.
+   */
+  private final Path directory;
+  /**
+   * Maximal total size of entry files in bytes.
+   */
+  private final long maxBytes;
+
+  /**
+   * Creates cache in the directory, creating the directory if needed.
+   *
+   * @param directory directory of entry files
+   * @param maxBytes  maximal total size of entry files in bytes
+   * @throws IOException when the directory cannot be created
+   */
+  public SegmentCache(final Path directory, final long maxBytes) throws IOException {
+    if (maxBytes < 0) {
+      throw new IllegalArgumentException();
+    }
+    this.directory = directory;
+    this.maxBytes = maxBytes;
+    Files.createDirectories(directory);
+  }
+
+  /**
+   * Returns all line segments containing 4 collinear points, the same as FastCollinearPoints,
+   * reading them from the cache or computing and storing them.
+   * Complexity: O(n + k) on a hit, O(n^2) on a miss, where n is the number of points
+   * and k the number of segments.
+   *
+   * @param points Points to check.
+   * @return line segments containing 4 collinear points
+   * @throws IOException when an entry cannot be written
+   */
+  public LineSegment[] segments(final Point[] points) throws IOException {
+    final Point[] sortedPoints = PointValidator.sortedCopy(points);
+    final long[] fingerprint = fingerprint(sortedPoints);
+    final Path entry = entry(fingerprint);
+    final LineSegment[] cached = read(entry, sortedPoints.length, fingerprint);
+    if (cached != null) {
+      touch(entry);
+      return cached;
+    }
+    final LineSegment[] segments = new FastCollinearPoints(sortedPoints).segments();
+    write(entry, sortedPoints.length, fingerprint, segments);
+    evict(entry);
+    return segments;
+  }
+
+  /**
+   * Returns 128-bit MurmurHash3 of points, each packed as y-coordinate in the high and x-coordinate in the low half.
+   * Complexity: O(n) where n is the number of points.
+   *
+   * @param points naturally sorted points
+   * @return low and high half of the fingerprint
+   */
+  static long[] fingerprint(final Point[] points) {
+    final int n = points.length;
+    long h1 = 0;
+    long h2 = 0;
+    for (int i = 0; i + 1 < n; i += 2) {
+      h1 ^= mixK1(pack(points[i]));
+      h1 = Long.rotateLeft(h1, 27) + h2;
+      h1 = h1 * 5 + 0x52DCE729;
+      h2 ^= mixK2(pack(points[i + 1]));
+      h2 = Long.rotateLeft(h2, 31) + h1;
+      h2 = h2 * 5 + 0x38495AB5;
+    }
+    if (n % 2 == 1) {
+      h1 ^= mixK1(pack(points[n - 1]));
+    }
+    h1 ^= (long) n * Long.BYTES;
+    h2 ^= (long) n * Long.BYTES;
+    h1 += h2;
+    h2 += h1;
+    h1 = fmix(h1);
+    h2 = fmix(h2);
+    h1 += h2;
+    h2 += h1;
+    return new long[] {h1, h2};
+  }
+
+  /**
+   * Packs point into a long.
+   *
+   * @param point point to pack
+   * @return y-coordinate in the high half and x-coordinate in the low half
+   */
+  private static long pack(final Point point) {
+    return (long) point.y() << Integer.SIZE | point.x() & 0xFFFFFFFFL;
+  }
+
+  /**
+   * Mixes the first word of a block.
+   *
+   * @param k word to mix
+   * @return mixed word
+   */
+  private static long mixK1(final long k) {
+    return Long.rotateLeft(k * C1, 31) * C2;
+  }
+
+  /**
+   * Mixes the second word of a block.
+   *
+   * @param k word to mix
+   * @return mixed word
+   */
+  private static long mixK2(final long k) {
+    return Long.rotateLeft(k * C2, 33) * C1;
+  }
+
+  /**
+   * Final avalanche of a half of the hash.
+   *
+   * @param k half of the hash
+   * @return mixed half
+   */
+  private static long fmix(final long k) {
+    long h = k;
+    h ^= h >>> 33;
+    h *= 0xFF51AFD7ED558CCDL;
+    h ^= h >>> 33;
+    h *= 0xC4CEB9FE1A85EC53L;
+    h ^= h >>> 33;
+    return h;
+  }
+
+  /**
+   * Returns path of the entry with the fingerprint.
+   *
+   * @param fingerprint low and high half of the fingerprint
+   * @return path of the entry file
+   */
+  private Path entry(final long[] fingerprint) {
+    return directory.resolve(String.format("%016x%016x", fingerprint[1], fingerprint[0]) + EXTENSION);
+  }
+
+  /**
+   * Reads segments of the entry if it is valid for the points.
+   *
+   * @param entry       path of the entry file
+   * @param n           number of points
+   * @param fingerprint fingerprint of the points
+   * @return segments or null if the entry is missing or does not match
+   */
+  private static LineSegment[] read(final Path entry, final int n, final long[] fingerprint) {
+    try (FileChannel channel = FileChannel.open(entry, StandardOpenOption.READ)) {
+      final long size = channel.size();
+      if (size < HEADER || (size - HEADER) % SEGMENT_BYTES != 0) {
+        return null;
+      }
+      final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      buffer.order(ByteOrder.LITTLE_ENDIAN);
+      if (buffer.getInt() != MAGIC || buffer.getInt() != n
+          || buffer.getLong() != fingerprint[0] || buffer.getLong() != fingerprint[1]) {
+        return null;
+      }
+      final LineSegment[] segments = new LineSegment[(int) ((size - HEADER) / SEGMENT_BYTES)];
+      for (int i = 0; i < segments.length; ++i) {
+        final Point from = new Point(buffer.getInt(), buffer.getInt());
+        segments[i] = new LineSegment(from, new Point(buffer.getInt(), buffer.getInt()));
+      }
+      return segments;
+    } catch (final IOException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Writes the entry, replacing it atomically. The temporary file is deleted when writing fails.
+   *
+   * @param entry       path of the entry file
+   * @param n           number of points
+   * @param fingerprint fingerprint of the points
+   * @param segments    segments to store
+   * @throws IOException when the entry cannot be written
+   */
+  private static void write(final Path entry, final int n, final long[] fingerprint, final LineSegment[] segments)
+      throws IOException {
+    final Path temporary = Files.createTempFile(entry.getParent(), "entry", ".tmp");
+    try {
+      try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE,
+          StandardOpenOption.TRUNCATE_EXISTING)) {
+        final ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(n).putLong(fingerprint[0]).putLong(fingerprint[1]);
+        for (final LineSegment segment : segments) {
+          if (buffer.remaining() < SEGMENT_BYTES) {
+            PointFile.write(channel, buffer);
+          }
+          buffer.putInt(segment.p().x()).putInt(segment.p().y()).putInt(segment.q().x()).putInt(segment.q().y());
+        }
+        PointFile.write(channel, buffer);
+      }
+      Files.move(temporary, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      // after a successful move the temporary file no longer exists
+      Files.deleteIfExists(temporary);
+    }
+  }
+
+  /**
+   * Marks the entry as used now. The entry may have been evicted by another process since it was read,
+   * the use is then not recorded.
+   *
+   * @param entry path of the entry file
+   */
+  private static void touch(final Path entry) {
+    try {
+      Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+    } catch (final IOException e) {
+      // the entry is gone or read-only, its segments are still valid
+    }
+  }
+
+  /**
+   * Deletes least recently used entries until all entries fit in the size limit.
+   * The entry just written is deleted last, only if it alone exceeds the limit.
+   * Complexity: O(e log e) where e is the number of entries.
+   *
+   * @param kept path of the entry just written
+   * @throws IOException when an entry cannot be deleted
+   */
+  private void evict(final Path kept) throws IOException {
+    final File[] files = directory.toFile().listFiles((dir, name) -> name.endsWith(EXTENSION));
+    if (files == null) {
+      return;
+    }
+    final long[] used = new long[files.length];
+    long total = 0;
+    for (int i = 0; i < files.length; ++i) {
+      used[i] = files[i].lastModified();
+      total += files[i].length();
+    }
+    final Integer[] order = new Integer[files.length];
+    for (int i = 0; i < order.length; ++i) {
+      order[i] = i;
+    }
+    final Path keptFile = kept.toAbsolutePath();
+    Arrays.sort(order, Comparator.comparing((Integer i) -> files[i].toPath().toAbsolutePath().equals(keptFile))
+        .thenComparingLong(i -> used[i]));
+    for (int i = 0; i < order.length && total > maxBytes; ++i) {
+      final File file = files[order[i]];
+      total -= file.length();
+      Files.deleteIfExists(file.toPath());
+    }
+  }
+}
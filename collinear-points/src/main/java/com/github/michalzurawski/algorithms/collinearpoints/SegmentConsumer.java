@@ -0,0 +1,17 @@
+package com.github.michalzurawski.algorithms.collinearpoints;
+
+/**
+ * Receiver of line segments given by coordinates of their endpoints.
+ */
+@FunctionalInterface
+public interface SegmentConsumer {
+  /**
+   * Receives one line segment.
+   *
+   * @param fromX x-coordinate of the smallest point of the segment
+   * @param fromY y-coordinate of the smallest point of the segment
+   * @param toX   x-coordinate of the largest point of the segment
+   * @param toY   y-coordinate of the largest point of the segment
+   */
+  void accept(int fromX, int fromY, int toX, int toY);
+}
@@ -0,0 +1,450 @@
+package com.github.michalzurawski.algorithms.collinearpoints;
+
+import java.util.Arrays;
+
+/**
+ * Static index over line segments answering which segments lie on a line and which pass through or near a point.
+ * Segments are sorted by their canonical line a * x + b * y = c, where (a, b) is the normal vector reduced
+ * by the greatest common divisor with a positive first non-zero component, so segments on one line are adjacent.
+ * Besides, segments are kept in a static tree of bounding boxes built by splitting them at the median centre
+ * along the longer side of the box; a point query descends only into boxes within reach of the point.
+ * Every segment is stored once, so the index takes linear memory however long the segments are.
+ */
+public class SegmentIndex {
+  /**
+   * Maximal number of segments in a leaf of the tree.
+   */
+  private static final int LEAF_SIZE = 8;
+  /**
+   * Segments sorted by their canonical lines.
+   */
+  private final LineSegment[] segments;
+  /**
+   * Coordinates of endpoints: x0, y0, x1, y1 of every segment one after another.
+   */
+  private final int[] ends;
+  /**
+   * Coefficients a of canonical lines.
+   */
+  private final long[] normalX;
+  /**
+   * Coefficients b of canonical lines.
+   */
+  private final long[] normalY;
+  /**
+   * Coefficients c of canonical lines, computed modulo 2^64.
+   */
+  private final long[] offsets;
+  /**
+   * Indices of segments in the order of leaves of the tree, node n holds a range of it.
+   */
+  private final int[] tree;
+  /**
+   * Bounding boxes minX, minY, maxX, maxY of tree nodes one after another,
+   * node 1 is the root and node n has children 2n and 2n + 1.
+   */
+  private final int[] boxes;
+
+  /**
+   * Builds index over line segments.
+   * Complexity: O(k log k) expected where k is the number of segments.
+   *
+   * @param segments segments to index
+   */
+  public SegmentIndex(final LineSegment[] segments) {
+    final int k = segments.length;
+    final long[] a = new long[k];
+    final long[] b = new long[k];
+    final long[] c = new long[k];
+    final int[] order = new int[k];
+    for (int i = 0; i < k; ++i) {
+      final Point p = segments[i].p();
+      final Point q = segments[i].q();
+      if (p.compareTo(q) == 0) {
+        throw new IllegalArgumentException();
+      }
+      final long[] line = line(p, q);
+      a[i] = line[0];
+      b[i] = line[1];
+      c[i] = line[2];
+      order[i] = i;
+    }
+    sortByLine(order, new int[k], 0, k, a, b, c);
+
+    this.segments = new LineSegment[k];
+    ends = new int[4 * k];
+    normalX = new long[k];
+    normalY = new long[k];
+    offsets = new long[k];
+    tree = new int[k];
+    for (int i = 0; i < k; ++i) {
+      final LineSegment segment = segments[order[i]];
+      this.segments[i] = segment;
+      ends[4 * i] = segment.p().x();
+      ends[4 * i + 1] = segment.p().y();
+      ends[4 * i + 2] = segment.q().x();
+      ends[4 * i + 3] = segment.q().y();
+      normalX[i] = a[order[i]];
+      normalY[i] = b[order[i]];
+      offsets[i] = c[order[i]];
+      tree[i] = i;
+    }
+
+    // halving ranges of more than LEAF_SIZE segments numbers nodes below 4 k / LEAF_SIZE
+    boxes = new int[4 * (4 * (k / LEAF_SIZE) + 2)];
+    if (k > 0) {
+      build(1, 0, k);
+    }
+  }
+
+  /**
+   * Returns number of indexed segments.
+   *
+   * @return number of segments
+   */
+  public int size() {
+    return segments.length;
+  }
+
+  /**
+   * Returns all segments lying on the line through two points.
+   * Complexity: O(log k + r) where r is the number of returned segments.
+   *
+   * @param p one point of the line
+   * @param q other point of the line
+   * @return segments on the line, ordered by their canonical offset
+   */
+  public LineSegment[] onLine(final Point p, final Point q) {
+    if (p.compareTo(q) == 0) {
+      throw new IllegalArgumentException();
+    }
+    final long[] line = line(p, q);
+    int low = 0;
+    int high = segments.length;
+    while (low < high) {
+      final int middle = (low + high) >>> 1;
+      if (compareLines(normalX[middle], normalY[middle], offsets[middle], line[0], line[1], line[2]) < 0) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    int end = low;
+    while (end < segments.length && normalX[end] == line[0] && normalY[end] == line[1] && offsets[end] == line[2]) {
+      ++end;
+    }
+    // offsets are computed modulo 2^64, so the run is verified exactly
+    final LineSegment[] result = new LineSegment[end - low];
+    int count = 0;
+    for (int i = low; i < end; ++i) {
+      if (contains(i, p.x(), p.y(), false) && SlopeComparator.compareSlopes(q.x() - (long) p.x(),
+          q.y() - (long) p.y(), ends[4 * i] - (long) ends[4 * i + 2], ends[4 * i + 1] - (long) ends[4 * i + 3]) == 0) {
+        result[count] = segments[i];
+        ++count;
+      }
+    }
+    return Arrays.copyOf(result, count);
+  }
+
+  /**
+   * Returns all segments containing the point, endpoints included.
+   * Complexity: O(log k + s) where s is the number of segments whose boxes contain the point.
+   *
+   * @param point point to check
+   * @return segments through the point, ordered by their canonical lines
+   */
+  public LineSegment[] through(final Point point) {
+    return search(point, 0, true);
+  }
+
+  /**
+   * Returns all segments whose distance to the point is at most given distance.
+   * Complexity: O(log k + s) where s is the number of segments whose boxes are within the distance.
+   *
+   * @param point    point to check
+   * @param distance maximal distance
+   * @return segments near the point, ordered by their canonical lines
+   */
+  public LineSegment[] near(final Point point, final double distance) {
+    if (!(distance >= 0)) {
+      throw new IllegalArgumentException();
+    }
+    return search(point, distance, false);
+  }
+
+  /**
+   * Returns segments within the distance of the point, or containing the point when exact,
+   * visiting only nodes of the tree whose boxes are within the distance.
+   *
+   * @param point    point to check
+   * @param distance maximal distance, 0 when exact
+   * @param exact    true to check on integers that the point lies on the segment
+   * @return found segments ordered by their canonical lines
+   */
+  private LineSegment[] search(final Point point, final double distance, final boolean exact) {
+    final long x = point.x();
+    final long y = point.y();
+    int[] found = new int[1];
+    int count = 0;
+    // node, first and after last index of its range for every pending node, at most two per level
+    final int[] stack = new int[3 * 2 * Integer.SIZE];
+    int top = 0;
+    if (segments.length > 0) {
+      stack[0] = 1;
+      stack[1] = 0;
+      stack[2] = segments.length;
+      top = 3;
+    }
+    while (top > 0) {
+      top -= 3;
+      final int node = stack[top];
+      final int from = stack[top + 1];
+      final int to = stack[top + 2];
+      if (boxDistance(node, x, y) > distance) {
+        continue;
+      }
+      if (to - from > LEAF_SIZE) {
+        final int middle = (from + to) >>> 1;
+        stack[top] = 2 * node;
+        stack[top + 1] = from;
+        stack[top + 2] = middle;
+        stack[top + 3] = 2 * node + 1;
+        stack[top + 4] = middle;
+        stack[top + 5] = to;
+        top += 6;
+        continue;
+      }
+      for (int i = from; i < to; ++i) {
+        final int segment = tree[i];
+        if (exact ? contains(segment, x, y, true) : distance(segment, x, y) <= distance) {
+          if (count == found.length) {
+            found = Arrays.copyOf(found, 2 * count);
+          }
+          found[count] = segment;
+          ++count;
+        }
+      }
+    }
+    Arrays.sort(found, 0, count);
+    final LineSegment[] result = new LineSegment[count];
+    for (int i = 0; i < count; ++i) {
+      result[i] = segments[found[i]];
+    }
+    return result;
+  }
+
+  /**
+   * Returns canonical line through two different points as coefficients a, b and c.
+   *
+   * @param p one point
+   * @param q other point
+   * @return coefficients of the line
+   */
+  private static long[] line(final Point p, final Point q) {
+    final long dx = q.x() - (long) p.x();
+    final long dy = q.y() - (long) p.y();
+    final long divisor = HashCollinearPoints.gcd(Math.abs(dx), Math.abs(dy));
+    long a = dy / divisor;
+    long b = -dx / divisor;
+    if (a < 0 || a == 0 && b < 0) {
+      a = -a;
+      b = -b;
+    }
+    return new long[] {a, b, a * p.x() + b * p.y()};
+  }
+
+  /**
+   * Compares canonical lines lexicographically by a, b and c.
+   *
+   * @param a0 coefficient a of the first line
+   * @param b0 coefficient b of the first line
+   * @param c0 coefficient c of the first line
+   * @param a1 coefficient a of the second line
+   * @param b1 coefficient b of the second line
+   * @param c1 coefficient c of the second line
+   * @return negative, zero or positive value if the first line is smaller, equal or greater
+   */
+  private static int compareLines(final long a0, final long b0, final long c0, final long a1, final long b1,
+                                  final long c1) {
+    if (a0 != a1) {
+      return Long.compare(a0, a1);
+    }
+    if (b0 != b1) {
+      return Long.compare(b0, b1);
+    }
+    return Long.compare(c0, c1);
+  }
+
+  /**
+   * Sorts range [from, to) of indices by canonical lines with stable merge sort.
+   *
+   * @param order  indices to sort
+   * @param buffer auxiliary array of the same length
+   * @param from   first index of the range
+   * @param to     index after the range
+   * @param a      coefficients a of lines
+   * @param b      coefficients b of lines
+   * @param c      coefficients c of lines
+   */
+  private static void sortByLine(final int[] order, final int[] buffer, final int from, final int to,
+                                 final long[] a, final long[] b, final long[] c) {
+    if (to - from < 2) {
+      return;
+    }
+    final int middle = (from + to) >>> 1;
+    sortByLine(order, buffer, from, middle, a, b, c);
+    sortByLine(order, buffer, middle, to, a, b, c);
+    System.arraycopy(order, from, buffer, from, to - from);
+    int left = from;
+    int right = middle;
+    for (int i = from; i < to; ++i) {
+      if (right == to || left < middle && compareLines(a[buffer[left]], b[buffer[left]], c[buffer[left]],
+          a[buffer[right]], b[buffer[right]], c[buffer[right]]) <= 0) {
+        order[i] = buffer[left];
+        ++left;
+      } else {
+        order[i] = buffer[right];
+        ++right;
+      }
+    }
+  }
+
+  /**
+   * Stores the bounding box of the node and splits its range of tree at the median centre
+   * along the longer side of the box.
+   *
+   * @param node node of the tree
+   * @param from first index of the range
+   * @param to   index after the range
+   */
+  private void build(final int node, final int from, final int to) {
+    int minX = Integer.MAX_VALUE;
+    int minY = Integer.MAX_VALUE;
+    int maxX = Integer.MIN_VALUE;
+    int maxY = Integer.MIN_VALUE;
+    for (int i = from; i < to; ++i) {
+      final int segment = tree[i];
+      minX = Math.min(minX, Math.min(ends[4 * segment], ends[4 * segment + 2]));
+      minY = Math.min(minY, Math.min(ends[4 * segment + 1], ends[4 * segment + 3]));
+      maxX = Math.max(maxX, Math.max(ends[4 * segment], ends[4 * segment + 2]));
+      maxY = Math.max(maxY, Math.max(ends[4 * segment + 1], ends[4 * segment + 3]));
+    }
+    boxes[4 * node] = minX;
+    boxes[4 * node + 1] = minY;
+    boxes[4 * node + 2] = maxX;
+    boxes[4 * node + 3] = maxY;
+    if (to - from <= LEAF_SIZE) {
+      return;
+    }
+    final int middle = (from + to) >>> 1;
+    select(from, to, middle, maxX - (long) minX >= maxY - (long) minY ? 0 : 1);
+    build(2 * node, from, middle);
+    build(2 * node + 1, middle, to);
+  }
+
+  /**
+   * Rearranges range [from, to) of tree so that the segment with the k-th smallest centre is at position k,
+   * smaller centres before and greater after it, with quickselect.
+   *
+   * @param from first index of the range
+   * @param to   index after the range
+   * @param k    position to fill
+   * @param axis 0 to compare x-coordinates of centres, 1 to compare y-coordinates
+   */
+  private void select(final int from, final int to, final int k, final int axis) {
+    int low = from;
+    int high = to - 1;
+    while (low < high) {
+      final long pivot = centre(tree[(low + high) >>> 1], axis);
+      int i = low;
+      int j = high;
+      while (i <= j) {
+        while (centre(tree[i], axis) < pivot) {
+          ++i;
+        }
+        while (centre(tree[j], axis) > pivot) {
+          --j;
+        }
+        if (i <= j) {
+          final int swap = tree[i];
+          tree[i] = tree[j];
+          tree[j] = swap;
+          ++i;
+          --j;
+        }
+      }
+      if (k <= j) {
+        high = j;
+      } else if (k >= i) {
+        low = i;
+      } else {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Returns twice the coordinate of the centre of the segment.
+   *
+   * @param segment index of the segment
+   * @param axis    0 for x-coordinate, 1 for y-coordinate
+   * @return sum of coordinates of endpoints
+   */
+  private long centre(final int segment, final int axis) {
+    return ends[4 * segment + axis] + (long) ends[4 * segment + 2 + axis];
+  }
+
+  /**
+   * Returns Euclidean distance from the point to the bounding box of the node, 0 inside the box.
+   *
+   * @param node node of the tree
+   * @param x    x-coordinate of the point
+   * @param y    y-coordinate of the point
+   * @return distance
+   */
+  private double boxDistance(final int node, final long x, final long y) {
+    final long dx = Math.max(0, Math.max(boxes[4 * node] - x, x - boxes[4 * node + 2]));
+    final long dy = Math.max(0, Math.max(boxes[4 * node + 1] - y, y - boxes[4 * node + 3]));
+    return Math.hypot(dx, dy);
+  }
+
+  /**
+   * Checks whether the point lies on the segment, or on its line when bounds are not checked.
+   *
+   * @param segment index of the segment
+   * @param x       x-coordinate of the point
+   * @param y       y-coordinate of the point
+   * @param bounded true to require the point between the endpoints
+   * @return true if the point lies on the segment
+   */
+  private boolean contains(final int segment, final long x, final long y, final boolean bounded) {
+    final long x0 = ends[4 * segment];
+    final long y0 = ends[4 * segment + 1];
+    final long x1 = ends[4 * segment + 2];
+    final long y1 = ends[4 * segment + 3];
+    if (bounded && (x < Math.min(x0, x1) || x > Math.max(x0, x1) || y < Math.min(y0, y1) || y > Math.max(y0, y1))) {
+      return false;
+    }
+    if (x == x0 && y == y0) {
+      return true;
+    }
+    return SlopeComparator.compareSlopes(x0 - x, y0 - y, x1 - x0, y1 - y0) == 0;
+  }
+
+  /**
+   * Returns Euclidean distance from the point to the segment.
+   *
+   * @param segment index of the segment
+   * @param x       x-coordinate of the point
+   * @param y       y-coordinate of the point
+   * @return distance
+   */
+  private double distance(final int segment, final double x, final double y) {
+    final double x0 = ends[4 * segment];
+    final double y0 = ends[4 * segment + 1];
+    final double dx = ends[4 * segment + 2] - x0;
+    final double dy = ends[4 * segment + 3] - y0;
+    final double t = Math.max(0, Math.min(1, ((x - x0) * dx + (y - y0) * dy) / (dx * dx + dy * dy)));
+    return Math.hypot(x - x0 - t * dx, y - y0 - t * dy);
+  }
+}
@@ -0,0 +1,488 @@
+package com.github.michalzurawski.algorithms.collinearpoints;
+
+import edu.princeton.cs.algs4.StdOut;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Headless renderer of points and line segments into an ARGB pixel buffer, without StdDraw or a display.
+ * World coordinates in range [0, worldSize] are scaled to the image with y-axis pointing up, like StdDraw.
+ * Every drawing call bins its shapes into horizontal bands of rows and draws the bands in parallel,
+ * so no two threads write the same pixel. Lines get the pixels of Bresenham's algorithm, computed in closed form
+ * so that a band can start in the middle of a line.
+ */
+public class SegmentRasterizer {
+  /**
+   * Number of rows of a band.
+   */
+  private static final int BAND = 32;
+  /**
+   * Greatest magnitude of pixel coordinates of line ends, longer lines are clipped first.
+   */
+  private static final long LIMIT = 1 << 24;
+  /**
+   * Width of the image.
+   */
+  private final int width;
+  /**
+   * Height of the image.
+   */
+  private final int height;
+  /**
+   * Size of the world mapped to the image.
+   */
+  private final long worldSize;
+  /**
+   * ARGB pixels row by row from the top.
+   */
+  private final int[] pixels;
+
+  /**
+   * Creates image filled with the background.
+   *
+   * @param width      width of the image
+   * @param height     height of the image
+   * @param worldSize  world coordinate mapped to the right and the top edge of the image
+   * @param background ARGB color of the background
+   */
+  public SegmentRasterizer(final int width, final int height, final int worldSize, final int background) {
+    if (width < 1 || height < 1 || (long) width * height > Integer.MAX_VALUE || worldSize < 1) {
+      throw new IllegalArgumentException();
+    }
+    this.width = width;
+    this.height = height;
+    this.worldSize = worldSize;
+    pixels = new int[width * height];
+    Arrays.fill(pixels, background);
+  }
+
+  /**
+   * Returns pixels of the image.
+   *
+   * @return ARGB pixels row by row from the top, not copied
+   */
+  public int[] pixels() {
+    return pixels;
+  }
+
+  /**
+   * Draws points as filled discs.
+   * Complexity: O(n + a / p) where n is the number of points, a the drawn area and p the parallelism.
+   *
+   * @param xs     x-coordinates of points
+   * @param ys     y-coordinates of points
+   * @param radius radius of discs in pixels
+   * @param color  ARGB color of discs
+   */
+  public void drawPoints(final int[] xs, final int[] ys, final int radius, final int color) {
+    if (xs.length != ys.length || radius < 0) {
+      throw new IllegalArgumentException();
+    }
+    final int n = xs.length;
+    final long[] columns = new long[n];
+    final long[] rows = new long[n];
+    for (int i = 0; i < n; ++i) {
+      columns[i] = column(xs[i]);
+      rows[i] = row(ys[i]);
+    }
+    final int[] spans = new int[radius + 1];
+    for (int d = 0; d <= radius; ++d) {
+      spans[d] = (int) Math.sqrt((double) radius * radius - (double) d * d);
+    }
+    draw(new Layer() {
+      @Override
+      public int count() {
+        return n;
+      }
+
+      @Override
+      public long top(final int i) {
+        return columns[i] + radius < 0 || columns[i] - radius >= width ? Long.MAX_VALUE : rows[i] - radius;
+      }
+
+      @Override
+      public long bottom(final int i) {
+        return rows[i] + radius;
+      }
+
+      @Override
+      public void draw(final int i, final int rowFrom, final int rowTo) {
+        final int from = (int) Math.max(rowFrom, rows[i] - radius);
+        final int to = (int) Math.min(rowTo - 1, rows[i] + radius);
+        for (int row = from; row <= to; ++row) {
+          final int span = spans[(int) Math.abs(row - rows[i])];
+          final int left = (int) Math.max(0, columns[i] - span);
+          final int right = (int) Math.min(width - 1, columns[i] + span);
+          if (left <= right) {
+            Arrays.fill(pixels, row * width + left, row * width + right + 1, color);
+          }
+        }
+      }
+    });
+  }
+
+  /**
+   * Draws line segments one pixel wide.
+   * Complexity: O(k + l / p) where k is the number of segments, l their length in pixels and p the parallelism.
+   *
+   * @param segments segments to draw
+   * @param color    ARGB color of lines
+   */
+  public void drawSegments(final LineSegment[] segments, final int color) {
+    final int k = segments.length;
+    // ends are stored from the upper one, rows of a band are then a contiguous part of the line
+    final int[] ends = new int[4 * k];
+    final boolean[] visible = new boolean[k];
+    final long[] line = new long[4];
+    for (int i = 0; i < k; ++i) {
+      final Point p = segments[i].p();
+      final Point q = segments[i].q();
+      line[0] = column(p.x());
+      line[1] = row(p.y());
+      line[2] = column(q.x());
+      line[3] = row(q.y());
+      visible[i] = clip(line);
+      final int first = line[1] <= line[3] ? 0 : 2;
+      ends[4 * i] = (int) line[first];
+      ends[4 * i + 1] = (int) line[first + 1];
+      ends[4 * i + 2] = (int) line[2 - first];
+      ends[4 * i + 3] = (int) line[3 - first];
+    }
+    draw(new Layer() {
+      @Override
+      public int count() {
+        return k;
+      }
+
+      @Override
+      public long top(final int i) {
+        return visible[i] ? ends[4 * i + 1] : Long.MAX_VALUE;
+      }
+
+      @Override
+      public long bottom(final int i) {
+        return ends[4 * i + 3];
+      }
+
+      @Override
+      public void draw(final int i, final int rowFrom, final int rowTo) {
+        drawLine(ends[4 * i], ends[4 * i + 1], ends[4 * i + 2], ends[4 * i + 3], color, rowFrom, rowTo);
+      }
+    });
+  }
+
+  /**
+   * Writes the image as a PNG file.
+   *
+   * @param path path of the file
+   * @throws IOException when the file cannot be written
+   */
+  public void writePng(final Path path) throws IOException {
+    final BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    final int[] data = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+    System.arraycopy(pixels, 0, data, 0, pixels.length);
+    if (!ImageIO.write(image, "png", path.toFile())) {
+      throw new IOException("No PNG writer");
+    }
+  }
+
+  /**
+   * Returns column of the pixel of the x-coordinate.
+   *
+   * @param x x-coordinate
+   * @return column, possibly outside of the image
+   */
+  private long column(final int x) {
+    return Math.floorDiv((long) x * width, worldSize);
+  }
+
+  /**
+   * Returns row of the pixel of the y-coordinate.
+   *
+   * @param y y-coordinate
+   * @return row, possibly outside of the image
+   */
+  private long row(final int y) {
+    return height - 1 - Math.floorDiv((long) y * height, worldSize);
+  }
+
+  /**
+   * Clips the line to the neighbourhood of the image when its ends are too far from it.
+   * Lines close to the image are left exact.
+   *
+   * @param line column and row of both ends, replaced by the clipped ones
+   * @return false if the line misses the image
+   */
+  private boolean clip(final long[] line) {
+    boolean near = true;
+    for (final long value : line) {
+      near &= Math.abs(value) <= LIMIT;
+    }
+    if (near) {
+      return true;
+    }
+    // Liang-Barsky clipping to the image with one pixel margin
+    final double x0 = line[0];
+    final double y0 = line[1];
+    final double dx = line[2] - x0;
+    final double dy = line[3] - y0;
+    final double[] p = {-dx, dx, -dy, dy};
+    final double[] q = {x0 + 1, width - x0, y0 + 1, height - y0};
+    double enter = 0;
+    double leave = 1;
+    for (int i = 0; i < 4; ++i) {
+      if (p[i] == 0) {
+        if (q[i] < 0) {
+          return false;
+        }
+      } else if (p[i] < 0) {
+        enter = Math.max(enter, q[i] / p[i]);
+      } else {
+        leave = Math.min(leave, q[i] / p[i]);
+      }
+    }
+    if (enter > leave) {
+      return false;
+    }
+    line[0] = Math.round(x0 + enter * dx);
+    line[1] = Math.round(y0 + enter * dy);
+    line[2] = Math.round(x0 + leave * dx);
+    line[3] = Math.round(y0 + leave * dy);
+    return true;
+  }
+
+  /**
+   * Draws pixels of the line in rows [rowFrom, rowTo).
+   * Pixel of the line at step t along its major axis is the nearest one to the exact line,
+   * which is what Bresenham's algorithm chooses.
+   *
+   * @param x0      column of the upper end
+   * @param y0      row of the upper end
+   * @param x1      column of the lower end
+   * @param y1      row of the lower end
+   * @param color   ARGB color of the line
+   * @param rowFrom first row to draw
+   * @param rowTo   row after the last row to draw
+   */
+  private void drawLine(final int x0, final int y0, final int x1, final int y1, final int color,
+                        final int rowFrom, final int rowTo) {
+    final long dx = (long) x1 - x0;
+    final long dy = (long) y1 - y0;
+    if (Math.abs(dx) >= dy) {
+      if (dx == 0) {
+        plot(x0, y0, color, rowFrom, rowTo);
+        return;
+      }
+      final long direction = Long.signum(dx);
+      final long length = Math.abs(dx);
+      long from = 0;
+      long to = length;
+      if (dy > 0) {
+        // rows grow with t, one more row on both sides covers rounding
+        from = Math.max(from, (rowFrom - 1 - y0) * length / dy);
+        to = Math.min(to, (rowTo + 1 - y0) * length / dy);
+      } else if (y0 < rowFrom || y0 >= rowTo) {
+        return;
+      }
+      from = Math.max(from, direction > 0 ? -x0 : x0 - (width - 1));
+      to = Math.min(to, direction > 0 ? width - 1 - x0 : x0);
+      for (long t = from; t <= to; ++t) {
+        plot(x0 + direction * t, y0 + Math.floorDiv(2 * t * dy + length, 2 * length), color, rowFrom, rowTo);
+      }
+    } else {
+      final long from = Math.max(0, rowFrom - y0);
+      final long to = Math.min(dy, rowTo - 1 - y0);
+      for (long t = from; t <= to; ++t) {
+        plot(x0 + Math.floorDiv(2 * t * dx + dy, 2 * dy), y0 + t, color, rowFrom, rowTo);
+      }
+    }
+  }
+
+  /**
+   * Sets the pixel if it is inside the image and in rows [rowFrom, rowTo).
+   *
+   * @param column  column of the pixel
+   * @param row     row of the pixel
+   * @param color   ARGB color
+   * @param rowFrom first row to draw
+   * @param rowTo   row after the last row to draw
+   */
+  private void plot(final long column, final long row, final int color, final int rowFrom, final int rowTo) {
+    if (column >= 0 && column < width && row >= rowFrom && row < rowTo) {
+      pixels[(int) row * width + (int) column] = color;
+    }
+  }
+
+  /**
+   * Bins shapes of the layer into bands and draws the bands in parallel.
+   * Shapes of a band are drawn in the order of the layer.
+   *
+   * @param layer shapes to draw
+   */
+  private void draw(final Layer layer) {
+    final int bands = (height + BAND - 1) / BAND;
+    final int n = layer.count();
+    final int[] bandStart = new int[bands + 1];
+    for (int i = 0; i < n; ++i) {
+      final long top = layer.top(i);
+      final long bottom = layer.bottom(i);
+      if (top < height && bottom >= 0) {
+        ++bandStart[(int) Math.max(0, top) / BAND];
+        --bandStart[(int) Math.min(height - 1, bottom) / BAND + 1];
+      }
+    }
+    // differences become counts of shapes in every band, then their prefix sums
+    int count = 0;
+    for (int band = 0; band < bands; ++band) {
+      count += bandStart[band];
+      bandStart[band] = count;
+    }
+    long total = 0;
+    for (int band = 0; band < bands; ++band) {
+      final int shapes = bandStart[band];
+      bandStart[band] = (int) total;
+      total += shapes;
+    }
+    if (total > Integer.MAX_VALUE - 8) {
+      throw new IllegalArgumentException();
+    }
+    bandStart[bands] = (int) total;
+    final int[] bandShapes = new int[(int) total];
+    final int[] next = Arrays.copyOf(bandStart, bands);
+    for (int i = 0; i < n; ++i) {
+      final long top = layer.top(i);
+      final long bottom = layer.bottom(i);
+      if (top < height && bottom >= 0) {
+        final int last = (int) Math.min(height - 1, bottom) / BAND;
+        for (int band = (int) Math.max(0, top) / BAND; band <= last; ++band) {
+          bandShapes[next[band]] = i;
+          ++next[band];
+        }
+      }
+    }
+    ForkJoinPool.commonPool().invoke(new BandTask(layer, bandStart, bandShapes, 0, bands));
+  }
+
+  /**
+   * Shapes drawn by one call.
+   */
+  private interface Layer {
+    /**
+     * Returns number of shapes.
+     *
+     * @return number of shapes
+     */
+    int count();
+
+    /**
+     * Returns the first row of the shape.
+     *
+     * @param i index of the shape
+     * @return the first row, Long.MAX_VALUE if the shape is not drawn
+     */
+    long top(int i);
+
+    /**
+     * Returns the last row of the shape.
+     *
+     * @param i index of the shape
+     * @return the last row
+     */
+    long bottom(int i);
+
+    /**
+     * Draws rows [rowFrom, rowTo) of the shape.
+     *
+     * @param i       index of the shape
+     * @param rowFrom first row to draw
+     * @param rowTo   row after the last row to draw
+     */
+    void draw(int i, int rowFrom, int rowTo);
+  }
+
+  /**
+   * Task drawing range of bands, split in halves until it holds one band.
+   */
+  private final class BandTask extends RecursiveAction {
+    /**
+     * Shapes to draw.
+     */
+    private final Layer layer;
+    /**
+     * Index of the first shape of every band in bandShapes.
+     */
+    private final int[] bandStart;
+    /**
+     * Shapes of all bands, band after band.
+     */
+    private final int[] bandShapes;
+    /**
+     * Index of the first band.
+     */
+    private final int from;
+    /**
+     * Index after the last band.
+     */
+    private final int to;
+
+    /**
+     * Creates task drawing bands in range [from, to).
+     *
+     * @param layer      shapes to draw
+     * @param bandStart  index of the first shape of every band in bandShapes
+     * @param bandShapes shapes of all bands
+     * @param from       index of the first band
+     * @param to         index after the last band
+     */
+    private BandTask(final Layer layer, final int[] bandStart, final int[] bandShapes, final int from, final int to) {
+      this.layer = layer;
+      this.bandStart = bandStart;
+      this.bandShapes = bandShapes;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from > 1) {
+        final int middle = (from + to) >>> 1;
+        invokeAll(new BandTask(layer, bandStart, bandShapes, from, middle),
+            new BandTask(layer, bandStart, bandShapes, middle, to));
+        return;
+      }
+      final int rowFrom = from * BAND;
+      final int rowTo = Math.min(height, rowFrom + BAND);
+      for (int i = bandStart[from]; i < bandStart[from + 1]; ++i) {
+        layer.draw(bandShapes[i], rowFrom, rowTo);
+      }
+    }
+  }
+
+  /**
+   * Renders points of the file and their line segments containing 4 collinear points to a PNG file,
+   * like the main of FastCollinearPoints but without a display.
+   *
+   * @param args Args[0] name of the text file, Args[1] name of the PNG file, Args[2] optional size of the image
+   * @throws IOException when a file cannot be accessed
+   */
+  public static void main(final String[] args) throws IOException {
+    final int worldSize = 32768;
+    final int size = args.length > 2 ? Integer.parseInt(args[2]) : 1024;
+    final PointFile points = PointFile.readText(Paths.get(args[0]));
+    final LineSegment[] segments = new FastCollinearPoints(points.points()).segments();
+    final SegmentRasterizer rasterizer = new SegmentRasterizer(size, size, worldSize, 0xFFFFFFFF);
+    final int radius = Math.max(1, 128 * size / worldSize);
+    rasterizer.drawPoints(points.xs(), points.ys(), radius, 0xFFFF0000);
+    rasterizer.drawSegments(segments, 0xFF000000);
+    rasterizer.writePng(Paths.get(args[1]));
+    StdOut.println(segments.length + " segments drawn");
+  }
+}
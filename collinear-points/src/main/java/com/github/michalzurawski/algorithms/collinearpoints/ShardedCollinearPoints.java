@@ -0,0 +1,334 @@
+package com.github.michalzurawski.algorithms.collinearpoints;
+
+import edu.princeton.cs.algs4.StdOut;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Driver of FastCollinearPoints splitting anchors across local worker processes.
+ * The coordinator launches one JVM per shard with the same class path. Every worker memory-maps the shared
+ * binary point file (see PointFile), searches from its range of naturally sorted anchors and writes found segments
+ * to its shard file. Shard files are written under a temporary name and renamed when complete,
+ * so a shard exists only if its worker finished. A segment is found only from its smallest point,
+ * hence shards never overlap and their concatenation is the result of FastCollinearPoints, in the same order.
+ * Shard files hold the magic number followed by fromX, fromY, toX, toY of every segment, all as little-endian ints.
+ * The work is split, the data is not: the point file is mapped only to be read, and every worker copies all n points
+ * into sorted coordinate arrays and keeps O(n) search arrays besides, so each process needs tens of bytes of heap
+ * per point and the point set must fit in the heap of a single worker.
+ */
+public final class ShardedCollinearPoints {
+  /**
+   * First int of a shard file, "SEG1" read as a little-endian int.
+   */
+  static final int MAGIC = 0x31474553;
+  /**
+   * Argument selecting the worker mode of main.
+   */
+  private static final String WORKER = "--worker";
+  /**
+   * Size of a segment in a shard file in bytes.
+   */
+  private static final int SEGMENT_BYTES = 4 * Integer.BYTES;
+
+  /**
+   * Hides constructor of the utility class.
+   */
+  private ShardedCollinearPoints() {
+  }
+
+  /**
+   * Finds all line segments containing 4 collinear points of the binary point file using worker processes.
+   * Shard files are left in the directory.
+   * Complexity: O(n^2 / w) time per worker where n is the number of points and w the number of workers.
+   *
+   * @param pointFile binary point file
+   * @param workers   number of worker processes
+   * @param directory directory for shard files
+   * @return line segments containing 4 collinear points
+   * @throws IOException              when a file cannot be accessed or a worker fails
+   * @throws InterruptedException     when interrupted while waiting for workers
+   * @throws IllegalArgumentException when the number of workers is not positive or the point file is malformed
+   */
+  public static LineSegment[] find(final Path pointFile, final int workers, final Path directory)
+      throws IOException, InterruptedException {
+    if (workers < 1) {
+      throw new IllegalArgumentException();
+    }
+    final IntBuffer pairs = PointFile.mapBinary(pointFile);
+    final int[] bounds = bounds(pairs.remaining() / 2, workers, fitsInKey(pairs));
+    final Path java = Paths.get(System.getProperty("java.home"), "bin", "java");
+    final Process[] processes = new Process[workers];
+    try {
+      for (int shard = 0; shard < workers; ++shard) {
+        final Path shardFile = shardFile(directory, shard);
+        Files.deleteIfExists(shardFile);
+        processes[shard] = new ProcessBuilder(java.toString(), "-cp", System.getProperty("java.class.path"),
+            ShardedCollinearPoints.class.getName(), WORKER, pointFile.toString(),
+            Integer.toString(bounds[shard]), Integer.toString(bounds[shard + 1]), shardFile.toString())
+            .redirectOutput(ProcessBuilder.Redirect.INHERIT)
+            .redirectError(ProcessBuilder.Redirect.INHERIT)
+            .start();
+      }
+      for (int shard = 0; shard < workers; ++shard) {
+        final int exitCode = processes[shard].waitFor();
+        if (exitCode != 0) {
+          throw new IOException("Worker of shard " + shard + " failed with exit code " + exitCode);
+        }
+      }
+    } finally {
+      for (final Process process : processes) {
+        if (process != null) {
+          process.destroy();
+        }
+      }
+    }
+
+    LineSegment[] segments = new LineSegment[0];
+    for (int shard = 0; shard < workers; ++shard) {
+      final LineSegment[] shardSegments = readShard(shardFile(directory, shard));
+      final int count = segments.length;
+      segments = Arrays.copyOf(segments, count + shardSegments.length);
+      System.arraycopy(shardSegments, 0, segments, count, shardSegments.length);
+    }
+    return segments;
+  }
+
+  /**
+   * Searches from anchors in range [from, to) of naturally sorted points of the binary point file
+   * and writes found segments to the shard file.
+   * Points are held as sorted coordinate arrays and searched by HashCollinearPoints, so a worker needs O(n) ints
+   * and longs instead of Point objects. When coordinates span more than 2^31 in either axis the search falls back
+   * to FastCollinearPoints, which holds several arrays of n Point objects.
+   * The temporary shard file is deleted when the search fails.
+   * Complexity: O(n (to - from + 1)) expected where n is the number of points.
+   *
+   * @param pointFile binary point file
+   * @param from      index of the first anchor
+   * @param to        index after the last anchor
+   * @param shardFile file to write segments to
+   * @throws IOException              when a file cannot be accessed
+   * @throws IllegalArgumentException when the range is invalid, two points are equal or the point file is malformed
+   */
+  static void work(final Path pointFile, final int from, final int to, final Path shardFile) throws IOException {
+    final IntBuffer pairs = PointFile.mapBinary(pointFile);
+    final int n = pairs.remaining() / 2;
+    if (from < 0 || from > to || to > n) {
+      throw new IllegalArgumentException();
+    }
+    final int[] xs = new int[n];
+    final int[] ys = new int[n];
+    for (int i = 0; i < n; ++i) {
+      xs[i] = pairs.get(2 * i);
+      ys[i] = pairs.get(2 * i + 1);
+    }
+    final long[] keys = PointValidator.sortedKeys(xs, ys);
+    for (int i = 0; i < n; ++i) {
+      xs[i] = PointValidator.x(keys[i]);
+      ys[i] = PointValidator.y(keys[i]);
+    }
+
+    final Path temporary = shardFile.resolveSibling(shardFile.getFileName() + ".tmp");
+    try {
+      try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+          StandardOpenOption.TRUNCATE_EXISTING)) {
+        final ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC);
+        if (HashCollinearPoints.fitsInKey(xs, ys)) {
+          final int[] ends = HashCollinearPoints.findSegments(xs, ys, from, to);
+          for (int k = 0; k < ends.length; k += 2) {
+            put(channel, buffer, xs[ends[k]], ys[ends[k]], xs[ends[k + 1]], ys[ends[k + 1]]);
+          }
+        } else {
+          searchPoints(xs, ys, from, to, channel, buffer);
+        }
+        PointFile.write(channel, buffer);
+      }
+      Files.move(temporary, shardFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      // after a successful move the temporary file no longer exists
+      Files.deleteIfExists(temporary);
+    }
+  }
+
+  /**
+   * Searches from anchors in range [from, to) with FastCollinearPoints and puts found segments to the buffer.
+   *
+   * @param xs      x-coordinates of naturally sorted points
+   * @param ys      y-coordinates of the points
+   * @param from    index of the first anchor
+   * @param to      index after the last anchor
+   * @param channel channel the full buffer is written to
+   * @param buffer  buffer of segments
+   * @throws IOException when the channel cannot be written
+   */
+  private static void searchPoints(final int[] xs, final int[] ys, final int from, final int to,
+                                   final FileChannel channel, final ByteBuffer buffer) throws IOException {
+    final Point[] sortedPoints = new Point[xs.length];
+    for (int i = 0; i < sortedPoints.length; ++i) {
+      sortedPoints[i] = new Point(xs[i], ys[i]);
+    }
+    final IOException[] failure = new IOException[1];
+    FastCollinearPoints.forEachSegment(sortedPoints, from, to, (fromX, fromY, toX, toY) -> {
+      if (failure[0] != null) {
+        return;
+      }
+      try {
+        put(channel, buffer, fromX, fromY, toX, toY);
+      } catch (final IOException e) {
+        failure[0] = e;
+      }
+    });
+    if (failure[0] != null) {
+      throw failure[0];
+    }
+  }
+
+  /**
+   * Puts the segment to the buffer, writing the buffer to the channel first when it is full.
+   *
+   * @param channel channel the full buffer is written to
+   * @param buffer  buffer of segments
+   * @param fromX   x-coordinate of the smallest point
+   * @param fromY   y-coordinate of the smallest point
+   * @param toX     x-coordinate of the largest point
+   * @param toY     y-coordinate of the largest point
+   * @throws IOException when the channel cannot be written
+   */
+  private static void put(final FileChannel channel, final ByteBuffer buffer, final int fromX, final int fromY,
+                          final int toX, final int toY) throws IOException {
+    if (buffer.remaining() < SEGMENT_BYTES) {
+      PointFile.write(channel, buffer);
+    }
+    buffer.putInt(fromX).putInt(fromY).putInt(toX).putInt(toY);
+  }
+
+  /**
+   * Reads segments of the shard file.
+   * Complexity: O(k) where k is the number of segments.
+   *
+   * @param shardFile shard file
+   * @return segments of the shard
+   * @throws IOException              when the file cannot be read
+   * @throws IllegalArgumentException when the file is malformed
+   */
+  static LineSegment[] readShard(final Path shardFile) throws IOException {
+    try (FileChannel channel = FileChannel.open(shardFile, StandardOpenOption.READ)) {
+      final long size = channel.size();
+      if (size < Integer.BYTES || (size - Integer.BYTES) % SEGMENT_BYTES != 0) {
+        throw new IllegalArgumentException();
+      }
+      final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      buffer.order(ByteOrder.LITTLE_ENDIAN);
+      if (buffer.getInt() != MAGIC) {
+        throw new IllegalArgumentException();
+      }
+      final LineSegment[] segments = new LineSegment[(int) ((size - Integer.BYTES) / SEGMENT_BYTES)];
+      for (int i = 0; i < segments.length; ++i) {
+        final Point from = new Point(buffer.getInt(), buffer.getInt());
+        segments[i] = new LineSegment(from, new Point(buffer.getInt(), buffer.getInt()));
+      }
+      return segments;
+    }
+  }
+
+  /**
+   * Splits n anchors into shards of similar work.
+   * HashCollinearPoints visits all n points from every anchor, so anchors are split evenly.
+   * FastCollinearPoints sorts the n - i - 1 points greater than anchor i, so earlier shards get fewer anchors.
+   *
+   * @param n      number of points
+   * @param shards number of shards
+   * @param hash   true if workers search with HashCollinearPoints, false if with FastCollinearPoints
+   * @return shards + 1 increasing bounds, shard s holds anchors in range [bounds[s], bounds[s + 1])
+   */
+  static int[] bounds(final int n, final int shards, final boolean hash) {
+    final int[] bounds = new int[shards + 1];
+    for (int shard = 1; shard < shards; ++shard) {
+      if (hash) {
+        bounds[shard] = (int) ((long) n * shard / shards);
+      } else {
+        // work of anchors [0, b) is about n^2 - (n - b)^2, which is shard / shards of n^2 for this b
+        final int bound = n - (int) Math.round(n * Math.sqrt((double) (shards - shard) / shards));
+        bounds[shard] = Math.max(bounds[shard - 1], Math.min(n, bound));
+      }
+    }
+    bounds[shards] = n;
+    return bounds;
+  }
+
+  /**
+   * Checks whether workers can search the points with HashCollinearPoints,
+   * see HashCollinearPoints.fitsInKey.
+   * Complexity: O(n) where n is the number of points.
+   *
+   * @param pairs x- and y-coordinates of points one after another
+   * @return true if every difference of coordinates fits in an int
+   */
+  private static boolean fitsInKey(final IntBuffer pairs) {
+    final int n = pairs.remaining() / 2;
+    final int[] min = {Integer.MAX_VALUE, Integer.MAX_VALUE};
+    final int[] max = {Integer.MIN_VALUE, Integer.MIN_VALUE};
+    for (int i = 0; i < 2 * n; ++i) {
+      final int value = pairs.get(i);
+      min[i % 2] = Math.min(min[i % 2], value);
+      max[i % 2] = Math.max(max[i % 2], value);
+    }
+    return n == 0 || (long) max[0] - min[0] <= Integer.MAX_VALUE && (long) max[1] - min[1] <= Integer.MAX_VALUE;
+  }
+
+  /**
+   * Returns path of the shard file.
+   *
+   * @param directory directory for shard files
+   * @param shard     number of the shard
+   * @return path of the shard file
+   */
+  private static Path shardFile(final Path directory, final int shard) {
+    return directory.resolve("shard" + shard + ".seg");
+  }
+
+  /**
+   * Prints all line segments containing 4 collinear points of the text file, found by worker processes.
+   * With --worker as the first argument searches one shard instead.
+   *
+   * @param args Args[0] name of the text file, Args[1] number of workers,
+   *             or --worker, name of the binary point file, first anchor, anchor after the last one, shard file
+   * @throws IOException          when a file cannot be accessed or a worker fails
+   * @throws InterruptedException when interrupted while waiting for workers
+   */
+  public static void main(final String[] args) throws IOException, InterruptedException {
+    if (WORKER.equals(args[0])) {
+      work(Paths.get(args[1]), Integer.parseInt(args[2]), Integer.parseInt(args[3]), Paths.get(args[4]));
+      return;
+    }
+    final PointFile points = PointFile.readText(Paths.get(args[0]));
+    final Path directory = Files.createTempDirectory("collinear");
+    try {
+      final Path pointFile = directory.resolve("points.bin");
+      PointFile.writeBinary(pointFile, points.xs(), points.ys());
+      for (final LineSegment segment : find(pointFile, Integer.parseInt(args[1]), directory)) {
+        StdOut.println(segment);
+      }
+    } finally {
+      final File[] files = directory.toFile().listFiles();
+      if (files != null) {
+        for (final File file : files) {
+          Files.deleteIfExists(file.toPath());
+        }
+      }
+      Files.deleteIfExists(directory);
+    }
+  }
+}
@@ -0,0 +1,97 @@
+package com.github.michalzurawski.algorithms.collinearpoints;
+
+import java.util.Comparator;
+
+/**
+ * Compares points by the slope they make with the anchor point using exact integer arithmetic.
+ * The ordering is the same as the ordering of Point.slopeTo() values but does not suffer from rounding:
+ * the anchor itself is the smallest, then slopes from negative to positive and vertical slope is the greatest.
+ * Slopes are compared by 64-bit cross products of direction vectors normalized to the right half-plane,
+ * which is exact for all int coordinates.
+ * The comparator does not allocate and may be reused for many anchors.
+ */
+final class SlopeComparator implements Comparator<Point> {
+  /**
+   * x-coordinate of the anchor.
+   */
+  private long anchorX;
+  /**
+   * y-coordinate of the anchor.
+   */
+  private long anchorY;
+
+  /**
+   * Creates comparator anchored at the origin.
+   */
+  SlopeComparator() {
+  }
+
+  /**
+   * Creates comparator for given anchor.
+   *
+   * @param anchor point to which slopes are computed
+   */
+  SlopeComparator(final Point anchor) {
+    setAnchor(anchor);
+  }
+
+  /**
+   * Changes the anchor point.
+   *
+   * @param anchor point to which slopes are computed
+   */
+  void setAnchor(final Point anchor) {
+    anchorX = anchor.x();
+    anchorY = anchor.y();
+  }
+
+  @Override
+  public int compare(final Point p0, final Point p1) {
+    return compareSlopes(p0.x() - anchorX, p0.y() - anchorY, p1.x() - anchorX, p1.y() - anchorY);
+  }
+
+  /**
+   * Compares slopes of two direction vectors.
+   * Zero vector has the smallest slope, vertical vector has the greatest one.
+   * Components must not exceed 2^32 in absolute value.
+   *
+   * @param dx0 x-component of the first vector
+   * @param dy0 y-component of the first vector
+   * @param dx1 x-component of the second vector
+   * @param dy1 y-component of the second vector
+   * @return negative, zero or positive value if the first slope is smaller, equal or greater than the second one
+   */
+  static int compareSlopes(final long dx0, final long dy0, final long dx1, final long dy1) {
+    final int quadrant0 = quadrant(dx0, dy0);
+    final int quadrant1 = quadrant(dx1, dy1);
+    if (quadrant0 != quadrant1) {
+      return Integer.compare(quadrant0, quadrant1);
+    }
+    if (quadrant0 != 1 && quadrant0 != 3) {
+      return 0;
+    }
+    // the same sign of slopes, compare |dy0 / dx0| with |dy1 / dx1|, products may use all 64 bits
+    final long product0 = Math.abs(dy0) * Math.abs(dx1);
+    final long product1 = Math.abs(dy1) * Math.abs(dx0);
+    final int result = Long.compareUnsigned(product0, product1);
+    return quadrant0 == 1 ? -result : result;
+  }
+
+  /**
+   * Returns the class of the slope: 0 for zero vector, 1 for negative, 2 for horizontal,
+   * 3 for positive and 4 for vertical slope.
+   *
+   * @param dx x-component of the vector
+   * @param dy y-component of the vector
+   * @return class of the slope
+   */
+  private static int quadrant(final long dx, final long dy) {
+    if (dx == 0) {
+      return dy == 0 ? 0 : 4;
+    }
+    if (dy == 0) {
+      return 2;
+    }
+    return (dx > 0) == (dy > 0) ? 3 : 1;
+  }
+}
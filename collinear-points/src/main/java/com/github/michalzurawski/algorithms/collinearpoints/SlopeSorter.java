@@ -0,0 +1,178 @@
+package com.github.michalzurawski.algorithms.collinearpoints;
+
+import java.util.Arrays;
+
+/**
+ * Sorts points by the slope they make with an anchor, giving the same order as a stable sort with SlopeComparator.
+ * Every direction is mapped to a 64-bit key growing with the slope: the pseudo-angle dy / (|dx| + |dy|)
+ * of the vector turned to the right half-plane, encoded so that unsigned order of keys is the order of angles.
+ * Low bits of the key are replaced by the index of the point and the resulting long[] is sorted by LSD radix sort.
+ * Different slopes may share a truncated key, so runs of equal keys are checked and, if needed, sorted exactly.
+ * Buffers are allocated once and reused for every anchor.
+ */
+final class SlopeSorter {
+  /**
+   * Number of bits sorted in one pass.
+   */
+  private static final int RADIX_BITS = 8;
+  /**
+   * Number of buckets in one pass.
+   */
+  private static final int RADIX = 1 << RADIX_BITS;
+  /**
+   * Number of passes needed for 64-bit keys.
+   */
+  private static final int PASSES = Long.SIZE / RADIX_BITS;
+  /**
+   * Keys with indices of points.
+   */
+  private long[] keys;
+  /**
+   * Second array used by radix sort.
+   */
+  private long[] buffer;
+  /**
+   * Bucket counts of all passes.
+   */
+  private final int[] counts = new int[PASSES * RADIX];
+  /**
+   * Comparator resolving runs of different slopes with equal keys.
+   */
+  private final SlopeComparator slopeOrder = new SlopeComparator();
+
+  /**
+   * Creates sorter for at most capacity points.
+   *
+   * @param capacity maximal number of points
+   */
+  SlopeSorter(final int capacity) {
+    keys = new long[capacity];
+    buffer = new long[capacity];
+  }
+
+  /**
+   * Writes points sorted by slope to the anchor into sorted array.
+   * Points with equal slopes keep their order from the input.
+   * Complexity: O(n) unless many different slopes share keys.
+   *
+   * @param points points to sort
+   * @param anchor point to which slopes are computed
+   * @param sorted array receiving sorted points, at least as long as points
+   */
+  void sort(final Point[] points, final Point anchor, final Point[] sorted) {
+    sort(points, 0, points.length, anchor, sorted);
+  }
+
+  /**
+   * Writes points in range [from, to) sorted by slope to the anchor into the beginning of sorted array.
+   * Points with equal slopes keep their order from the input.
+   * Complexity: O(n) unless many different slopes share keys.
+   *
+   * @param points points to sort
+   * @param from   index of the first point to sort
+   * @param to     index after the last point to sort
+   * @param anchor point to which slopes are computed
+   * @param sorted array receiving sorted points, at least as long as the range
+   */
+  void sort(final Point[] points, final int from, final int to, final Point anchor, final Point[] sorted) {
+    final int n = to - from;
+    if (from < 0 || n < 0 || to > points.length || n > keys.length) {
+      throw new IllegalArgumentException();
+    }
+    final int indexBits = Integer.SIZE - Integer.numberOfLeadingZeros(Math.max(1, n - 1));
+    final long indexMask = (1L << indexBits) - 1;
+    for (int i = 0; i < n; ++i) {
+      final long dx = points[from + i].x() - (long) anchor.x();
+      final long dy = points[from + i].y() - (long) anchor.y();
+      keys[i] = key(dx, dy) & ~indexMask | i;
+    }
+    radixSort(n);
+    for (int i = 0; i < n; ++i) {
+      sorted[i] = points[from + (int) (keys[i] & indexMask)];
+    }
+
+    slopeOrder.setAnchor(anchor);
+    int start = 0;
+    for (int i = 1; i <= n; ++i) {
+      if (i == n || (keys[i] & ~indexMask) != (keys[start] & ~indexMask)) {
+        if (i - start > 1 && !sameSlopes(sorted, start, i)) {
+          Arrays.sort(sorted, start, i, slopeOrder);
+        }
+        start = i;
+      }
+    }
+  }
+
+  /**
+   * Returns key of the direction whose unsigned order is the order of slopes.
+   * Zero vector has the smallest key and vertical vector the greatest one.
+   *
+   * @param dx x-component of the vector
+   * @param dy y-component of the vector
+   * @return key of the direction
+   */
+  static long key(final long dx, final long dy) {
+    if (dx == 0) {
+      return dy == 0 ? 0 : -1L;
+    }
+    final long y = dx > 0 ? dy : -dy;
+    // division is correctly rounded, so the rounded pseudo-angle never decreases when the exact one grows
+    final double angle = y / (double) (Math.abs(dx) + Math.abs(dy));
+    final long bits = Double.doubleToLongBits(angle);
+    return bits < 0 ? ~bits : bits ^ Long.MIN_VALUE;
+  }
+
+  /**
+   * Checks whether all points in range [from, to) have the same slope to the anchor.
+   *
+   * @param sorted points sorted by key
+   * @param from   index of the first point
+   * @param to     index after the last point
+   * @return true if slopes are equal
+   */
+  private boolean sameSlopes(final Point[] sorted, final int from, final int to) {
+    for (int i = from + 1; i < to; ++i) {
+      if (slopeOrder.compare(sorted[from], sorted[i]) != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Sorts first n keys as unsigned numbers, skipping passes in which all keys share the digit.
+   *
+   * @param n number of keys
+   */
+  private void radixSort(final int n) {
+    Arrays.fill(counts, 0);
+    for (int i = 0; i < n; ++i) {
+      final long key = keys[i];
+      for (int pass = 0; pass < PASSES; ++pass) {
+        ++counts[pass * RADIX + ((int) (key >>> (pass * RADIX_BITS)) & RADIX - 1)];
+      }
+    }
+    for (int pass = 0; pass < PASSES; ++pass) {
+      final int offset = pass * RADIX;
+      final int shift = pass * RADIX_BITS;
+      if (n == 0 || counts[offset + ((int) (keys[0] >>> shift) & RADIX - 1)] == n) {
+        continue;
+      }
+      int total = 0;
+      for (int digit = 0; digit < RADIX; ++digit) {
+        final int count = counts[offset + digit];
+        counts[offset + digit] = total;
+        total += count;
+      }
+      for (int i = 0; i < n; ++i) {
+        final long key = keys[i];
+        final int bucket = offset + ((int) (key >>> shift) & RADIX - 1);
+        buffer[counts[bucket]] = key;
+        ++counts[bucket];
+      }
+      final long[] swap = keys;
+      keys = buffer;
+      buffer = swap;
+    }
+  }
+}
@@ -0,0 +1,79 @@
+package com.github.michalzurawski.algorithms.collinearpoints
+
+import edu.princeton.cs.algs4.In
+import spock.lang.Specification
+import spock.lang.Unroll
+
+@Unroll
+class ArrayCollinearPointsSpec extends Specification {
+  def "should return 0 when no collinear points are given"() {
+    given:
+    int[] xs = [1]
+    int[] ys = [1]
+    ArrayCollinearPoints arrayCollinearPoints = new ArrayCollinearPoints(xs, ys)
+    when:
+    int result = arrayCollinearPoints.numberOfSegments()
+    then:
+    result == 0
+  }
+
+  def "should return the same line segments as FastCollinearPoints for file #fileName"() {
+    given:
+    In input = new In("src/test/resources/" + fileName)
+    int n = input.readInt()
+    int[] xs = new int[n]
+    int[] ys = new int[n]
+    Point[] points = new Point[n]
+    for (int i = 0; i < n; ++i) {
+      xs[i] = input.readInt()
+      ys[i] = input.readInt()
+      points[i] = new Point(xs[i], ys[i])
+    }
+    when:
+    LineSegment[] result = new ArrayCollinearPoints(xs, ys).segments()
+    then:
+    result == new FastCollinearPoints(points).segments()
+
+    where:
+    fileName << ["equidistant.txt", "grid6x6.txt", "input8.txt", "input48.txt", "input6000.txt", "kw1260.txt",
+                 "rs1423.txt"]
+  }
+
+  def "should find line segments when coordinates span the whole int range"() {
+    given:
+    int[] xs = [Integer.MIN_VALUE, 0, Integer.MAX_VALUE, 5, 1, 2, 3, 4]
+    int[] ys = [0, 0, 0, 0, 1, 2, 3, 4]
+    when:
+    LineSegment[] result = new ArrayCollinearPoints(xs, ys).segments()
+    then:
+    result == [new LineSegment(new Point(Integer.MIN_VALUE, 0), new Point(Integer.MAX_VALUE, 0)),
+               new LineSegment(new Point(0, 0), new Point(4, 4))]
+  }
+
+  def "should throw IllegalArgumentException when lengths of coordinate arrays differ"() {
+    given:
+    int[] xs = [1, 2]
+    int[] ys = [1]
+    when:
+    new ArrayCollinearPoints(xs, ys)
+    then:
+    thrown(IllegalArgumentException)
+  }
+
+  def "should throw IllegalArgumentException when two points are equal"() {
+    given:
+    int[] xs = [1, 0, 1]
+    int[] ys = [1, 0, 1]
+    when:
+    new ArrayCollinearPoints(xs, ys)
+    then:
+    thrown(IllegalArgumentException)
+  }
+
+  def "should throw NullPointerException when coordinates are null"() {
+    when:
+    new ArrayCollinearPoints(null, new int[0])
+    then:
+    thrown(NullPointerException)
+  }
+}
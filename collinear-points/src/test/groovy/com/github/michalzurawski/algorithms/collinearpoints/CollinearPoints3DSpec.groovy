@@ -0,0 +1,84 @@
+package com.github.michalzurawski.algorithms.collinearpoints
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+@Unroll
+class CollinearPoints3DSpec extends Specification {
+  private static List<List<Integer>> segments(CollinearPoints3D collinear) {
+    return (0..<collinear.numberOfSegments()).collect { [collinear.from(it), collinear.to(it)] }
+  }
+
+  def "should find maximal segment of collinear points in space"() {
+    given:
+    int[] xs = [3, 0, 9, 6, 12, 1]
+    int[] ys = [2, 1, 4, 3, 5, 7]
+    int[] zs = [-1, 0, -3, -2, -4, 2]
+    when:
+    CollinearPoints3D collinear = new CollinearPoints3D(xs, ys, zs)
+    then:
+    segments(collinear) == [[4, 1]]
+  }
+
+  def "should return 0 when at most 3 points are collinear"() {
+    given:
+    int[] xs = [0, 1, 2, 0]
+    int[] ys = [0, 1, 2, 1]
+    int[] zs = [0, 1, 2, 0]
+    expect:
+    new CollinearPoints3D(xs, ys, zs).numberOfSegments() == 0
+  }
+
+  def "should find the same segments as FastCollinearPoints for points on a plane in file #fileName"() {
+    given:
+    PointFile file = PointFile.readText(java.nio.file.Paths.get("src/test/resources/" + fileName))
+    Point[] points = file.points()
+    when:
+    CollinearPoints3D collinear = new CollinearPoints3D(file.xs(), file.ys(), new int[file.size()])
+    then:
+    segments(collinear).collect { new LineSegment(points[it[0]], points[it[1]]).toString() } as Set ==
+        new FastCollinearPoints(points).segments().collect { it.toString() } as Set
+
+    where:
+    fileName << ["input8.txt", "input200.txt", "grid6x6.txt", "kw1260.txt"]
+  }
+
+  def "should find all 76 lines of 4 points in a 4x4x4 grid"() {
+    given:
+    List<List<Integer>> grid = [(0..3), (0..3), (0..3)].combinations()
+    when:
+    CollinearPoints3D collinear = new CollinearPoints3D(grid.collect { it[0] } as int[], grid.collect { it[1] } as int[],
+        grid.collect { it[2] } as int[])
+    then:
+    collinear.numberOfSegments() == 76
+  }
+
+  def "should throw IllegalArgumentException when #description"() {
+    when:
+    new CollinearPoints3D(xs as int[], ys as int[], zs as int[])
+    then:
+    thrown(IllegalArgumentException)
+
+    where:
+    description                   | xs                          | ys     | zs
+    "arrays differ in length"     | [1, 2]                      | [1, 2] | [1]
+    "two points are equal"        | [1, 0, 1]                   | [1, 0, 1] | [1, 0, 1]
+    "coordinates span too much"   | [-1, Integer.MAX_VALUE]     | [0, 0] | [0, 0]
+  }
+
+  def "should throw NullPointerException when creating with null array"() {
+    when:
+    new CollinearPoints3D(new int[1], null, new int[1])
+    then:
+    thrown(NullPointerException)
+  }
+
+  def "should throw IllegalArgumentException when segment does not exist"() {
+    given:
+    CollinearPoints3D collinear = new CollinearPoints3D(new int[0], new int[0], new int[0])
+    when:
+    collinear.from(0)
+    then:
+    thrown(IllegalArgumentException)
+  }
+}
@@ -0,0 +1,68 @@
+package com.github.michalzurawski.algorithms.collinearpoints
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+@Unroll
+class CoplanarPoints3DSpec extends Specification {
+  private static List<List<Integer>> planes(CoplanarPoints3D coplanar) {
+    return (0..<coplanar.numberOfPlanes()).collect { coplanar.plane(it) as List }
+  }
+
+  def "should find maximal sets of coplanar points"() {
+    given:
+    int[] xs = [0, 1, 0, 1, 5, 2]
+    int[] ys = [0, 0, 1, 1, 5, 2]
+    int[] zs = [0, 0, 0, 0, 1, 0]
+    when:
+    CoplanarPoints3D coplanar = new CoplanarPoints3D(xs, ys, zs)
+    then:
+    planes(coplanar) as Set == [[0, 1, 2, 3, 5], [0, 3, 5, 4]] as Set
+  }
+
+  def "should return 0 when all points are collinear"() {
+    given:
+    int[] xs = [0, 1, 2, 3, 4]
+    int[] ys = [0, 0, 0, 0, 0]
+    int[] zs = [0, 0, 0, 0, 0]
+    expect:
+    new CoplanarPoints3D(xs, ys, zs).numberOfPlanes() == 0
+  }
+
+  def "should return 0 when points are in general position"() {
+    given:
+    int[] xs = [0, 1, 0, 0, 2]
+    int[] ys = [0, 0, 1, 0, 3]
+    int[] zs = [0, 0, 0, 1, 5]
+    expect:
+    new CoplanarPoints3D(xs, ys, zs).numberOfPlanes() == 0
+  }
+
+  def "should find every plane once in a 3x3x3 grid"() {
+    given:
+    List<List<Integer>> grid = [(0..2), (0..2), (0..2)].combinations()
+    when:
+    List<List<Integer>> result = planes(new CoplanarPoints3D(grid.collect { it[0] } as int[],
+        grid.collect { it[1] } as int[], grid.collect { it[2] } as int[]))
+    then:
+    result.size() == (result as Set).size()
+    result.every { it.size() >= 4 }
+    result.any { it.size() == 9 }
+  }
+
+  def "should throw IllegalArgumentException when two points are equal"() {
+    when:
+    new CoplanarPoints3D([1, 0, 1] as int[], [1, 0, 1] as int[], [1, 0, 1] as int[])
+    then:
+    thrown(IllegalArgumentException)
+  }
+
+  def "should throw IllegalArgumentException when plane does not exist"() {
+    given:
+    CoplanarPoints3D coplanar = new CoplanarPoints3D(new int[0], new int[0], new int[0])
+    when:
+    coplanar.plane(0)
+    then:
+    thrown(IllegalArgumentException)
+  }
+}
@@ -0,0 +1,40 @@
+package com.github.michalzurawski.algorithms.collinearpoints
+
+import spock.lang.Specification
+
+class DirectionHashMapSpec extends Specification {
+  def "should tell vectors apart by every component"() {
+    given:
+    DirectionHashMap map = new DirectionHashMap(4)
+    when:
+    int first = map.putIfAbsent(1, 2, 3, 0)
+    int second = map.putIfAbsent(1, 2, 4, 1)
+    int third = map.putIfAbsent(1, 2, 3, 2)
+    then:
+    first == 0
+    second == 1
+    third == 0
+    map.size() == 2
+  }
+
+  def "should remove all entries when cleared"() {
+    given:
+    DirectionHashMap map = new DirectionHashMap(1)
+    map.putIfAbsent(Long.MIN_VALUE, 0, Long.MAX_VALUE, 5)
+    when:
+    map.clear()
+    then:
+    map.size() == 0
+    map.putIfAbsent(Long.MIN_VALUE, 0, Long.MAX_VALUE, 6) == 6
+  }
+
+  def "should throw IllegalStateException when full"() {
+    given:
+    DirectionHashMap map = new DirectionHashMap(1)
+    map.putIfAbsent(1, 1, 1, 1)
+    when:
+    map.putIfAbsent(2, 2, 2, 2)
+    then:
+    thrown(IllegalStateException)
+  }
+}
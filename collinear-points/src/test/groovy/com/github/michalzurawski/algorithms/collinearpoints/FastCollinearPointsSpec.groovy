@@ -121,6 +121,75 @@ class FastCollinearPointsSpec extends Specification {
     "random38.txt"      || []
     "random91.txt"      || []
   }
+
+  def "should return the same line segments in parallel mode for file #fileName"() {
+    given:
+    Point[] points = createPoints(fileName)
+    when:
+    LineSegment[] result = new FastCollinearPoints(points, true).segments()
+    then:
+    result == new FastCollinearPoints(points).segments()
+
+    where:
+    fileName << ["input8.txt", "input200.txt", "input6000.txt", "grid6x6.txt", "kw1260.txt", "rs1423.txt"]
+  }
+
+  def "should send the same line segments to the consumer for file #fileName"() {
+    given:
+    Point[] points = createPoints(fileName)
+    List<LineSegment> result = []
+    when:
+    FastCollinearPoints.forEachSegment(points, { int fromX, int fromY, int toX, int toY ->
+      result << new LineSegment(new Point(fromX, fromY), new Point(toX, toY))
+    } as SegmentConsumer)
+    then:
+    result == new FastCollinearPoints(points).segments() as List
+
+    where:
+    fileName << ["input8.txt", "input200.txt", "grid6x6.txt", "kw1260.txt"]
+  }
+
+  def "should iterate lazily over the same line segments for file #fileName"() {
+    given:
+    Point[] points = createPoints(fileName)
+    when:
+    Iterable<LineSegment> result = FastCollinearPoints.lazySegments(points)
+    then:
+    result.collect() == new FastCollinearPoints(points).segments() as List
+    result.collect() == new FastCollinearPoints(points).segments() as List
+
+    where:
+    fileName << ["input1.txt", "input8.txt", "grid6x6.txt", "rs1423.txt"]
+  }
+
+  def "should throw NoSuchElementException when lazy iterator is used up"() {
+    given:
+    Point[] points = [new Point(1, 1)]
+    Iterator<LineSegment> iterator = FastCollinearPoints.lazySegments(points).iterator()
+    when:
+    iterator.next()
+    then:
+    thrown(NoSuchElementException)
+  }
+
+  def "should throw IllegalArgumentException when two points are equal in lazy mode"() {
+    given:
+    Point[] points = [new Point(1, 1), new Point(0, 0), new Point(1, 1)]
+    when:
+    FastCollinearPoints.lazySegments(points)
+    then:
+    thrown(IllegalArgumentException)
+  }
+
+  def "should throw IllegalArgumentException when two points are equal in parallel mode"() {
+    given:
+    Point[] points = [new Point(1, 1), new Point(0, 0), new Point(1, 1)]
+    when:
+    new FastCollinearPoints(points, true)
+    then:
+    thrown(IllegalArgumentException)
+  }
+
   def "should throw NullPointerException when creating with null array"() {
     when:
     new FastCollinearPoints(null)
@@ -0,0 +1,95 @@
+package com.github.michalzurawski.algorithms.collinearpoints
+
+import edu.princeton.cs.algs4.In
+import spock.lang.Specification
+import spock.lang.Unroll
+
+@Unroll
+class HashCollinearPointsSpec extends Specification {
+  def "should return 0 when no collinear points are given"() {
+    given:
+    Point[] points = [new Point(1, 1)]
+    HashCollinearPoints hashCollinearPoints = new HashCollinearPoints(points)
+    when:
+    int result = hashCollinearPoints.numberOfSegments()
+    then:
+    result == 0
+  }
+
+  def "should return the same line segments as FastCollinearPoints for file #fileName"() {
+    given:
+    Point[] points = createPoints(fileName)
+    when:
+    LineSegment[] result = new HashCollinearPoints(points).segments()
+    then:
+    result == new FastCollinearPoints(points).segments()
+
+    where:
+    fileName << ["equidistant.txt", "grid6x6.txt", "horizontal25.txt", "input8.txt", "input48.txt", "input200.txt",
+                 "input6000.txt", "kw1260.txt", "rs1423.txt", "vertical25.txt"]
+  }
+
+  def "should find line segments when coordinates are far apart"() {
+    given:
+    Point[] points = [new Point(-1000000000, -3), new Point(0, 0), new Point(1000000000, 3),
+                      new Point(2000000000, 6), new Point(1, 1)]
+    when:
+    LineSegment[] result = new HashCollinearPoints(points).segments()
+    then:
+    result == [new LineSegment(new Point(-1000000000, -3), new Point(2000000000, 6))]
+  }
+
+  def "should compute directions equal for vectors on the same line"() {
+    expect:
+    HashCollinearPoints.direction(dx0, dy0) == HashCollinearPoints.direction(dx1, dy1)
+
+    where:
+    dx0 | dy0 | dx1 | dy1
+    2   | 4   | -3  | -6
+    0   | 5   | 0   | -1
+    -7  | 0   | 3   | 0
+    6   | -4  | -9  | 6
+  }
+
+  def "should compute directions different for vectors on different lines"() {
+    expect:
+    HashCollinearPoints.direction(dx0, dy0) != HashCollinearPoints.direction(dx1, dy1)
+
+    where:
+    dx0                   | dy0                   | dx1                   | dy1
+    1                     | 2                     | 2                     | 1
+    1                     | 1                     | 1                     | -1
+    Integer.MAX_VALUE     | 1                     | Integer.MAX_VALUE     | -1
+    Integer.MAX_VALUE     | Integer.MAX_VALUE - 1 | Integer.MAX_VALUE - 1 | Integer.MAX_VALUE - 2
+  }
+
+  def "should throw NullPointerException when one of the points is null"() {
+    given:
+    Point[] points = [new Point(1, 1), null]
+    when:
+    new HashCollinearPoints(points)
+    then:
+    thrown(NullPointerException)
+  }
+
+  def "should throw IllegalArgumentException when two points are equal"() {
+    given:
+    Point[] points = [new Point(1, 1), new Point(0, 0), new Point(1, 1)]
+    when:
+    new HashCollinearPoints(points)
+    then:
+    thrown(IllegalArgumentException)
+  }
+
+  private static Point[] createPoints(String fileName) {
+    In input = new In("src/test/resources/" + fileName)
+    int n = input.readInt()
+    Point[] points = new Point[n]
+    for (int i = 0; i < n; ++i) {
+      int x = input.readInt()
+      int y = input.readInt()
+      points[i] = new Point(x, y)
+    }
+    return points
+  }
+}
@@ -0,0 +1,80 @@
+package com.github.michalzurawski.algorithms.collinearpoints
+
+import spock.lang.Specification
+
+class HoughLineDetectorSpec extends Specification {
+  def "should detect exact lines"() {
+    given:
+    Point[] points = ((0..<100).collect { new Point(it, it) } + (0..<100).collect { new Point(50, 200 + it) }) as Point[]
+    HoughLineDetector detector = new HoughLineDetector(1024, 1, 0.5, 30, 10)
+    when:
+    LineSegment[] result = detector.detect(points)
+    then:
+    result.collect { it.toString() } as Set == ["(0, 0) -> (99, 99)", "(50, 200) -> (50, 299)"] as Set
+  }
+
+  def "should detect nearly collinear points among noise"() {
+    given:
+    Random random = new Random(1)
+    List<Point> points = (0..<100).collect { new Point(it, it) }
+    points += (0..<100).collect { new Point(50, 200 + it) }
+    points += (0..<100).collect { new Point(400 + it, 100 + it % 3 - 1) }
+    points += (0..<100).collect { new Point(random.nextInt(500), random.nextInt(500)) }
+    HoughLineDetector detector = new HoughLineDetector(1024, 2, 1.5, 50, 10)
+    when:
+    LineSegment[] result = detector.detect(points as Point[])
+    then:
+    result.length == 3
+    result.collect { it.toString() }.containsAll(["(50, 200) -> (50, 299)", "(400, 99) -> (499, 99)"])
+  }
+
+  def "should detect noisy line as one segment when its band holds much noise"() {
+    given:
+    Random random = new Random(211)
+    double slope = random.nextDouble() * 2 - 1
+    List<Point> points = (0..<200).collect {
+      double x = random.nextDouble() * 1000
+      new Point((int) Math.round(x), (int) Math.round(500 + slope * (x - 500) * 0.4 + random.nextGaussian() * 1.47))
+    }
+    points += (0..<861).collect { new Point(random.nextInt(1000), random.nextInt(1000)) }
+    HoughLineDetector detector = new HoughLineDetector(256, 12, 1.5, 100, 60)
+    when:
+    LineSegment[] result = detector.detect(points as Point[])
+    then:
+    result.length == 1
+    Math.min(result[0].p().x(), result[0].q().x()) < 25
+    Math.max(result[0].p().x(), result[0].q().x()) > 975
+  }
+
+  def "should detect lines given by coordinate arrays"() {
+    given:
+    int[] xs = (0..<50).collect { 3 * it }
+    int[] ys = (0..<50).collect { 7 }
+    when:
+    LineSegment[] result = new HoughLineDetector(180, 1, 0.5, 10).detect(xs, ys)
+    then:
+    result == [new LineSegment(new Point(0, 7), new Point(147, 7))] as LineSegment[]
+  }
+
+  def "should detect nothing when lines have too few points"() {
+    given:
+    Point[] points = [new Point(0, 0), new Point(1, 1), new Point(2, 2), new Point(5, 0)]
+    expect:
+    new HoughLineDetector(180, 1, 0.5, 5).detect(points).length == 0
+    new HoughLineDetector(180, 1, 0.5, 5).detect(new Point[0]).length == 0
+  }
+
+  def "should throw IllegalArgumentException when parameters are invalid"() {
+    when:
+    new HoughLineDetector(angles, rhoStep, tolerance, minSupport)
+    then:
+    thrown(IllegalArgumentException)
+
+    where:
+    angles | rhoStep | tolerance | minSupport
+    0      | 1       | 1         | 2
+    10     | 0       | 1         | 2
+    10     | 1       | -1        | 2
+    10     | 1       | 1         | 1
+  }
+}
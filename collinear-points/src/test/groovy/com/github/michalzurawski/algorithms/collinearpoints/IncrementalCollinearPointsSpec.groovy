@@ -0,0 +1,97 @@
+package com.github.michalzurawski.algorithms.collinearpoints
+
+import edu.princeton.cs.algs4.In
+import spock.lang.Specification
+import spock.lang.Unroll
+
+@Unroll
+class IncrementalCollinearPointsSpec extends Specification {
+  def "should report segment when the fourth point is inserted"() {
+    given:
+    IncrementalCollinearPoints incremental = new IncrementalCollinearPoints()
+    when:
+    LineSegment[] first = incremental.insert(new Point(0, 0))
+    LineSegment[] second = incremental.insert(new Point(2, 2))
+    LineSegment[] third = incremental.insert(new Point(3, 3))
+    LineSegment[] fourth = incremental.insert(new Point(1, 1))
+    then:
+    first.length == 0
+    second.length == 0
+    third.length == 0
+    fourth == [new LineSegment(new Point(0, 0), new Point(3, 3))]
+    incremental.numberOfSegments() == 1
+  }
+
+  def "should report extended segment only when the point lies outside of it"() {
+    given:
+    IncrementalCollinearPoints incremental = new IncrementalCollinearPoints()
+    [new Point(0, 0), new Point(2, 0), new Point(4, 0), new Point(6, 0)].each { incremental.insert(it) }
+    when:
+    LineSegment[] inside = incremental.insert(new Point(3, 0))
+    LineSegment[] outside = incremental.insert(new Point(-1, 0))
+    then:
+    inside.length == 0
+    outside == [new LineSegment(new Point(-1, 0), new Point(6, 0))]
+    incremental.segments() == [new LineSegment(new Point(-1, 0), new Point(6, 0))]
+  }
+
+  def "should find the same line segments as FastCollinearPoints for file #fileName"() {
+    given:
+    Point[] points = createPoints(fileName)
+    IncrementalCollinearPoints incremental = new IncrementalCollinearPoints()
+    when:
+    points.each { incremental.insert(it) }
+    then:
+    incremental.size() == points.length
+    names(incremental.segments()) == names(new FastCollinearPoints(points).segments())
+
+    where:
+    fileName << ["input8.txt", "input200.txt", "grid6x6.txt", "horizontal25.txt", "kw1260.txt", "rs1423.txt"]
+  }
+
+  def "should throw NullPointerException when point is null"() {
+    given:
+    IncrementalCollinearPoints incremental = new IncrementalCollinearPoints()
+    when:
+    incremental.insert(null)
+    then:
+    thrown(NullPointerException)
+  }
+
+  def "should throw IllegalArgumentException when point is already inserted"() {
+    given:
+    IncrementalCollinearPoints incremental = new IncrementalCollinearPoints()
+    incremental.insert(new Point(1, 1))
+    when:
+    incremental.insert(new Point(1, 1))
+    then:
+    thrown(IllegalArgumentException)
+    incremental.size() == 1
+  }
+
+  def "should throw IllegalArgumentException when coordinates span too much"() {
+    given:
+    IncrementalCollinearPoints incremental = new IncrementalCollinearPoints()
+    incremental.insert(new Point(-1, 0))
+    when:
+    incremental.insert(new Point(Integer.MAX_VALUE, 0))
+    then:
+    thrown(IllegalArgumentException)
+  }
+
+  private static Set<String> names(LineSegment[] segments) {
+    return segments.collect { it.toString() } as Set
+  }
+
+  private static Point[] createPoints(String fileName) {
+    In input = new In("src/test/resources/" + fileName)
+    int n = input.readInt()
+    Point[] points = new Point[n]
+    for (int i = 0; i < n; ++i) {
+      int x = input.readInt()
+      int y = input.readInt()
+      points[i] = new Point(x, y)
+    }
+    return points
+  }
+}
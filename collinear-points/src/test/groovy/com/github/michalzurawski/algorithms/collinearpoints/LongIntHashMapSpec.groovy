@@ -0,0 +1,74 @@
+package com.github.michalzurawski.algorithms.collinearpoints
+
+import spock.lang.Specification
+
+class LongIntHashMapSpec extends Specification {
+  def "should keep the first value inserted for a key"() {
+    given:
+    LongIntHashMap map = new LongIntHashMap(4)
+    when:
+    int first = map.putIfAbsent(Long.MIN_VALUE, 1)
+    int second = map.putIfAbsent(Long.MIN_VALUE, 2)
+    then:
+    first == 1
+    second == 1
+    map.size() == 1
+    map.get(Long.MIN_VALUE, -1) == 1
+  }
+
+  def "should return default value for absent key"() {
+    given:
+    LongIntHashMap map = new LongIntHashMap(4)
+    map.putIfAbsent(7L, 3)
+    expect:
+    map.get(8L, -1) == -1
+  }
+
+  def "should remove all entries when cleared"() {
+    given:
+    LongIntHashMap map = new LongIntHashMap(2)
+    map.putIfAbsent(1L, 1)
+    map.putIfAbsent(2L, 2)
+    when:
+    map.clear()
+    then:
+    map.size() == 0
+    map.get(1L, -1) == -1
+    map.putIfAbsent(3L, 3) == 3
+  }
+
+  def "should hold many colliding keys"() {
+    given:
+    LongIntHashMap map = new LongIntHashMap(1000)
+    when:
+    for (int i = 0; i < 1000; ++i) {
+      map.putIfAbsent((long) i << 40, i)
+    }
+    then:
+    map.size() == 1000
+    (0..<1000).every { map.get((long) it << 40, -1) == it }
+  }
+
+  def "should throw IllegalStateException when full"() {
+    given:
+    LongIntHashMap map = new LongIntHashMap(1)
+    map.putIfAbsent(1L, 1)
+    when:
+    map.putIfAbsent(2L, 2)
+    then:
+    thrown(IllegalStateException)
+  }
+
+  def "should keep entries when capacity is raised"() {
+    given:
+    LongIntHashMap map = new LongIntHashMap(1)
+    when:
+    for (int i = 0; i < 100; ++i) {
+      map.ensureCapacity(i + 1)
+      map.putIfAbsent((long) i << 40, i)
+    }
+    then:
+    map.size() == 100
+    (0..<100).every { map.get((long) it << 40, -1) == it }
+  }
+}
@@ -0,0 +1,107 @@
+package com.github.michalzurawski.algorithms.collinearpoints
+
+import edu.princeton.cs.algs4.In
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.nio.IntBuffer
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.Paths
+
+@Unroll
+class PointFileSpec extends Specification {
+  def "should read the same points as In for file #fileName"() {
+    given:
+    Path path = Paths.get("src/test/resources/" + fileName)
+    In input = new In(path.toString())
+    int n = input.readInt()
+    Point[] expected = (0..<n).collect { new Point(input.readInt(), input.readInt()) } as Point[]
+    when:
+    PointFile result = PointFile.readText(path)
+    then:
+    result.size() == n
+    result.points() == expected
+
+    where:
+    fileName << ["input1.txt", "input8.txt", "grid6x6.txt", "input10000.txt", "rs1423.txt"]
+  }
+
+  def "should parse signs and any whitespace"() {
+    given:
+    Path path = Files.createTempFile("points", ".txt")
+    path.text = "2\n-2147483648\t2147483647\r\n +5   -0\n"
+    when:
+    PointFile result = PointFile.readText(path)
+    then:
+    result.xs() == [Integer.MIN_VALUE, 5] as int[]
+    result.ys() == [Integer.MAX_VALUE, 0] as int[]
+    cleanup:
+    Files.delete(path)
+  }
+
+  def "should throw IllegalArgumentException when text file is #description"() {
+    given:
+    Path path = Files.createTempFile("points", ".txt")
+    path.text = text
+    when:
+    PointFile.readText(path)
+    then:
+    thrown(IllegalArgumentException)
+    cleanup:
+    Files.delete(path)
+
+    where:
+    description            | text
+    "empty"                | ""
+    "missing coordinates"  | "2 1 2 3"
+    "too long"             | "2 1 2 3 4 5"
+    "not a number"         | "1 1 x"
+    "a lone sign"          | "1 - 2"
+    "out of range"         | "1 3000000000 1"
+    "of negative size"     | "-1"
+  }
+
+  def "should read written binary file"() {
+    given:
+    Path path = Files.createTempFile("points", ".bin")
+    int[] xs = (0..<10000).collect { it * 3 - 5000 }
+    int[] ys = (0..<10000).collect { Integer.MAX_VALUE - it }
+    when:
+    PointFile.writeBinary(path, xs, ys)
+    PointFile result = PointFile.readBinary(path)
+    then:
+    Files.size(path) == 8 + 8 * 10000
+    result.xs() == xs
+    result.ys() == ys
+    cleanup:
+    Files.delete(path)
+  }
+
+  def "should map coordinates of binary file"() {
+    given:
+    Path path = Files.createTempFile("points", ".bin")
+    int[] xs = [1, 2, 3]
+    int[] ys = [-4, -5, -6]
+    PointFile.writeBinary(path, xs, ys)
+    when:
+    IntBuffer result = PointFile.mapBinary(path)
+    then:
+    result.remaining() == 6
+    (0..<6).collect { result.get(it) } == [1, -4, 2, -5, 3, -6]
+    cleanup:
+    Files.delete(path)
+  }
+
+  def "should throw IllegalArgumentException when binary file is malformed"() {
+    given:
+    Path path = Files.createTempFile("points", ".bin")
+    path.bytes = [0x50, 0x54, 0x53, 0x31, 2, 0, 0, 0, 1, 0, 0, 0] as byte[]
+    when:
+    PointFile.readBinary(path)
+    then:
+    thrown(IllegalArgumentException)
+    cleanup:
+    Files.delete(path)
+  }
+}
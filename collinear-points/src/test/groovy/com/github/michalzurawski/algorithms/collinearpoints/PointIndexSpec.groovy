@@ -0,0 +1,70 @@
+package com.github.michalzurawski.algorithms.collinearpoints
+
+import spock.lang.Specification
+
+class PointIndexSpec extends Specification {
+  def "should return points inside the rectangle with boundary"() {
+    given:
+    Point[] points = [new Point(0, 0), new Point(5, 5), new Point(2, 3), new Point(3, 2), new Point(-1, 4),
+                      new Point(4, -1), new Point(2, 2)]
+    PointIndex index = new PointIndex(points)
+    when:
+    Point[] result = index.range(0, 0, 3, 3)
+    then:
+    result as Set == [new Point(0, 0), new Point(2, 3), new Point(3, 2), new Point(2, 2)] as Set
+  }
+
+  def "should find points with many equal coordinates"() {
+    given:
+    Point[] points = (0..<100).collect { new Point(it % 3, it) } as Point[]
+    PointIndex index = new PointIndex(points)
+    when:
+    Point[] result = index.range(1, 10, 1, 20)
+    then:
+    result as Set == [new Point(1, 10), new Point(1, 13), new Point(1, 16), new Point(1, 19)] as Set
+  }
+
+  def "should return the same points as linear scan for random points"() {
+    given:
+    Random random = new Random(7)
+    Point[] points = (0..<500).collect { new Point(random.nextInt(100), random.nextInt(100)) } as Point[]
+    PointIndex index = new PointIndex(points)
+    expect:
+    (0..<50).every {
+      int minX = random.nextInt(100)
+      int minY = random.nextInt(100)
+      int maxX = minX + random.nextInt(30)
+      int maxY = minY + random.nextInt(30)
+      index.range(minX, minY, maxX, maxY).toList().sort() ==
+          points.findAll { it.x() >= minX && it.x() <= maxX && it.y() >= minY && it.y() <= maxY }.sort()
+    }
+  }
+
+  def "should check whether point is indexed"() {
+    given:
+    Point[] points = [new Point(1, 1), new Point(2, 7)]
+    PointIndex index = new PointIndex(points)
+    expect:
+    index.contains(new Point(2, 7))
+    !index.contains(new Point(7, 2))
+    index.size() == 2
+  }
+
+  def "should throw IllegalArgumentException when rectangle is empty"() {
+    given:
+    PointIndex index = new PointIndex(new Point[0])
+    when:
+    index.range(1, 0, 0, 0)
+    then:
+    thrown(IllegalArgumentException)
+  }
+
+  def "should throw NullPointerException when one of the points is null"() {
+    given:
+    Point[] points = [new Point(1, 1), null]
+    when:
+    new PointIndex(points)
+    then:
+    thrown(NullPointerException)
+  }
+}
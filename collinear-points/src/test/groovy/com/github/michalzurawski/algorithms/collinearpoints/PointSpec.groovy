@@ -79,4 +79,10 @@ class PointSpec extends Specification {
     new Point(0, 1)  | new Point(1, 0)   | -1.0
     new Point(3, -5) | new Point(-8, 13) | (13 - -5) / (-8 - 3)
   }
+
+  def "should compare points with extreme coordinates"() {
+    expect:
+    new Point(0, Integer.MIN_VALUE) < new Point(0, Integer.MAX_VALUE)
+    new Point(Integer.MAX_VALUE, 0) > new Point(Integer.MIN_VALUE, 0)
+  }
 }
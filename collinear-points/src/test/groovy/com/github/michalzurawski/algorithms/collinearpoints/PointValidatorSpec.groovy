@@ -0,0 +1,74 @@
+package com.github.michalzurawski.algorithms.collinearpoints
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+@Unroll
+class PointValidatorSpec extends Specification {
+  def "should sort points like their natural order"() {
+    given:
+    Random random = new Random(seed)
+    Point[] points = (0..<1000).collect { new Point(random.nextInt(bound) - bound.intdiv(2), random.nextInt()) }
+        .unique { [it.x(), it.y()] } as Point[]
+    Point[] expected = points.clone() as Point[]
+    Arrays.sort(expected)
+    when:
+    Point[] result = PointValidator.sortedCopy(points)
+    then:
+    result == expected
+
+    where:
+    seed | bound
+    1    | 10
+    2    | 1 << 20
+    3    | Integer.MAX_VALUE
+  }
+
+  def "should sort keys of coordinates"() {
+    given:
+    int[] xs = [5, Integer.MIN_VALUE, -1, Integer.MAX_VALUE, 0]
+    int[] ys = [0, 0, -7, Integer.MIN_VALUE, Integer.MAX_VALUE]
+    when:
+    long[] result = PointValidator.sortedKeys(xs, ys)
+    then:
+    result.collect { [PointValidator.x(it), PointValidator.y(it)] } ==
+        [[Integer.MAX_VALUE, Integer.MIN_VALUE], [-1, -7], [Integer.MIN_VALUE, 0], [5, 0], [0, Integer.MAX_VALUE]]
+  }
+
+  def "should return empty copy of empty points"() {
+    expect:
+    PointValidator.sortedCopy(new Point[0]).length == 0
+  }
+
+  def "should throw NullPointerException when one of the points is null"() {
+    given:
+    Point[] points = [new Point(1, 1), null, new Point(1, 1)]
+    when:
+    PointValidator.sortedCopy(points)
+    then:
+    thrown(NullPointerException)
+  }
+
+  def "should throw IllegalArgumentException when two points are equal"() {
+    given:
+    Point[] points = [new Point(1, 1), new Point(0, 0), new Point(1, 1)]
+    when:
+    PointValidator.sortedCopy(points)
+    then:
+    thrown(IllegalArgumentException)
+  }
+
+  def "should throw IllegalArgumentException when two coordinate pairs are equal"() {
+    when:
+    PointValidator.sortedKeys([3, 4, 3] as int[], [-2, 0, -2] as int[])
+    then:
+    thrown(IllegalArgumentException)
+  }
+
+  def "should throw IllegalArgumentException when coordinate arrays differ in length"() {
+    when:
+    PointValidator.sortedKeys(new int[2], new int[1])
+    then:
+    thrown(IllegalArgumentException)
+  }
+}
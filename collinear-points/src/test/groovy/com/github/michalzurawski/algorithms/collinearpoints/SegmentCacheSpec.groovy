@@ -0,0 +1,104 @@
+package com.github.michalzurawski.algorithms.collinearpoints
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.Paths
+import java.nio.file.attribute.FileTime
+
+@Unroll
+class SegmentCacheSpec extends Specification {
+  private static Path directory() {
+    Path directory = Files.createTempDirectory("cache")
+    directory.toFile().deleteOnExit()
+    return directory
+  }
+
+  private static Point[] createPoints(String fileName) {
+    return PointFile.readText(Paths.get("src/test/resources/" + fileName)).points()
+  }
+
+  private static List<Path> entries(Path directory) {
+    return directory.toFile().listFiles().collect { it.toPath() }
+  }
+
+  def "should return the same line segments as FastCollinearPoints on miss and hit for file #fileName"() {
+    given:
+    Point[] points = createPoints(fileName)
+    SegmentCache cache = new SegmentCache(directory(), 1L << 20)
+    when:
+    LineSegment[] miss = cache.segments(points)
+    LineSegment[] hit = cache.segments(points.reverse() as Point[])
+    then:
+    miss == new FastCollinearPoints(points).segments()
+    hit == miss
+
+    where:
+    fileName << ["input1.txt", "input8.txt", "input200.txt", "grid6x6.txt", "kw1260.txt"]
+  }
+
+  def "should fingerprint the same points equally"() {
+    given:
+    Point[] points = PointValidator.sortedCopy(createPoints("input200.txt"))
+    Point[] other = PointValidator.sortedCopy(createPoints("input250.txt"))
+    expect:
+    SegmentCache.fingerprint(points) == SegmentCache.fingerprint(points.clone() as Point[])
+    SegmentCache.fingerprint(points) != SegmentCache.fingerprint(other)
+    SegmentCache.fingerprint(points) != SegmentCache.fingerprint(Arrays.copyOf(points, points.length - 1))
+  }
+
+  def "should compute again when entry is corrupted"() {
+    given:
+    Path directory = directory()
+    Point[] points = createPoints("input8.txt")
+    SegmentCache cache = new SegmentCache(directory, 1L << 20)
+    cache.segments(points)
+    entries(directory).each { it.bytes = [1, 2, 3] as byte[] }
+    when:
+    LineSegment[] result = cache.segments(points)
+    then:
+    result == new FastCollinearPoints(points).segments()
+    entries(directory).every { Files.size(it) > 3 }
+  }
+
+  def "should evict least recently used entries when size limit is exceeded"() {
+    given:
+    Path directory = directory()
+    SegmentCache cache = new SegmentCache(directory, 150)
+    cache.segments(createPoints("input8.txt"))
+    cache.segments(createPoints("input10.txt"))
+    entries(directory).each { Files.setLastModifiedTime(it, FileTime.fromMillis(0)) }
+    cache.segments(createPoints("input8.txt"))
+    long[] fingerprint = SegmentCache.fingerprint(PointValidator.sortedCopy(createPoints("input8.txt")))
+    when:
+    cache.segments(createPoints("input6.txt"))
+    then:
+    entries(directory).size() == 2
+    Files.exists(directory.resolve(String.format("%016x%016x.seg", fingerprint[1], fingerprint[0])))
+  }
+
+  def "should delete temporary file when entry cannot be replaced"() {
+    given:
+    Path directory = directory()
+    Point[] points = createPoints("input8.txt")
+    long[] fingerprint = SegmentCache.fingerprint(PointValidator.sortedCopy(points))
+    Path entry = directory.resolve(String.format("%016x%016x.seg", fingerprint[1], fingerprint[0]))
+    Files.createDirectory(entry)
+    Files.createFile(entry.resolve("blocker"))
+    SegmentCache cache = new SegmentCache(directory, 1L << 20)
+    when:
+    cache.segments(points)
+    then:
+    thrown(IOException)
+    entries(directory) == [entry]
+  }
+
+  def "should throw IllegalArgumentException when size limit is negative"() {
+    when:
+    new SegmentCache(directory(), -1)
+    then:
+    thrown(IllegalArgumentException)
+  }
+}
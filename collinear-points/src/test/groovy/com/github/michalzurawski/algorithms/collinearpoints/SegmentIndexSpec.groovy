@@ -0,0 +1,77 @@
+package com.github.michalzurawski.algorithms.collinearpoints
+
+import spock.lang.Specification
+
+class SegmentIndexSpec extends Specification {
+  LineSegment horizontal = new LineSegment(new Point(0, 0), new Point(10, 0))
+  LineSegment horizontalFar = new LineSegment(new Point(20, 0), new Point(30, 0))
+  LineSegment diagonal = new LineSegment(new Point(0, 0), new Point(10, 10))
+  LineSegment vertical = new LineSegment(new Point(5, -5), new Point(5, 5))
+  SegmentIndex index = new SegmentIndex([horizontal, horizontalFar, diagonal, vertical] as LineSegment[])
+
+  def "should return segments on the line"() {
+    expect:
+    names(index.onLine(new Point(100, 0), new Point(-3, 0))) == names(horizontal, horizontalFar)
+    index.onLine(new Point(-2, -2), new Point(1, 1)) as List == [diagonal]
+    index.onLine(new Point(0, 1), new Point(1, 3)) as List == []
+  }
+
+  def "should return segments through the point"() {
+    expect:
+    names(index.through(point)) == names(expected as LineSegment[])
+
+    where:
+    point             || expected
+    new Point(0, 0)   || [horizontal, diagonal]
+    new Point(5, 0)   || [horizontal, vertical]
+    new Point(5, 5)   || [diagonal, vertical]
+    new Point(15, 0)  || []
+    new Point(100, 0) || []
+  }
+
+  def "should return segments near the point"() {
+    expect:
+    names(index.near(new Point(15, 1), 6)) == names(horizontal, horizontalFar)
+    names(index.near(new Point(6, 4), 2)) == names(diagonal, vertical)
+    index.near(new Point(-100, -100), 1) as List == []
+  }
+
+  def "should find segments among many segments"() {
+    given:
+    List<LineSegment> verticals = (0..40).collect { new LineSegment(new Point(it, 0), new Point(it, 40)) }
+    List<LineSegment> horizontals = (0..40).collect { new LineSegment(new Point(0, it), new Point(40, it)) }
+    SegmentIndex grid = new SegmentIndex((verticals + horizontals) as LineSegment[])
+    expect:
+    grid.size() == 82
+    names(grid.through(new Point(3, 5))) == names(verticals[3], horizontals[5])
+    names(grid.near(new Point(45, 20), 5)) == names(verticals[40], horizontals[20])
+    grid.near(new Point(50, 50), 1).length == 0
+  }
+
+  def "should return no segments from empty index"() {
+    given:
+    SegmentIndex empty = new SegmentIndex(new LineSegment[0])
+    expect:
+    empty.size() == 0
+    empty.through(new Point(0, 0)).length == 0
+    empty.near(new Point(0, 0), 10).length == 0
+  }
+
+  def "should throw IllegalArgumentException when distance is negative"() {
+    when:
+    index.near(new Point(0, 0), -1)
+    then:
+    thrown(IllegalArgumentException)
+  }
+
+  def "should throw IllegalArgumentException when line points are equal"() {
+    when:
+    index.onLine(new Point(1, 1), new Point(1, 1))
+    then:
+    thrown(IllegalArgumentException)
+  }
+
+  private static Set<String> names(LineSegment... segments) {
+    return segments.collect { it.toString() } as Set
+  }
+}
@@ -0,0 +1,84 @@
+package com.github.michalzurawski.algorithms.collinearpoints
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import javax.imageio.ImageIO
+import java.awt.image.BufferedImage
+import java.nio.file.Files
+import java.nio.file.Path
+
+@Unroll
+class SegmentRasterizerSpec extends Specification {
+  private static List<List<Integer>> drawn(SegmentRasterizer rasterizer, int width, int color) {
+    int[] pixels = rasterizer.pixels()
+    return (0..<pixels.length).findAll { pixels[it] == color }.collect { [it % width, it.intdiv(width)] }
+  }
+
+  def "should draw line from (#fromX, #fromY) to (#toX, #toY) with Bresenham pixels"() {
+    given:
+    SegmentRasterizer rasterizer = new SegmentRasterizer(8, 4, 8, 0)
+    when:
+    rasterizer.drawSegments([new LineSegment(new Point(fromX, fromY), new Point(toX, toY))] as LineSegment[], 7)
+    then:
+    drawn(rasterizer, 8, 7) as Set == expected as Set
+
+    where:
+    fromX | fromY | toX | toY || expected
+    0     | 0     | 7   | 0   || (0..<8).collect { [it, 3] }
+    0     | 0     | 0   | 7   || [[0, 0], [0, 1], [0, 2], [0, 3]]
+    0     | 0     | 6   | 6   || [[6, 0], [5, 1], [4, 1], [3, 2], [2, 2], [1, 3], [0, 3]]
+    7     | 2     | 1   | 0   || [[7, 2], [6, 2], [5, 2], [4, 3], [3, 3], [2, 3], [1, 3]]
+    -80   | 0     | 80  | 0   || (0..<8).collect { [it, 3] }
+  }
+
+  def "should draw the same line in every band as in one pass"() {
+    given:
+    SegmentRasterizer rasterizer = new SegmentRasterizer(300, 300, 300, 0)
+    when:
+    rasterizer.drawSegments([new LineSegment(new Point(0, 0), new Point(99, 299))] as LineSegment[], 1)
+    then:
+    drawn(rasterizer, 300, 1) == (0..<300).collect { [99 + Math.floorDiv(-2 * it * 99 + 299, 2 * 299), it] }
+  }
+
+  def "should draw points as discs"() {
+    given:
+    SegmentRasterizer rasterizer = new SegmentRasterizer(10, 10, 10, 0)
+    when:
+    rasterizer.drawPoints([5, 0] as int[], [4, 9] as int[], 1, 3)
+    then:
+    drawn(rasterizer, 10, 3) as Set == [[5, 4], [4, 5], [5, 5], [6, 5], [5, 6], [0, 0], [1, 0], [0, 1]] as Set
+  }
+
+  def "should write PNG file"() {
+    given:
+    Path path = Files.createTempFile("lines", ".png")
+    path.toFile().deleteOnExit()
+    SegmentRasterizer rasterizer = new SegmentRasterizer(16, 8, 16, 0xFFFFFFFF)
+    rasterizer.drawSegments([new LineSegment(new Point(0, 0), new Point(15, 0))] as LineSegment[], 0xFF000000)
+    when:
+    rasterizer.writePng(path)
+    BufferedImage image = ImageIO.read(path.toFile())
+    then:
+    image.width == 16
+    image.height == 8
+    image.getRGB(3, 7) == 0xFF000000
+    image.getRGB(3, 6) == 0xFFFFFFFF
+  }
+
+  def "should throw IllegalArgumentException when image has no pixels"() {
+    when:
+    new SegmentRasterizer(0, 10, 10, 0)
+    then:
+    thrown(IllegalArgumentException)
+  }
+
+  def "should throw IllegalArgumentException when coordinates differ in length"() {
+    given:
+    SegmentRasterizer rasterizer = new SegmentRasterizer(10, 10, 10, 0)
+    when:
+    rasterizer.drawPoints(new int[1], new int[2], 1, 0)
+    then:
+    thrown(IllegalArgumentException)
+  }
+}
@@ -0,0 +1,134 @@
+package com.github.michalzurawski.algorithms.collinearpoints
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.Paths
+
+@Unroll
+class ShardedCollinearPointsSpec extends Specification {
+  private static Path directory() {
+    Path directory = Files.createTempDirectory("sharded")
+    directory.toFile().deleteOnExit()
+    return directory
+  }
+
+  private static Path binaryFile(Path directory, String fileName) {
+    PointFile points = PointFile.readText(Paths.get("src/test/resources/" + fileName))
+    Path path = directory.resolve("points.bin")
+    PointFile.writeBinary(path, points.xs(), points.ys())
+    return path
+  }
+
+  def "should split #n anchors into #shards increasing ranges when hash is #hash"() {
+    when:
+    int[] result = ShardedCollinearPoints.bounds(n, shards, hash)
+    then:
+    result == expected as int[]
+
+    where:
+    n  | shards | hash  || expected
+    10 | 1      | false || [0, 10]
+    10 | 3      | false || [0, 2, 4, 10]
+    2  | 5      | false || [0, 0, 0, 1, 1, 2]
+    0  | 2      | false || [0, 0, 0]
+    10 | 1      | true  || [0, 10]
+    10 | 3      | true  || [0, 3, 6, 10]
+    2  | 5      | true  || [0, 0, 0, 1, 1, 2]
+    0  | 2      | true  || [0, 0, 0]
+  }
+
+  def "should find the same line segments in shards as FastCollinearPoints for file #fileName"() {
+    given:
+    Path directory = directory()
+    Path pointFile = binaryFile(directory, fileName)
+    Point[] points = PointFile.readBinary(pointFile).points()
+    int[] bounds = ShardedCollinearPoints.bounds(points.length, 4, true)
+    when:
+    List<LineSegment> result = []
+    for (int shard = 0; shard < 4; ++shard) {
+      Path shardFile = directory.resolve("shard" + shard)
+      ShardedCollinearPoints.work(pointFile, bounds[shard], bounds[shard + 1], shardFile)
+      result.addAll(ShardedCollinearPoints.readShard(shardFile))
+    }
+    then:
+    result == new FastCollinearPoints(points).segments() as List
+
+    where:
+    fileName << ["input8.txt", "input200.txt", "grid6x6.txt", "kw1260.txt"]
+  }
+
+  def "should find the same line segments in shards as FastCollinearPoints when coordinates span more than 2^31"() {
+    given:
+    Path directory = directory()
+    Path pointFile = directory.resolve("points.bin")
+    int[] xs = [Integer.MIN_VALUE, -1, 0, Integer.MAX_VALUE, 0, 1, 2, 3]
+    int[] ys = [0, 0, 0, 0, 1, 2, 3, 4]
+    PointFile.writeBinary(pointFile, xs, ys)
+    Point[] points = PointFile.readBinary(pointFile).points()
+    int[] bounds = ShardedCollinearPoints.bounds(points.length, 2, false)
+    when:
+    List<LineSegment> result = []
+    for (int shard = 0; shard < 2; ++shard) {
+      Path shardFile = directory.resolve("shard" + shard)
+      ShardedCollinearPoints.work(pointFile, bounds[shard], bounds[shard + 1], shardFile)
+      result.addAll(ShardedCollinearPoints.readShard(shardFile))
+    }
+    then:
+    result == new FastCollinearPoints(points).segments() as List
+    result.size() == 2
+  }
+
+  def "should delete temporary shard file when shard file cannot be replaced"() {
+    given:
+    Path directory = directory()
+    Path pointFile = binaryFile(directory, "input8.txt")
+    Path shardFile = Files.createDirectory(directory.resolve("shard"))
+    Files.createFile(shardFile.resolve("blocker"))
+    when:
+    ShardedCollinearPoints.work(pointFile, 0, 8, shardFile)
+    then:
+    thrown(IOException)
+    !Files.exists(directory.resolve("shard.tmp"))
+  }
+
+  def "should find line segments with worker processes"() {
+    given:
+    Path directory = directory()
+    Path pointFile = binaryFile(directory, "input200.txt")
+    when:
+    LineSegment[] result = ShardedCollinearPoints.find(pointFile, 3, directory)
+    then:
+    result == new FastCollinearPoints(PointFile.readBinary(pointFile).points()).segments()
+  }
+
+  def "should throw IllegalArgumentException when anchor range is invalid"() {
+    given:
+    Path directory = directory()
+    Path pointFile = binaryFile(directory, "input8.txt")
+    when:
+    ShardedCollinearPoints.work(pointFile, 5, 9, directory.resolve("shard"))
+    then:
+    thrown(IllegalArgumentException)
+  }
+
+  def "should throw IllegalArgumentException when shard file is malformed"() {
+    given:
+    Path path = Files.createTempFile("shard", ".seg")
+    path.toFile().deleteOnExit()
+    path.bytes = [0x53, 0x45, 0x47, 0x31, 1, 0, 0, 0] as byte[]
+    when:
+    ShardedCollinearPoints.readShard(path)
+    then:
+    thrown(IllegalArgumentException)
+  }
+
+  def "should throw IllegalArgumentException when number of workers is not positive"() {
+    when:
+    ShardedCollinearPoints.find(Paths.get("points.bin"), 0, Paths.get("."))
+    then:
+    thrown(IllegalArgumentException)
+  }
+}
@@ -0,0 +1,66 @@
+package com.github.michalzurawski.algorithms.collinearpoints
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+@Unroll
+class SlopeComparatorSpec extends Specification {
+  def "should order points by slope to the anchor"() {
+    given:
+    Point anchor = new Point(0, 0)
+    Point[] points = [new Point(0, 5), new Point(3, 3), new Point(-2, 0), new Point(0, 0), new Point(2, -1),
+                      new Point(-1, 2)]
+    when:
+    Arrays.sort(points, new SlopeComparator(anchor))
+    then:
+    points as List == [new Point(0, 0), new Point(-1, 2), new Point(2, -1), new Point(-2, 0), new Point(3, 3),
+                       new Point(0, 5)]
+  }
+
+  def "should slopes to #p0 and #p1 be equal"() {
+    given:
+    SlopeComparator comparator = new SlopeComparator(new Point(1, 1))
+    expect:
+    comparator.compare(p0, p1) == 0
+
+    where:
+    p0                | p1
+    new Point(3, 5)   | new Point(-1, -3)
+    new Point(5, 1)   | new Point(-7, 1)
+    new Point(1, 10)  | new Point(1, -10)
+    new Point(4, -2)  | new Point(-2, 4)
+  }
+
+  def "should compare nearly equal slopes exactly"() {
+    given:
+    Point anchor = new Point(0, 0)
+    SlopeComparator comparator = new SlopeComparator(anchor)
+    Point p0 = new Point(Integer.MAX_VALUE, Integer.MAX_VALUE - 1)
+    Point p1 = new Point(Integer.MAX_VALUE - 1, Integer.MAX_VALUE - 2)
+    expect:
+    anchor.slopeTo(p0) == anchor.slopeTo(p1)
+    comparator.compare(p0, p1) > 0
+  }
+
+  def "should compare slopes for extreme coordinates"() {
+    given:
+    SlopeComparator comparator = new SlopeComparator(new Point(Integer.MIN_VALUE, Integer.MIN_VALUE))
+    Point p0 = new Point(Integer.MAX_VALUE, Integer.MAX_VALUE)
+    Point p1 = new Point(Integer.MAX_VALUE, Integer.MAX_VALUE - 1)
+    Point p2 = new Point(Integer.MAX_VALUE - 1, Integer.MAX_VALUE)
+    expect:
+    comparator.compare(p1, p0) < 0
+    comparator.compare(p0, p2) < 0
+    comparator.compare(p0, new Point(0, 0)) == 0
+  }
+
+  def "should reuse comparator for another anchor"() {
+    given:
+    SlopeComparator comparator = new SlopeComparator(new Point(0, 0))
+    when:
+    comparator.setAnchor(new Point(2, 2))
+    then:
+    comparator.compare(new Point(3, 3), new Point(0, 0)) == 0
+    comparator.compare(new Point(2, 3), new Point(3, 2)) > 0
+  }
+}
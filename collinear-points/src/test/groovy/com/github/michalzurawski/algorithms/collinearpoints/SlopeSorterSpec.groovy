@@ -0,0 +1,96 @@
+package com.github.michalzurawski.algorithms.collinearpoints
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+@Unroll
+class SlopeSorterSpec extends Specification {
+  def "should sort points by slope to the anchor"() {
+    given:
+    Point anchor = new Point(0, 0)
+    Point[] points = [new Point(0, 5), new Point(3, 3), new Point(-2, 0), new Point(0, 0), new Point(2, -1),
+                      new Point(-1, 2)]
+    Point[] sorted = new Point[points.length]
+    when:
+    new SlopeSorter(points.length).sort(points, anchor, sorted)
+    then:
+    sorted as List == [new Point(0, 0), new Point(-1, 2), new Point(2, -1), new Point(-2, 0), new Point(3, 3),
+                       new Point(0, 5)]
+  }
+
+  def "should keep input order of points with equal slopes"() {
+    given:
+    Point anchor = new Point(1, 1)
+    Point[] points = [new Point(3, 3), new Point(5, 1), new Point(-1, -1), new Point(2, 2), new Point(-7, 1),
+                      new Point(0, 0)]
+    Point[] sorted = new Point[points.length]
+    when:
+    new SlopeSorter(points.length).sort(points, anchor, sorted)
+    then:
+    sorted as List == [new Point(5, 1), new Point(-7, 1), new Point(3, 3), new Point(-1, -1), new Point(2, 2),
+                       new Point(0, 0)]
+  }
+
+  def "should sort only points in given range"() {
+    given:
+    Point anchor = new Point(0, 0)
+    Point[] points = [new Point(9, 9), new Point(3, 3), new Point(2, -1), new Point(-1, 2), new Point(-9, -9)]
+    Point[] sorted = new Point[points.length]
+    when:
+    new SlopeSorter(3).sort(points, 1, 4, anchor, sorted)
+    then:
+    sorted as List == [new Point(-1, 2), new Point(2, -1), new Point(3, 3), null, null]
+  }
+
+  def "should order nearly equal slopes exactly"() {
+    given:
+    Point anchor = new Point(0, 0)
+    Point p0 = new Point(Integer.MAX_VALUE, Integer.MAX_VALUE - 1)
+    Point p1 = new Point(Integer.MAX_VALUE - 1, Integer.MAX_VALUE - 2)
+    Point[] points = [p0, p1, anchor]
+    Point[] sorted = new Point[points.length]
+    when:
+    new SlopeSorter(points.length).sort(points, anchor, sorted)
+    then:
+    sorted as List == [anchor, p1, p0]
+  }
+
+  def "should give the same order as SlopeComparator for random points"() {
+    given:
+    Random random = new Random(seed)
+    Point[] points = (0..<500).collect { new Point(random.nextInt(50), random.nextInt(50)) } as Point[]
+    Point anchor = points[0]
+    Point[] sorted = new Point[points.length]
+    Point[] expected = Arrays.copyOf(points, points.length)
+    Arrays.sort(expected, new SlopeComparator(anchor))
+    when:
+    new SlopeSorter(points.length).sort(points, anchor, sorted)
+    then:
+    sorted as List == expected as List
+
+    where:
+    seed << [1, 2, 3]
+  }
+
+  def "should give greater keys to greater slopes"() {
+    expect:
+    Long.compareUnsigned(SlopeSorter.key(dx0, dy0), SlopeSorter.key(dx1, dy1)) < 0
+
+    where:
+    dx0 | dy0 | dx1 | dy1
+    0   | 0   | 1   | -100
+    1   | -2  | 2   | -1
+    -3  | 1   | 1   | 0
+    1   | 0   | 5   | 1
+    1   | 100 | 0   | 1
+  }
+
+  def "should throw IllegalArgumentException when there are more points than capacity"() {
+    given:
+    Point[] points = [new Point(0, 0), new Point(1, 1)]
+    when:
+    new SlopeSorter(1).sort(points, points[0], new Point[2])
+    then:
+    thrown(IllegalArgumentException)
+  }
+}
@@ -0,0 +1,355 @@
+package com.github.michalzurawski.algorithms.queues;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Class representing bounded blocking double-ended queue (deque) for passing items between threads.
+ * Implemented as a ring buffer guarded by a single lock.
+ * Batch operations take the lock once per batch and waiting threads spin shortly before they park,
+ * so hand-off of many items does not pay for the lock and the context switch on every item.
+ *
+ * @param <Item> the type of elements held in this collection
+ */
+public class BoundedBlockingDeque<Item> {
+  /**
+   * Number of checks of the state before waiting thread parks.
+   */
+  private static final int SPIN_TRIES = 1 << 10;
+  /**
+   * Stored values.
+   */
+  private final Item[] values;
+  /**
+   * Lock guarding all state.
+   */
+  private final ReentrantLock lock = new ReentrantLock();
+  /**
+   * Condition signalled when items are added.
+   */
+  private final Condition notEmpty = lock.newCondition();
+  /**
+   * Condition signalled when items are removed.
+   */
+  private final Condition notFull = lock.newCondition();
+  /**
+   * Index of the first value.
+   */
+  private int head = 0;
+  /**
+   * Number of stored values, read without the lock while spinning.
+   */
+  private volatile int size = 0;
+
+  /**
+   * Creates deque holding at most capacity items.
+   *
+   * @param capacity maximal number of items
+   */
+  public BoundedBlockingDeque(final int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException();
+    }
+    values = (Item[]) new Object[capacity];
+  }
+
+  /**
+   * Returns true if this deque contains no elements.
+   *
+   * @return true if deque is empty
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Returns number of elements stored in this deque.
+   *
+   * @return number of elements in this deque
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns maximal number of elements stored in this deque.
+   *
+   * @return capacity of this deque
+   */
+  public int capacity() {
+    return values.length;
+  }
+
+  /**
+   * Adds element to the front of the deque waiting for space if necessary.
+   *
+   * @param item value to be stored
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public void putFirst(final Item item) throws InterruptedException {
+    offerFirst(item, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Adds element to the end of the deque waiting for space if necessary.
+   *
+   * @param item value to be stored
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public void putLast(final Item item) throws InterruptedException {
+    offerLast(item, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Adds element to the front of the deque waiting up to the timeout for space if necessary.
+   *
+   * @param item    value to be stored
+   * @param timeout maximal time to wait
+   * @param unit    unit of the timeout
+   * @return true if element was added, false if timeout elapsed
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public boolean offerFirst(final Item item, final long timeout, final TimeUnit unit) throws InterruptedException {
+    if (item == null) {
+      throw new NullPointerException();
+    }
+    final long nanos = spinWhile(values.length, unit.toNanos(timeout));
+    lock.lockInterruptibly();
+    try {
+      if (!await(notFull, values.length, nanos)) {
+        return false;
+      }
+      head = head == 0 ? values.length - 1 : head - 1;
+      values[head] = item;
+      ++size;
+      notEmpty.signal();
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Adds element to the end of the deque waiting up to the timeout for space if necessary.
+   *
+   * @param item    value to be stored
+   * @param timeout maximal time to wait
+   * @param unit    unit of the timeout
+   * @return true if element was added, false if timeout elapsed
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public boolean offerLast(final Item item, final long timeout, final TimeUnit unit) throws InterruptedException {
+    if (item == null) {
+      throw new NullPointerException();
+    }
+    final long nanos = spinWhile(values.length, unit.toNanos(timeout));
+    lock.lockInterruptibly();
+    try {
+      if (!await(notFull, values.length, nanos)) {
+        return false;
+      }
+      values[index(size)] = item;
+      ++size;
+      notEmpty.signal();
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Removes element from the front of the deque waiting for it if necessary.
+   *
+   * @return value of removed element
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public Item takeFirst() throws InterruptedException {
+    return pollFirst(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Removes element from the end of the deque waiting for it if necessary.
+   *
+   * @return value of removed element
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public Item takeLast() throws InterruptedException {
+    return pollLast(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Removes element from the front of the deque waiting up to the timeout for it if necessary.
+   *
+   * @param timeout maximal time to wait
+   * @param unit    unit of the timeout
+   * @return value of removed element or null if timeout elapsed
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public Item pollFirst(final long timeout, final TimeUnit unit) throws InterruptedException {
+    final long nanos = spinWhile(0, unit.toNanos(timeout));
+    lock.lockInterruptibly();
+    try {
+      if (!await(notEmpty, 0, nanos)) {
+        return null;
+      }
+      final Item value = values[head];
+      values[head] = null;
+      head = index(1);
+      --size;
+      notFull.signal();
+      return value;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Removes element from the end of the deque waiting up to the timeout for it if necessary.
+   *
+   * @param timeout maximal time to wait
+   * @param unit    unit of the timeout
+   * @return value of removed element or null if timeout elapsed
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public Item pollLast(final long timeout, final TimeUnit unit) throws InterruptedException {
+    final long nanos = spinWhile(0, unit.toNanos(timeout));
+    lock.lockInterruptibly();
+    try {
+      if (!await(notEmpty, 0, nanos)) {
+        return null;
+      }
+      final int last = index(size - 1);
+      final Item value = values[last];
+      values[last] = null;
+      --size;
+      notFull.signal();
+      return value;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Adds all elements to the end of the deque in order, waiting for space if necessary.
+   * The lock is taken once for every chunk of elements which fits into the free space.
+   *
+   * @param items values to be stored
+   * @throws InterruptedException if interrupted while waiting, some elements may have been added
+   */
+  public void putAll(final Item[] items) throws InterruptedException {
+    for (final Item item : items) {
+      if (item == null) {
+        throw new NullPointerException();
+      }
+    }
+    int added = 0;
+    while (added < items.length) {
+      spinWhile(values.length, Long.MAX_VALUE);
+      lock.lockInterruptibly();
+      try {
+        await(notFull, values.length, Long.MAX_VALUE);
+        final int count = Math.min(items.length - added, values.length - size);
+        final int tail = index(size);
+        final int first = Math.min(count, values.length - tail);
+        System.arraycopy(items, added, values, tail, first);
+        System.arraycopy(items, added + first, values, 0, count - first);
+        size += count;
+        added += count;
+        notEmpty.signalAll();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Removes up to max elements from the front of the deque without waiting.
+   *
+   * @param out array to store removed elements
+   * @param max maximal number of elements to remove
+   * @return number of removed elements
+   */
+  public int drainTo(final Item[] out, final int max) {
+    if (max < 0 || max > out.length) {
+      throw new IllegalArgumentException();
+    }
+    lock.lock();
+    try {
+      final int count = Math.min(max, size);
+      final int first = Math.min(count, values.length - head);
+      System.arraycopy(values, head, out, 0, first);
+      System.arraycopy(values, 0, out, first, count - first);
+      for (int i = 0; i < first; ++i) {
+        values[head + i] = null;
+      }
+      for (int i = 0; i < count - first; ++i) {
+        values[i] = null;
+      }
+      head = index(count);
+      size -= count;
+      if (count > 0) {
+        notFull.signalAll();
+      }
+      return count;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Returns the index in the array of the value at given position from the head.
+   *
+   * @param position position from the head
+   * @return index in the array
+   */
+  private int index(final int position) {
+    final int index = head + position;
+    return index >= values.length ? index - values.length : index;
+  }
+
+  /**
+   * Spins for a short time while size equals given value, hoping that other thread changes it.
+   * Spinning stops when the timeout elapses.
+   *
+   * @param blocked size at which the caller would block
+   * @param nanos   maximal time to wait in nanoseconds, Long.MAX_VALUE to wait without limit
+   * @return time left to wait in nanoseconds, Long.MAX_VALUE to wait without limit
+   */
+  private long spinWhile(final int blocked, final long nanos) {
+    final long deadline = System.nanoTime() + nanos;
+    long remaining = nanos;
+    for (int i = 0; i < SPIN_TRIES && remaining > 0 && size == blocked; ++i) {
+      Thread.yield();
+      if (nanos != Long.MAX_VALUE) {
+        remaining = deadline - System.nanoTime();
+      }
+    }
+    return remaining;
+  }
+
+  /**
+   * Waits on the condition while size equals given value. Must be called with the lock held.
+   *
+   * @param condition condition to wait on
+   * @param blocked   size at which the caller is blocked
+   * @param nanos     maximal time to wait in nanoseconds
+   * @return false if timeout elapsed
+   * @throws InterruptedException if interrupted while waiting
+   */
+  private boolean await(final Condition condition, final int blocked, final long nanos)
+      throws InterruptedException {
+    long remaining = nanos;
+    while (size == blocked) {
+      if (remaining <= 0) {
+        return false;
+      }
+      if (nanos == Long.MAX_VALUE) {
+        condition.await();
+      } else {
+        remaining = condition.awaitNanos(remaining);
+      }
+    }
+    return true;
+  }
+}
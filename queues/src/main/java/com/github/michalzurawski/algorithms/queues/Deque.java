@@ -2,6 +2,10 @@ package com.github.michalzurawski.algorithms.queues;
 
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Class representing double-ended queue (deque).
@@ -193,4 +197,102 @@ public class Deque<Item> implements Iterable<Item> {
   public Iterator<Item> iterator() {
     return new DequeIterator<>(first);
   }
+
+  /**
+   * Spliterator over a fixed number of consecutive nodes.
+   * Splits by walking to the middle node, hence reports exact sizes of both parts.
+   *
+   * @param <Item> the type of elements held in this collection
+   */
+  private static final class DequeSpliterator<Item> implements Spliterator<Item> {
+    /**
+     * Current node.
+     */
+    private Node<Item> node;
+    /**
+     * Number of remaining nodes.
+     */
+    private int remaining;
+
+    /**
+     * Constructs a spliterator over given number of nodes starting at node.
+     *
+     * @param node      node to start iteration
+     * @param remaining number of nodes to iterate
+     */
+    private DequeSpliterator(final Node<Item> node, final int remaining) {
+      this.node = node;
+      this.remaining = remaining;
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super Item> action) {
+      if (remaining == 0) {
+        return false;
+      }
+      final Item value = node.value;
+      node = node.next;
+      --remaining;
+      action.accept(value);
+      return true;
+    }
+
+    @Override
+    public void forEachRemaining(final Consumer<? super Item> action) {
+      Node<Item> current = node;
+      for (int i = remaining; i > 0; --i) {
+        action.accept(current.value);
+        current = current.next;
+      }
+      node = current;
+      remaining = 0;
+    }
+
+    @Override
+    public Spliterator<Item> trySplit() {
+      if (remaining < 2) {
+        return null;
+      }
+      final int half = remaining / 2;
+      final Spliterator<Item> prefix = new DequeSpliterator<>(node, half);
+      for (int i = 0; i < half; ++i) {
+        node = node.next;
+      }
+      remaining -= half;
+      return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+      return remaining;
+    }
+
+    @Override
+    public int characteristics() {
+      return ORDERED | SIZED | SUBSIZED | NONNULL;
+    }
+  }
+
+  @Override
+  public Spliterator<Item> spliterator() {
+    return new DequeSpliterator<>(first, size);
+  }
+
+  /**
+   * Returns sequential stream over elements from the front to the end.
+   *
+   * @return stream of elements
+   */
+  public Stream<Item> stream() {
+    return StreamSupport.stream(spliterator(), false);
+  }
+
+  /**
+   * Returns parallel stream over elements from the front to the end.
+   *
+   * @return parallel stream of elements
+   */
+  public Stream<Item> parallelStream() {
+    return StreamSupport.stream(spliterator(), true);
+  }
 }
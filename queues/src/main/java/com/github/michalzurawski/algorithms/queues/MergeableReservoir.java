@@ -0,0 +1,110 @@
+package com.github.michalzurawski.algorithms.queues;
+
+import edu.princeton.cs.algs4.StdRandom;
+
+/**
+ * Uniform sample of at most k items from the population of known size.
+ * Two reservoirs built over disjoint populations can be merged into the uniform sample of their union,
+ * hence samples taken independently (by different threads or processes) can be combined exactly.
+ *
+ * @param <Item> the type of sampled elements
+ */
+public class MergeableReservoir<Item> {
+  /**
+   * Maximal number of sampled items.
+   */
+  private final int k;
+  /**
+   * Sampled items.
+   */
+  private RandomizedQueue<Item> sample;
+  /**
+   * Size of the population the items were sampled from.
+   */
+  private long count;
+
+  /**
+   * Creates empty reservoir of empty population.
+   *
+   * @param k maximal number of sampled items
+   */
+  public MergeableReservoir(final int k) {
+    this(k, new RandomizedQueue<>(), 0);
+  }
+
+  /**
+   * Creates reservoir from uniform sample of the population.
+   *
+   * @param k      maximal number of sampled items
+   * @param sample uniform sample of min(k, count) items
+   * @param count  size of the population
+   */
+  public MergeableReservoir(final int k, final RandomizedQueue<Item> sample, final long count) {
+    if (sample == null) {
+      throw new NullPointerException();
+    }
+    if (k < 0 || count < 0 || sample.size() != Math.min(k, count)) {
+      throw new IllegalArgumentException();
+    }
+    this.k = k;
+    this.sample = sample;
+    this.count = count;
+  }
+
+  /**
+   * Merges other reservoir into this one.
+   * The number of items taken from each reservoir follows hypergeometric distribution
+   * weighted by sizes of their populations and the items are taken uniformly at random.
+   * Populations of both reservoirs must be disjoint. Other reservoir should not be used after this call.
+   * Complexity: O(k)
+   *
+   * @param other reservoir to merge
+   */
+  public void merge(final MergeableReservoir<Item> other) {
+    if (other.sample.size() < Math.min(k, other.count)) {
+      throw new IllegalArgumentException();
+    }
+    long remaining = count;
+    long otherRemaining = other.count;
+    final int size = (int) Math.min(k, remaining + otherRemaining);
+    final RandomizedQueue<Item> merged = new RandomizedQueue<>();
+    for (int i = 0; i < size; ++i) {
+      if (StdRandom.uniform() * (remaining + otherRemaining) < remaining) {
+        merged.enqueue(sample.dequeue());
+        --remaining;
+      } else {
+        merged.enqueue(other.sample.dequeue());
+        --otherRemaining;
+      }
+    }
+    sample = merged;
+    count += other.count;
+  }
+
+  /**
+   * Returns the size of the population.
+   *
+   * @return size of the population
+   */
+  public long count() {
+    return count;
+  }
+
+  /**
+   * Returns the number of sampled items.
+   *
+   * @return number of sampled items
+   */
+  public int size() {
+    return sample.size();
+  }
+
+  /**
+   * Returns sampled items.
+   *
+   * @return queue of sampled items
+   */
+  public RandomizedQueue<Item> sample() {
+    return sample;
+  }
+}
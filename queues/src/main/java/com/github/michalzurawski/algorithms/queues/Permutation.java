@@ -1,8 +1,12 @@
 package com.github.michalzurawski.algorithms.queues;
 
-import edu.princeton.cs.algs4.StdIn;
 import edu.princeton.cs.algs4.StdOut;
-import edu.princeton.cs.algs4.StdRandom;
+
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
 
 /**
  * Permutation client which chooses k random strings from n.
@@ -14,30 +18,51 @@ public final class Permutation {
   private Permutation() {
   }
 
+  /**
+   * Chooses k tokens uniformly at random from the reader.
+   * Tokens which are not going to be chosen are skipped without decoding.
+   *
+   * @param reader reader of tokens
+   * @param k      number of tokens to choose
+   * @return reservoir of chosen tokens
+   * @throws IOException when reading fails
+   */
+  static MergeableReservoir<String> sample(final TokenReader reader, final int k) throws IOException {
+    final ReservoirSampler<String> sampler = new ReservoirSampler<>(k);
+    while (true) {
+      final long gap = sampler.gap();
+      final long skipped = reader.skip(gap);
+      sampler.skip(skipped);
+      if (skipped < gap || !reader.hasNext()) {
+        break;
+      }
+      sampler.add(reader.next());
+    }
+    return sampler.toReservoir();
+  }
+
   /**
    * Permutation client which chooses k random strings from n.
+   * Strings are read from standard input or, if given, from the file split into shards read in parallel.
    *
-   * @param args args[0] = k
+   * @param args args[0] = k, optional args[1] = name of the file, optional args[2] = number of shards
    */
   public static void main(final String[] args) {
     final int k = Integer.parseInt(args[0]);
-    final RandomizedQueue<String> randomizedQueue = new RandomizedQueue<>();
-    int n = 0;
-    final int percent = 100;
-    while (!StdIn.isEmpty()) {
-      final String value = StdIn.readString();
-      final int probability = StdRandom.uniform(100);
-      ++n;
-      if (n <= k) {
-        randomizedQueue.enqueue(value);
+    final RandomizedQueue<String> randomizedQueue;
+    try {
+      if (args.length > 1) {
+        final int shards = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        randomizedQueue = ShardedSampler.sample(Paths.get(args[1]), k, shards).sample();
       } else {
-        if (probability * n < k * percent) {
-          randomizedQueue.dequeue();
-          randomizedQueue.enqueue(value);
+        try (TokenReader reader = new TokenReader(new FileInputStream(FileDescriptor.in).getChannel())) {
+          randomizedQueue = sample(reader, k).sample();
         }
       }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
     }
-    for (int i = 0; i < k; ++i) {
+    while (!randomizedQueue.isEmpty()) {
       StdOut.println(randomizedQueue.dequeue());
     }
   }
@@ -2,25 +2,108 @@ package com.github.michalzurawski.algorithms.queues;
 
 import edu.princeton.cs.algs4.StdRandom;
 
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Class representing randomized queue.
  * Based on the resizing array provides all operation in constant amortized time.
+ * The array grows by the growth factor when full and shrinks by the same factor
+ * when its load drops below the shrink load, so memory is given back after bursts.
  *
  * @param <Item> the type of elements held in this collection
  */
 public class RandomizedQueue<Item> implements Iterable<Item> {
+  /**
+   * Default initial capacity.
+   */
+  private static final int DEFAULT_CAPACITY = 2;
+  /**
+   * Default growth factor, the array doubles when full.
+   */
+  private static final double DEFAULT_GROWTH_FACTOR = 2;
+  /**
+   * Default shrink load, the array halves when a quarter full.
+   */
+  private static final double DEFAULT_SHRINK_LOAD = 0.25;
+  /**
+   * Maximal size of the array.
+   */
+  private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+  /**
+   * Estimated size of the array header in bytes.
+   */
+  private static final int ARRAY_HEADER_BYTES = 16;
+  /**
+   * Estimated size of the reference in bytes (compressed references).
+   */
+  private static final int REFERENCE_BYTES = 4;
+  /**
+   * Estimated size of the queue object in bytes.
+   */
+  private static final int OBJECT_BYTES = 40;
+  /**
+   * Capacity below which the array never shrinks.
+   */
+  private final int minCapacity;
+  /**
+   * Factor by which the array grows when full.
+   */
+  private final double growthFactor;
+  /**
+   * Load below which the array shrinks by the growth factor, 0 disables shrinking.
+   */
+  private final double shrinkLoad;
   /**
    * Stored values.
    */
-  private Item[] values = (Item[]) new Object[2];
+  private Item[] values;
   /**
    * Number of stored values.
    */
   private int size = 0;
 
+  /**
+   * Creates empty queue with default capacity policy:
+   * doubles the array when full and halves it when a quarter full.
+   */
+  public RandomizedQueue() {
+    this(DEFAULT_CAPACITY, DEFAULT_GROWTH_FACTOR, DEFAULT_SHRINK_LOAD);
+  }
+
+  /**
+   * Creates empty queue with default capacity policy and given initial capacity.
+   *
+   * @param initialCapacity initial capacity below which the array never shrinks
+   */
+  public RandomizedQueue(final int initialCapacity) {
+    this(initialCapacity, DEFAULT_GROWTH_FACTOR, DEFAULT_SHRINK_LOAD);
+  }
+
+  /**
+   * Creates empty queue with given capacity policy.
+   * To avoid resizing back and forth shrink load must be smaller than 1 / growthFactor.
+   *
+   * @param initialCapacity initial capacity below which the array never shrinks
+   * @param growthFactor    factor by which the array grows when full, greater than 1
+   * @param shrinkLoad      load below which the array shrinks by the growth factor, 0 disables shrinking
+   */
+  public RandomizedQueue(final int initialCapacity, final double growthFactor, final double shrinkLoad) {
+    if (initialCapacity < 0 || initialCapacity > MAX_CAPACITY || !(growthFactor > 1)
+        || !(shrinkLoad >= 0) || shrinkLoad * growthFactor >= 1) {
+      throw new IllegalArgumentException();
+    }
+    this.minCapacity = initialCapacity;
+    this.growthFactor = growthFactor;
+    this.shrinkLoad = shrinkLoad;
+    this.values = (Item[]) new Object[initialCapacity];
+  }
+
   /**
    * Returns true if queue is empty.
    *
@@ -49,7 +132,7 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
       throw new NullPointerException();
     }
     if (size == values.length) {
-      resize(size * 2);
+      grow(size + 1);
     }
     values[size] = item;
     ++size;
@@ -69,9 +152,7 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
     --size;
     values[index] = values[size];
     values[size] = null;
-    if (size > 2 && size * 2 == values.length) {
-      resize(size * 2);
-    }
+    shrink();
     return temp;
   }
 
@@ -88,6 +169,121 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
     return values[index];
   }
 
+  /**
+   * Adds all items to the queue growing the array at most once.
+   *
+   * @param items items to be added
+   */
+  public void enqueueAll(final Item[] items) {
+    for (final Item item : items) {
+      if (item == null) {
+        throw new NullPointerException();
+      }
+    }
+    if (items.length > MAX_CAPACITY - size) {
+      throw new IllegalStateException();
+    }
+    final int expectedSize = size + items.length;
+    if (expectedSize > values.length) {
+      grow(expectedSize);
+    }
+    System.arraycopy(items, 0, values, size, items.length);
+    size = expectedSize;
+  }
+
+  /**
+   * Removes k random items from the queue using partial Fisher-Yates shuffle of the tail.
+   * Complexity: O(k)
+   *
+   * @param k   number of items to remove
+   * @param out array to store removed items, of length at least min(k, size)
+   * @return number of removed items, min(k, size)
+   */
+  public int dequeue(final int k, final Item[] out) {
+    final int count = shuffleTail(k, out);
+    for (int i = size - count; i < size; ++i) {
+      values[i] = null;
+    }
+    size -= count;
+    shrink();
+    return count;
+  }
+
+  /**
+   * Returns but does not remove k distinct random items from the queue.
+   * Complexity: O(k)
+   *
+   * @param k   number of items to choose
+   * @param out array to store chosen items, of length at least min(k, size)
+   * @return number of chosen items, min(k, size)
+   */
+  public int sample(final int k, final Item[] out) {
+    return shuffleTail(k, out);
+  }
+
+  /**
+   * Removes all items from the queue and adds them to the collection in random order.
+   * Complexity: O(n)
+   *
+   * @param collection collection to add items to
+   * @return number of removed items
+   */
+  public int drainTo(final Collection<? super Item> collection) {
+    final int count = size;
+    for (int i = count - 1; i >= 0; --i) {
+      final int index = StdRandom.uniform(i + 1);
+      collection.add(values[index]);
+      values[index] = values[i];
+    }
+    values = (Item[]) new Object[minCapacity];
+    size = 0;
+    return count;
+  }
+
+  /**
+   * Returns the length of the backing array.
+   *
+   * @return capacity of the queue
+   */
+  public int capacity() {
+    return values.length;
+  }
+
+  /**
+   * Returns the estimated number of bytes used by the queue, excluding stored items.
+   * Estimation assumes 64-bit JVM with compressed references.
+   *
+   * @return estimated memory footprint in bytes
+   */
+  public long footprint() {
+    final long arrayBytes = ARRAY_HEADER_BYTES + (long) REFERENCE_BYTES * values.length;
+    final int alignment = 8;
+    return OBJECT_BYTES + (arrayBytes + alignment - 1) / alignment * alignment;
+  }
+
+  /**
+   * Increases the capacity, if necessary, to hold at least given number of items.
+   *
+   * @param capacity expected capacity
+   */
+  public void ensureCapacity(final int capacity) {
+    if (capacity > MAX_CAPACITY) {
+      throw new IllegalArgumentException();
+    }
+    if (capacity > values.length) {
+      resize(capacity);
+    }
+  }
+
+  /**
+   * Shrinks the capacity to the current size.
+   */
+  public void trimToSize() {
+    if (size < values.length) {
+      resize(size);
+    }
+  }
+
   /**
    * Class representing randomized queue iterator.
    * Iterates over values in random order.
@@ -138,6 +334,88 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
     return new RandomQueueIterator<>(size, values);
   }
 
+  /**
+   * Returns spliterator over the shuffled copy of values.
+   * The copy is split by index ranges, each reporting its exact size.
+   *
+   * @return spliterator over values in random order
+   */
+  @Override
+  public Spliterator<Item> spliterator() {
+    final Object[] shuffled = new Object[size];
+    System.arraycopy(values, 0, shuffled, 0, size);
+    StdRandom.shuffle(shuffled);
+    return Spliterators.spliterator(shuffled, Spliterator.NONNULL);
+  }
+
+  /**
+   * Returns sequential stream over values in random order.
+   *
+   * @return stream of values
+   */
+  public Stream<Item> stream() {
+    return StreamSupport.stream(spliterator(), false);
+  }
+
+  /**
+   * Returns parallel stream over values in random order.
+   *
+   * @return parallel stream of values
+   */
+  public Stream<Item> parallelStream() {
+    return StreamSupport.stream(spliterator(), true);
+  }
+
+  /**
+   * Moves min(k, size) random items to the end of the array and copies them to the output array.
+   * Order of values in the array is irrelevant for the queue, so it is shuffled in place.
+   *
+   * @param k   number of items to choose
+   * @param out array to store chosen items
+   * @return number of chosen items
+   */
+  private int shuffleTail(final int k, final Item[] out) {
+    if (k < 0) {
+      throw new IllegalArgumentException();
+    }
+    final int count = Math.min(k, size);
+    if (out.length < count) {
+      throw new IllegalArgumentException();
+    }
+    for (int i = 0; i < count; ++i) {
+      final int last = size - 1 - i;
+      final int index = StdRandom.uniform(last + 1);
+      final Item temp = values[index];
+      values[index] = values[last];
+      values[last] = temp;
+      out[i] = temp;
+    }
+    return count;
+  }
+
+  /**
+   * Grows the array by the growth factor, or more if needed to hold given number of items.
+   *
+   * @param expectedSize number of items to hold
+   */
+  private void grow(final int expectedSize) {
+    final double grown = Math.min(values.length * growthFactor, MAX_CAPACITY);
+    resize(Math.max(expectedSize, (int) grown));
+  }
+
+  /**
+   * Shrinks the array by the growth factor as long as its load is below the shrink load.
+   */
+  private void shrink() {
+    int capacity = values.length;
+    while (capacity > minCapacity && size < capacity * shrinkLoad) {
+      capacity = Math.max(minCapacity, Math.max(size, (int) (capacity / growthFactor)));
+    }
+    if (capacity < values.length) {
+      resize(capacity);
+    }
+  }
+
   /**
    * Resize the array to expected size.
    *
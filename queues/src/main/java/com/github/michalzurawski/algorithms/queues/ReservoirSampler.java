@@ -0,0 +1,168 @@
+package com.github.michalzurawski.algorithms.queues;
+
+import edu.princeton.cs.algs4.StdRandom;
+
+/**
+ * Streaming reservoir sampler choosing k items uniformly at random from the stream of unknown length.
+ * Based on Algorithm L which computes geometric skip distances between accepted items
+ * hence the number of random draws is O(k log(n/k)) where n is the length of the stream.
+ *
+ * @param <Item> the type of sampled elements
+ */
+public class ReservoirSampler<Item> {
+  /**
+   * Number of items to choose.
+   */
+  private final int k;
+  /**
+   * Chosen items. Replaced item is chosen uniformly at random by dequeue.
+   */
+  private final RandomizedQueue<Item> reservoir = new RandomizedQueue<>();
+  /**
+   * Number of items seen so far, both added and skipped.
+   */
+  private long count = 0;
+  /**
+   * Number of seen items after which the next item is going to be accepted.
+   */
+  private long next;
+  /**
+   * Current value of the W variable of Algorithm L.
+   */
+  private double w;
+
+  /**
+   * Creates sampler choosing k items.
+   *
+   * @param k number of items to choose
+   */
+  public ReservoirSampler(final int k) {
+    if (k < 0) {
+      throw new IllegalArgumentException();
+    }
+    this.k = k;
+    next = k == 0 ? Long.MAX_VALUE : 0;
+  }
+
+  /**
+   * Returns the number of items which are going to be rejected before the next accepted one.
+   * Caller may skip those items without materializing them and report it using skip.
+   *
+   * @return number of items to skip
+   */
+  public long gap() {
+    return next - count;
+  }
+
+  /**
+   * Reports that given number of items has been skipped.
+   *
+   * @param skipped number of skipped items, not greater than gap
+   */
+  public void skip(final long skipped) {
+    if (skipped < 0 || skipped > gap()) {
+      throw new IllegalArgumentException();
+    }
+    count += skipped;
+  }
+
+  /**
+   * Offers next item from the stream.
+   *
+   * @param item item to offer
+   */
+  public void add(final Item item) {
+    if (item == null) {
+      throw new NullPointerException();
+    }
+    ++count;
+    if (count <= next) {
+      return;
+    }
+    if (count <= k) {
+      reservoir.enqueue(item);
+      if (count == k) {
+        w = Math.exp(Math.log(random()) / k);
+        advance();
+      } else {
+        next = count;
+      }
+      return;
+    }
+    reservoir.dequeue();
+    reservoir.enqueue(item);
+    w *= Math.exp(Math.log(random()) / k);
+    advance();
+  }
+
+  /**
+   * Returns the number of items seen so far.
+   *
+   * @return number of seen items
+   */
+  public long count() {
+    return count;
+  }
+
+  /**
+   * Returns the number of chosen items, which is min(k, count).
+   *
+   * @return number of chosen items
+   */
+  public int size() {
+    return reservoir.size();
+  }
+
+  /**
+   * Returns the chosen items.
+   * The sampler should not be used after this call.
+   *
+   * @return queue of chosen items
+   */
+  public RandomizedQueue<Item> sample() {
+    return reservoir;
+  }
+
+  /**
+   * Returns the chosen items together with the number of seen items as mergeable reservoir.
+   * The sampler should not be used after this call.
+   *
+   * @return mergeable reservoir of chosen items
+   */
+  public MergeableReservoir<Item> toReservoir() {
+    return new MergeableReservoir<>(k, reservoir, count);
+  }
+
+  /**
+   * Computes the position of the next accepted item.
+   */
+  private void advance() {
+    next = nextPosition(count, random(), w);
+  }
+
+  /**
+   * Returns the position of the next accepted item after a geometric skip.
+   * log1p keeps the skip finite when w is too small for 1 - w to differ from 1.
+   *
+   * @param count  number of seen items
+   * @param random random number from range (0, 1]
+   * @param w      current weight of the reservoir
+   * @return position of the next accepted item, Long.MAX_VALUE if it lies beyond any stream
+   */
+  static long nextPosition(final long count, final double random, final double w) {
+    final double skip = Math.floor(Math.log(random) / Math.log1p(-w));
+    if (!(skip >= 0) || Double.isInfinite(skip) || skip >= Long.MAX_VALUE - count) {
+      return Long.MAX_VALUE;
+    }
+    return count + (long) skip;
+  }
+
+  /**
+   * Returns random number from range (0, 1].
+   *
+   * @return random number
+   */
+  private static double random() {
+    return 1 - StdRandom.uniform();
+  }
+}
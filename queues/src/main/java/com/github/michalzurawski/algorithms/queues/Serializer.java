@@ -0,0 +1,24 @@
+package com.github.michalzurawski.algorithms.queues;
+
+/**
+ * Converts items to byte records and back.
+ *
+ * @param <Item> the type of converted elements
+ */
+public interface Serializer<Item> {
+  /**
+   * Converts item to bytes.
+   *
+   * @param item item to convert
+   * @return bytes representing the item
+   */
+  byte[] serialize(Item item);
+
+  /**
+   * Converts bytes back to the item.
+   *
+   * @param bytes bytes created by serialize
+   * @return item represented by the bytes
+   */
+  Item deserialize(byte[] bytes);
+}
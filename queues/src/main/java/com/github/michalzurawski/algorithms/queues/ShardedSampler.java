@@ -0,0 +1,97 @@
+package com.github.michalzurawski.algorithms.queues;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Chooses k tokens uniformly at random from the file in parallel.
+ * The file is split into byte ranges (shards) aligned on token boundaries,
+ * each shard is sampled independently and the reservoirs are merged
+ * with weights equal to the number of tokens in each shard.
+ */
+public final class ShardedSampler {
+  /**
+   * Size of the read buffer of each shard in bytes.
+   */
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  /**
+   * Utility class.
+   */
+  private ShardedSampler() {
+  }
+
+  /**
+   * Chooses k tokens uniformly at random from the file.
+   *
+   * @param file   file to read
+   * @param k      number of tokens to choose
+   * @param shards number of shards, at most as many as processors are read at once
+   * @return reservoir of chosen tokens
+   * @throws IOException when reading from the file fails
+   */
+  public static MergeableReservoir<String> sample(final Path file, final int k, final int shards)
+      throws IOException {
+    if (k < 0 || shards <= 0) {
+      throw new IllegalArgumentException();
+    }
+    final long length;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      length = channel.size();
+    }
+    final List<Callable<MergeableReservoir<String>>> tasks = new ArrayList<>(shards);
+    for (int i = 0; i < shards; ++i) {
+      final long start = length * i / shards;
+      final long end = length * (i + 1) / shards;
+      tasks.add(() -> sampleShard(file, k, start, end));
+    }
+    // shards beyond the number of processors wait in the queue of the pool instead of getting own threads
+    final ExecutorService executor = Executors.newFixedThreadPool(
+        Math.min(shards, Runtime.getRuntime().availableProcessors()));
+    try {
+      final MergeableReservoir<String> reservoir = new MergeableReservoir<>(k);
+      for (final Future<MergeableReservoir<String>> future : executor.invokeAll(tasks)) {
+        reservoir.merge(future.get());
+      }
+      return reservoir;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IllegalStateException(e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Chooses k tokens uniformly at random from tokens starting in the given byte range of the file.
+   *
+   * @param file  file to read
+   * @param k     number of tokens to choose
+   * @param start offset of the first byte of the shard
+   * @param end   offset after the last byte of the shard
+   * @return reservoir of chosen tokens
+   * @throws IOException when reading from the file fails
+   */
+  private static MergeableReservoir<String> sampleShard(final Path file, final int k, final long start,
+                                                        final long end) throws IOException {
+    try (TokenReader reader = new TokenReader(FileChannel.open(file, StandardOpenOption.READ), start, end,
+        BUFFER_SIZE)) {
+      return Permutation.sample(reader, k);
+    }
+  }
+}
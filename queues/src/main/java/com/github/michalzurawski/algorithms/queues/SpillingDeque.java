@@ -0,0 +1,692 @@
+package com.github.michalzurawski.algorithms.queues;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.NoSuchElementException;
+
+/**
+ * Double-ended queue (deque) which spills to disk when it grows beyond the heap.
+ * Small windows of items at the front and at the end are kept in the heap,
+ * items in between are serialized into fixed-size memory-mapped segment files.
+ * Only both ends of the on-disk part are ever accessed so all I/O is sequential.
+ * Segments are recycled as they drain. The state of the disk part is saved to the metadata file
+ * whenever a segment fills up or drains and on close, the deque is reopened with the saved content
+ * when constructed on the same directory. The metadata file is replaced atomically and records are never
+ * written over ranges it refers to, so after a crash the deque reopens as of the last save:
+ * items kept in the heap or written since then are lost and items removed since then reappear.
+ * On disk every record is stored as its length, its bytes and its length again,
+ * so it can be read from both directions.
+ *
+ * @param <Item> the type of elements held in this collection
+ */
+public class SpillingDeque<Item> implements Closeable {
+  /**
+   * Default size of the segment file in bytes.
+   */
+  private static final int DEFAULT_SEGMENT_SIZE = 64 << 20;
+  /**
+   * Default number of items kept in the heap at each end.
+   */
+  private static final int DEFAULT_WINDOW = 1024;
+  /**
+   * Name of the metadata file.
+   */
+  private static final String METADATA = "deque.meta";
+  /**
+   * Magic number at the beginning of the metadata file.
+   */
+  private static final int MAGIC = 0x44455155;
+  /**
+   * Bytes of the record besides its content: leading and trailing length.
+   */
+  private static final int RECORD_OVERHEAD = 8;
+  /**
+   * Maximal number of drained segments kept for reuse.
+   */
+  private static final int POOL_SIZE = 2;
+
+  /**
+   * Segment file holding records in range [start, end).
+   */
+  private static final class Segment {
+    /**
+     * Identifier of the segment file.
+     */
+    private final int id;
+    /**
+     * Offset of the first record.
+     */
+    private int start;
+    /**
+     * Offset after the last record.
+     */
+    private int end;
+    /**
+     * Offset of the first record in the metadata file.
+     */
+    private int savedStart;
+    /**
+     * Offset after the last record in the metadata file, equal to savedStart if the file does not refer to it.
+     */
+    private int savedEnd;
+    /**
+     * Mapped content of the file, null if not mapped.
+     */
+    private MappedByteBuffer buffer;
+
+    /**
+     * Constructs the segment.
+     *
+     * @param id    identifier of the segment file
+     * @param start offset of the first record
+     * @param end   offset after the last record
+     */
+    private Segment(final int id, final int start, final int end) {
+      this.id = id;
+      this.start = start;
+      this.end = end;
+    }
+  }
+
+  /**
+   * Directory holding segment files and metadata.
+   */
+  private final Path directory;
+  /**
+   * Path of the metadata file.
+   */
+  private final Path metadata;
+  /**
+   * Serializer of items.
+   */
+  private final Serializer<Item> serializer;
+  /**
+   * Size of the segment file in bytes.
+   */
+  private final int segmentSize;
+  /**
+   * Number of items kept in the heap at each end.
+   */
+  private final int window;
+  /**
+   * Items at the front kept in the heap.
+   */
+  private final Deque<Item> headWindow = new Deque<>();
+  /**
+   * Items at the end kept in the heap.
+   */
+  private final Deque<Item> tailWindow = new Deque<>();
+  /**
+   * First segment on disk.
+   */
+  private Segment headSegment;
+  /**
+   * Last segment on disk, the same as the first one if there is only one segment.
+   */
+  private Segment tailSegment;
+  /**
+   * Segments between the first and the last one, not mapped.
+   */
+  private final Deque<Segment> middleSegments = new Deque<>();
+  /**
+   * Drained segments kept for reuse.
+   */
+  private final Segment[] pool = new Segment[POOL_SIZE];
+  /**
+   * Number of segments in the pool.
+   */
+  private int poolSize = 0;
+  /**
+   * Identifier of the next created segment.
+   */
+  private int nextId = 0;
+  /**
+   * Number of items on disk.
+   */
+  private long diskSize = 0;
+
+  /**
+   * Opens deque in the directory with default segment size and window.
+   *
+   * @param directory  directory holding segment files and metadata
+   * @param serializer serializer of items
+   * @throws IOException              when directory cannot be read or written
+   * @throws IllegalArgumentException when the deque stored in the directory has a different segment size
+   */
+  public SpillingDeque(final Path directory, final Serializer<Item> serializer) throws IOException {
+    this(directory, serializer, DEFAULT_SEGMENT_SIZE, DEFAULT_WINDOW);
+  }
+
+  /**
+   * Opens deque in the directory.
+   * If the directory contains deque which has been closed its content is restored.
+   *
+   * @param directory   directory holding segment files and metadata
+   * @param serializer  serializer of items
+   * @param segmentSize size of the segment file in bytes, limits the size of a single record,
+   *                    must be equal to the size of the deque stored in the directory
+   * @param window      number of items kept in the heap at each end
+   * @throws IOException              when directory cannot be read or written
+   * @throws IllegalArgumentException when the deque stored in the directory has a different segment size
+   */
+  public SpillingDeque(final Path directory, final Serializer<Item> serializer, final int segmentSize,
+                       final int window) throws IOException {
+    if (directory == null || serializer == null) {
+      throw new NullPointerException();
+    }
+    if (segmentSize <= RECORD_OVERHEAD || window < 0) {
+      throw new IllegalArgumentException();
+    }
+    this.directory = directory;
+    this.serializer = serializer;
+    this.window = window;
+    Files.createDirectories(directory);
+    metadata = directory.resolve(METADATA);
+    if (Files.exists(metadata)) {
+      try (DataInputStream in = new DataInputStream(Files.newInputStream(metadata))) {
+        if (in.readInt() != MAGIC) {
+          throw new IOException("Invalid metadata file " + metadata);
+        }
+        this.segmentSize = in.readInt();
+        if (this.segmentSize != segmentSize) {
+          throw new IllegalArgumentException("Deque in " + directory + " has segments of " + this.segmentSize
+              + " bytes, not " + segmentSize);
+        }
+        nextId = in.readInt();
+        diskSize = in.readLong();
+        final int segments = in.readInt();
+        for (int i = 0; i < segments; ++i) {
+          final Segment segment = new Segment(in.readInt(), in.readInt(), in.readInt());
+          segment.savedStart = segment.start;
+          segment.savedEnd = segment.end;
+          if (headSegment == null) {
+            headSegment = segment;
+          } else if (tailSegment != headSegment) {
+            middleSegments.addLast(tailSegment);
+          }
+          tailSegment = segment;
+        }
+      }
+      deleteUnused();
+    } else {
+      this.segmentSize = segmentSize;
+      headSegment = newSegment(0);
+      tailSegment = headSegment;
+      try {
+        save();
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      }
+    }
+  }
+
+  /**
+   * Returns true if this deque contains no elements.
+   *
+   * @return true if deque is empty
+   */
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  /**
+   * Returns number of elements stored in this deque.
+   *
+   * @return number of elements in this deque
+   */
+  public long size() {
+    return headWindow.size() + diskSize + tailWindow.size();
+  }
+
+  /**
+   * Adds element to the front of the deque.
+   * When the window is full its innermost item is moved to disk first.
+   *
+   * @param item value to be stored
+   * @throws IllegalArgumentException when the record of the item moved to disk exceeds the segment size,
+   *                                  the deque is left unchanged
+   */
+  public void addFirst(final Item item) {
+    if (item == null) {
+      throw new NullPointerException();
+    }
+    if (headWindow.size() < window) {
+      headWindow.addFirst(item);
+    } else if (window == 0) {
+      writeFirst(serializer.serialize(item));
+    } else {
+      spillFirst();
+      headWindow.addFirst(item);
+    }
+  }
+
+  /**
+   * Adds element to the end of the deque.
+   * When the window is full its innermost item is moved to disk first.
+   *
+   * @param item value to be stored
+   * @throws IllegalArgumentException when the record of the item moved to disk exceeds the segment size,
+   *                                  the deque is left unchanged
+   */
+  public void addLast(final Item item) {
+    if (item == null) {
+      throw new NullPointerException();
+    }
+    if (tailWindow.size() < window) {
+      tailWindow.addLast(item);
+    } else if (window == 0) {
+      writeLast(serializer.serialize(item));
+    } else {
+      spillLast();
+      tailWindow.addLast(item);
+    }
+  }
+
+  /**
+   * Removes element from the front of the deque.
+   *
+   * @return value of removed element
+   * @throws NoSuchElementException when deque is empty
+   */
+  public Item removeFirst() {
+    if (!headWindow.isEmpty()) {
+      return headWindow.removeFirst();
+    }
+    if (diskSize > 0) {
+      return serializer.deserialize(readFirst());
+    }
+    return tailWindow.removeFirst();
+  }
+
+  /**
+   * Removes element from the end of the deque.
+   *
+   * @return value of removed element
+   * @throws NoSuchElementException when deque is empty
+   */
+  public Item removeLast() {
+    if (!tailWindow.isEmpty()) {
+      return tailWindow.removeLast();
+    }
+    if (diskSize > 0) {
+      return serializer.deserialize(readLast());
+    }
+    return headWindow.removeLast();
+  }
+
+  /**
+   * Writes items from the heap to disk, forces segments and writes the metadata file.
+   * The deque should not be used after this call.
+   *
+   * @throws IOException              when writing fails
+   * @throws IllegalArgumentException when the record of an item exceeds the segment size,
+   *                                  the item and the items after it stay in the heap
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      while (!headWindow.isEmpty()) {
+        spillFirst();
+      }
+      while (!tailWindow.isEmpty()) {
+        spillLast();
+      }
+      save();
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    for (int i = 0; i < poolSize; ++i) {
+      pool[i].buffer = null;
+      Files.deleteIfExists(segmentFile(pool[i].id));
+    }
+    poolSize = 0;
+  }
+
+  /**
+   * Moves the innermost item of the head window to disk.
+   * The item stays in the window when its record exceeds the segment size.
+   */
+  private void spillFirst() {
+    final Item item = headWindow.removeLast();
+    try {
+      writeFirst(serializer.serialize(item));
+    } catch (final IllegalArgumentException e) {
+      headWindow.addLast(item);
+      throw e;
+    }
+  }
+
+  /**
+   * Moves the innermost item of the tail window to disk.
+   * The item stays in the window when its record exceeds the segment size.
+   */
+  private void spillLast() {
+    final Item item = tailWindow.removeFirst();
+    try {
+      writeLast(serializer.serialize(item));
+    } catch (final IllegalArgumentException e) {
+      tailWindow.addFirst(item);
+      throw e;
+    }
+  }
+
+  /**
+   * Forces the first and the last segment and replaces the metadata file atomically with the state of the disk part.
+   */
+  private void save() {
+    force(headSegment);
+    force(tailSegment);
+    final Path temporary = directory.resolve(METADATA + ".tmp");
+    try {
+      try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(temporary))) {
+        out.writeInt(MAGIC);
+        out.writeInt(segmentSize);
+        out.writeInt(nextId);
+        out.writeLong(diskSize);
+        final boolean single = headSegment == tailSegment;
+        out.writeInt(middleSegments.size() + (single ? 1 : 2));
+        writeSegment(out, headSegment);
+        for (final Segment segment : middleSegments) {
+          writeSegment(out, segment);
+        }
+        if (!single) {
+          writeSegment(out, tailSegment);
+        }
+      }
+      Files.move(temporary, metadata, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    markSaved(headSegment);
+    for (final Segment segment : middleSegments) {
+      markSaved(segment);
+    }
+    markSaved(tailSegment);
+  }
+
+  /**
+   * Remembers the range of the segment as saved in the metadata file.
+   *
+   * @param segment saved segment
+   */
+  private static void markSaved(final Segment segment) {
+    segment.savedStart = segment.start;
+    segment.savedEnd = segment.end;
+  }
+
+  /**
+   * Saves the metadata file before the range of the segment is overwritten if the file refers to the range.
+   * The range is outside of the current records, so it is free once the file is saved again.
+   *
+   * @param segment segment to write
+   * @param from    offset of the first byte to write
+   * @param to      offset after the last byte to write
+   */
+  private void saveBeforeOverwrite(final Segment segment, final int from, final int to) {
+    if (from < segment.savedEnd && to > segment.savedStart) {
+      save();
+    }
+  }
+
+  /**
+   * Deletes segment files which the metadata file does not refer to, left by a crash or by the pool.
+   *
+   * @throws IOException when directory cannot be read or a file cannot be deleted
+   */
+  private void deleteUnused() throws IOException {
+    final boolean[] used = new boolean[nextId];
+    used[headSegment.id] = true;
+    used[tailSegment.id] = true;
+    for (final Segment segment : middleSegments) {
+      used[segment.id] = true;
+    }
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "segment-*.dat")) {
+      for (final Path file : files) {
+        final String name = file.getFileName().toString();
+        final String digits = name.substring("segment-".length(), name.length() - ".dat".length());
+        if (!digits.matches("[0-9]{1,9}")) {
+          continue;
+        }
+        final int id = Integer.parseInt(digits);
+        if (id >= nextId || !used[id]) {
+          Files.delete(file);
+        }
+      }
+    }
+  }
+
+  /**
+   * Writes the record before the first record on disk.
+   *
+   * @param bytes content of the record
+   */
+  private void writeFirst(final byte[] bytes) {
+    final int length = recordLength(bytes);
+    if (diskSize == 0) {
+      headSegment.start = segmentSize;
+      headSegment.end = segmentSize;
+    } else if (headSegment.start < length) {
+      // saved while the full segment is still at the end, the new one is empty until this record is written
+      save();
+      final Segment segment = newSegment(segmentSize);
+      if (headSegment != tailSegment) {
+        unmap(headSegment);
+        middleSegments.addFirst(headSegment);
+      }
+      headSegment = segment;
+    }
+    saveBeforeOverwrite(headSegment, headSegment.start - length, headSegment.start);
+    headSegment.start -= length;
+    write(map(headSegment), headSegment.start, bytes);
+    ++diskSize;
+  }
+
+  /**
+   * Writes the record after the last record on disk.
+   *
+   * @param bytes content of the record
+   */
+  private void writeLast(final byte[] bytes) {
+    final int length = recordLength(bytes);
+    if (diskSize == 0) {
+      tailSegment.start = 0;
+      tailSegment.end = 0;
+    } else if (segmentSize - tailSegment.end < length) {
+      // saved while the full segment is still at the end, the new one is empty until this record is written
+      save();
+      final Segment segment = newSegment(0);
+      if (headSegment != tailSegment) {
+        unmap(tailSegment);
+        middleSegments.addLast(tailSegment);
+      }
+      tailSegment = segment;
+    }
+    saveBeforeOverwrite(tailSegment, tailSegment.end, tailSegment.end + length);
+    write(map(tailSegment), tailSegment.end, bytes);
+    tailSegment.end += length;
+    ++diskSize;
+  }
+
+  /**
+   * Reads and removes the first record on disk.
+   *
+   * @return content of the record
+   */
+  private byte[] readFirst() {
+    final MappedByteBuffer buffer = map(headSegment);
+    final byte[] bytes = new byte[buffer.getInt(headSegment.start)];
+    buffer.position(headSegment.start + Integer.BYTES);
+    buffer.get(bytes);
+    headSegment.start += bytes.length + RECORD_OVERHEAD;
+    --diskSize;
+    if (headSegment.start == headSegment.end && headSegment != tailSegment) {
+      final Segment drained = headSegment;
+      headSegment = middleSegments.isEmpty() ? tailSegment : middleSegments.removeFirst();
+      save();
+      recycle(drained);
+    }
+    return bytes;
+  }
+
+  /**
+   * Reads and removes the last record on disk.
+   *
+   * @return content of the record
+   */
+  private byte[] readLast() {
+    final MappedByteBuffer buffer = map(tailSegment);
+    final byte[] bytes = new byte[buffer.getInt(tailSegment.end - Integer.BYTES)];
+    tailSegment.end -= bytes.length + RECORD_OVERHEAD;
+    buffer.position(tailSegment.end + Integer.BYTES);
+    buffer.get(bytes);
+    --diskSize;
+    if (tailSegment.start == tailSegment.end && headSegment != tailSegment) {
+      final Segment drained = tailSegment;
+      tailSegment = middleSegments.isEmpty() ? headSegment : middleSegments.removeLast();
+      save();
+      recycle(drained);
+    }
+    return bytes;
+  }
+
+  /**
+   * Returns the length of the record on disk.
+   *
+   * @param bytes content of the record
+   * @return length of the record
+   */
+  private int recordLength(final byte[] bytes) {
+    if (bytes.length > segmentSize - RECORD_OVERHEAD) {
+      throw new IllegalArgumentException("Record of " + bytes.length + " bytes exceeds the segment size");
+    }
+    return bytes.length + RECORD_OVERHEAD;
+  }
+
+  /**
+   * Writes the record at given offset.
+   *
+   * @param buffer content of the segment
+   * @param offset offset of the record
+   * @param bytes  content of the record
+   */
+  private static void write(final MappedByteBuffer buffer, final int offset, final byte[] bytes) {
+    buffer.putInt(offset, bytes.length);
+    buffer.position(offset + Integer.BYTES);
+    buffer.put(bytes);
+    buffer.putInt(offset + Integer.BYTES + bytes.length, bytes.length);
+  }
+
+  /**
+   * Returns empty segment taken from the pool or created.
+   *
+   * @param offset start and end of the empty segment
+   * @return empty segment
+   */
+  private Segment newSegment(final int offset) {
+    final Segment segment;
+    if (poolSize > 0) {
+      --poolSize;
+      segment = pool[poolSize];
+      pool[poolSize] = null;
+    } else {
+      segment = new Segment(nextId, 0, 0);
+      ++nextId;
+    }
+    segment.start = offset;
+    segment.end = offset;
+    segment.savedStart = 0;
+    segment.savedEnd = 0;
+    return segment;
+  }
+
+  /**
+   * Returns drained segment to the pool or deletes it if the pool is full.
+   *
+   * @param segment drained segment
+   */
+  private void recycle(final Segment segment) {
+    if (poolSize < POOL_SIZE) {
+      pool[poolSize] = segment;
+      ++poolSize;
+      return;
+    }
+    segment.buffer = null;
+    try {
+      Files.deleteIfExists(segmentFile(segment.id));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Returns the mapped content of the segment, maps it if necessary.
+   *
+   * @param segment segment to map
+   * @return content of the segment
+   */
+  private MappedByteBuffer map(final Segment segment) {
+    if (segment.buffer == null) {
+      try (FileChannel channel = FileChannel.open(segmentFile(segment.id), StandardOpenOption.CREATE,
+          StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+        segment.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+    return segment.buffer;
+  }
+
+  /**
+   * Forces the content of the segment to disk and releases the mapping.
+   *
+   * @param segment segment to unmap
+   */
+  private static void unmap(final Segment segment) {
+    force(segment);
+    segment.buffer = null;
+  }
+
+  /**
+   * Forces the content of the segment to disk.
+   *
+   * @param segment segment to force
+   */
+  private static void force(final Segment segment) {
+    if (segment.buffer != null) {
+      segment.buffer.force();
+    }
+  }
+
+  /**
+   * Writes the segment to the metadata file.
+   *
+   * @param out     metadata file
+   * @param segment segment to write
+   * @throws IOException when writing fails
+   */
+  private static void writeSegment(final DataOutputStream out, final Segment segment) throws IOException {
+    out.writeInt(segment.id);
+    out.writeInt(segment.start);
+    out.writeInt(segment.end);
+  }
+
+  /**
+   * Returns the path of the segment file.
+   *
+   * @param id identifier of the segment
+   * @return path of the segment file
+   */
+  private Path segmentFile(final int id) {
+    return directory.resolve("segment-" + id + ".dat");
+  }
+}
@@ -0,0 +1,245 @@
+package com.github.michalzurawski.algorithms.queues;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads whitespace separated tokens from the channel using single reusable buffer.
+ * Tokens can be skipped without creating any strings.
+ */
+public class TokenReader implements Closeable {
+  /**
+   * Default size of the read buffer in bytes.
+   */
+  private static final int BUFFER_SIZE = 1 << 16;
+  /**
+   * Channel to read from.
+   */
+  private final ReadableByteChannel channel;
+  /**
+   * Read buffer.
+   */
+  private final byte[] buffer;
+  /**
+   * Wrapper of the read buffer passed to the channel.
+   */
+  private final ByteBuffer byteBuffer;
+  /**
+   * Index of the next unread byte in the buffer.
+   */
+  private int position = 0;
+  /**
+   * Number of valid bytes in the buffer.
+   */
+  private int limit = 0;
+  /**
+   * Offset in the channel of the first byte in the buffer.
+   */
+  private long offset = 0;
+  /**
+   * Offset in the channel at which no more tokens may start.
+   */
+  private final long end;
+  /**
+   * Bytes of the token being read.
+   */
+  private byte[] token = new byte[32];
+  /**
+   * True if the end of the channel has been reached.
+   */
+  private boolean endOfInput = false;
+
+  /**
+   * Creates token reader with default buffer size.
+   *
+   * @param channel channel to read from
+   */
+  public TokenReader(final ReadableByteChannel channel) {
+    this(channel, BUFFER_SIZE);
+  }
+
+  /**
+   * Creates token reader with given buffer size.
+   *
+   * @param channel    channel to read from
+   * @param bufferSize size of the read buffer in bytes
+   */
+  public TokenReader(final ReadableByteChannel channel, final int bufferSize) {
+    if (channel == null) {
+      throw new NullPointerException();
+    }
+    if (bufferSize <= 0) {
+      throw new IllegalArgumentException();
+    }
+    this.channel = channel;
+    this.buffer = new byte[bufferSize];
+    this.byteBuffer = ByteBuffer.wrap(buffer);
+    this.end = Long.MAX_VALUE;
+  }
+
+  /**
+   * Creates token reader returning only tokens which start in the given range of the file.
+   * Token crossing the start of the range belongs to the previous range and is skipped,
+   * token crossing the end of the range is read completely.
+   * Hence adjacent ranges of the same file read every token exactly once.
+   *
+   * @param channel    file to read from
+   * @param start      offset of the first byte in the range
+   * @param end        offset after the last byte in the range
+   * @param bufferSize size of the read buffer in bytes
+   * @throws IOException when reading from the file fails
+   */
+  public TokenReader(final FileChannel channel, final long start, final long end, final int bufferSize)
+      throws IOException {
+    if (channel == null) {
+      throw new NullPointerException();
+    }
+    if (bufferSize <= 0 || start < 0 || end < start) {
+      throw new IllegalArgumentException();
+    }
+    this.channel = channel;
+    this.buffer = new byte[bufferSize];
+    this.byteBuffer = ByteBuffer.wrap(buffer);
+    this.end = end;
+    this.offset = start;
+    channel.position(start);
+    if (start > 0) {
+      final ByteBuffer previous = ByteBuffer.allocate(1);
+      if (channel.read(previous, start - 1) == 1 && !isWhitespace(previous.get(0))) {
+        skipToken();
+      }
+    }
+  }
+
+  /**
+   * Returns true if there is another token to read.
+   *
+   * @return true if there is another token
+   * @throws IOException when reading from the channel fails
+   */
+  public boolean hasNext() throws IOException {
+    return skipWhitespace();
+  }
+
+  /**
+   * Reads the next token.
+   *
+   * @return next token
+   * @throws IOException            when reading from the channel fails
+   * @throws NoSuchElementException when there are no more tokens
+   */
+  public String next() throws IOException {
+    if (!skipWhitespace()) {
+      throw new NoSuchElementException();
+    }
+    int length = 0;
+    while (position < limit || fill()) {
+      final byte value = buffer[position];
+      if (isWhitespace(value)) {
+        break;
+      }
+      if (length == token.length) {
+        final byte[] copy = new byte[length * 2];
+        System.arraycopy(token, 0, copy, 0, length);
+        token = copy;
+      }
+      token[length] = value;
+      ++length;
+      ++position;
+    }
+    return new String(token, 0, length, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Skips up to count tokens without decoding them.
+   *
+   * @param count number of tokens to skip
+   * @return number of tokens actually skipped, smaller than count only at the end of input or range
+   * @throws IOException when reading from the channel fails
+   */
+  public long skip(final long count) throws IOException {
+    long skipped = 0;
+    while (skipped < count && skipWhitespace()) {
+      skipToken();
+      ++skipped;
+    }
+    return skipped;
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  /**
+   * Moves position to the first non-whitespace byte.
+   *
+   * @return false if end of input or end of range has been reached
+   * @throws IOException when reading from the channel fails
+   */
+  private boolean skipWhitespace() throws IOException {
+    while (position < limit || fill()) {
+      if (!isWhitespace(buffer[position])) {
+        return offset + position < end;
+      }
+      ++position;
+    }
+    return false;
+  }
+
+  /**
+   * Moves position to the first whitespace byte.
+   *
+   * @throws IOException when reading from the channel fails
+   */
+  private void skipToken() throws IOException {
+    while (position < limit || fill()) {
+      if (isWhitespace(buffer[position])) {
+        return;
+      }
+      ++position;
+    }
+  }
+
+  /**
+   * Fills the buffer with the next chunk of data.
+   *
+   * @return false if end of input has been reached
+   * @throws IOException when reading from the channel fails
+   */
+  private boolean fill() throws IOException {
+    if (endOfInput) {
+      return false;
+    }
+    offset += limit;
+    byteBuffer.clear();
+    int read = 0;
+    while (read == 0) {
+      read = channel.read(byteBuffer);
+    }
+    if (read < 0) {
+      endOfInput = true;
+      position = 0;
+      limit = 0;
+      return false;
+    }
+    position = 0;
+    limit = read;
+    return true;
+  }
+
+  /**
+   * Returns true if byte is an ASCII whitespace.
+   *
+   * @param value byte to check
+   * @return true if value is whitespace
+   */
+  private static boolean isWhitespace(final byte value) {
+    return value == ' ' || value == '\n' || value == '\t' || value == '\r' || value == '\f' || value == 0x0B;
+  }
+}
@@ -0,0 +1,314 @@
+package com.github.michalzurawski.algorithms.queues;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Class representing double-ended queue (deque).
+ * All operations run in constant time.
+ * Implemented as an unrolled list: each node holds a chunk of elements,
+ * so a node is allocated once per many additions and iteration walks contiguous arrays.
+ * Drained nodes are kept in a small pool and reused instead of being garbage collected.
+ * Iterators stay valid while elements are added and removed at both ends: every element has a position
+ * counted from the first element ever added, so an iterator returns elements at increasing positions,
+ * skipping the ones removed from the front and including the ones added to the end.
+ * Every node carries a generation increased when it is drained, so an iterator notices that its node
+ * has been reused and finds its position again.
+ *
+ * @param <Item> the type of elements held in this collection
+ */
+public class UnrolledDeque<Item> implements Iterable<Item> {
+  /**
+   * Number of elements held by a single node.
+   */
+  private static final int CHUNK_SIZE = 64;
+  /**
+   * Maximal number of drained nodes kept for reuse.
+   */
+  private static final int POOL_SIZE = 4;
+
+  /**
+   * Node of the list holding elements in range [start, end) of its chunk.
+   *
+   * @param <Item> the type of elements held in this collection
+   */
+  private static final class Node<Item> {
+    /**
+     * Next node on the list.
+     */
+    private Node<Item> next;
+    /**
+     * Previous node on the list.
+     */
+    private Node<Item> prev;
+    /**
+     * Values stored in the current node.
+     */
+    private final Item[] values = (Item[]) new Object[CHUNK_SIZE];
+    /**
+     * Index of the first value.
+     */
+    private int start;
+    /**
+     * Index after the last value.
+     */
+    private int end;
+    /**
+     * Number of times the node has been drained.
+     */
+    private int generation;
+  }
+
+  /**
+   * First node on the list.
+   */
+  private Node<Item> first;
+  /**
+   * Last node on the list.
+   */
+  private Node<Item> last;
+  /**
+   * Drained nodes kept for reuse.
+   */
+  private final Node<Item>[] pool = (Node<Item>[]) new Node[POOL_SIZE];
+  /**
+   * Number of nodes in the pool.
+   */
+  private int poolSize = 0;
+  /**
+   * Number of elements on the list.
+   */
+  private int size = 0;
+  /**
+   * Position of the first element, decreased by addFirst and increased by removeFirst.
+   */
+  private long firstPosition = 0;
+
+  /**
+   * Returns true if this deque contains no elements.
+   *
+   * @return true if deque is empty
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Returns number of elements stored in this deque.
+   *
+   * @return number of elements in this deque
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Adds element to the front of the deque.
+   *
+   * @param item value to be stored
+   */
+  public void addFirst(final Item item) {
+    if (item == null) {
+      throw new NullPointerException();
+    }
+    if (first == null) {
+      first = newNode(CHUNK_SIZE / 2);
+      last = first;
+    } else if (first.start == 0) {
+      final Node<Item> node = newNode(CHUNK_SIZE);
+      node.next = first;
+      first.prev = node;
+      first = node;
+    }
+    --first.start;
+    first.values[first.start] = item;
+    ++size;
+    --firstPosition;
+  }
+
+  /**
+   * Adds element to the end of the deque.
+   *
+   * @param item value to be stored
+   */
+  public void addLast(final Item item) {
+    if (item == null) {
+      throw new NullPointerException();
+    }
+    if (last == null) {
+      last = newNode(CHUNK_SIZE / 2);
+      first = last;
+    } else if (last.end == CHUNK_SIZE) {
+      final Node<Item> node = newNode(0);
+      node.prev = last;
+      last.next = node;
+      last = node;
+    }
+    last.values[last.end] = item;
+    ++last.end;
+    ++size;
+  }
+
+  /**
+   * Removes element from the front of the deque.
+   *
+   * @return value of removed element
+   * @throws NoSuchElementException when deque is empty
+   */
+  public Item removeFirst() {
+    if (first == null) {
+      throw new NoSuchElementException();
+    }
+    final Node<Item> node = first;
+    final Item value = node.values[node.start];
+    node.values[node.start] = null;
+    ++node.start;
+    --size;
+    ++firstPosition;
+    if (node.start == node.end) {
+      first = node.next;
+      if (first != null) {
+        first.prev = null;
+      } else {
+        last = null;
+      }
+      release(node);
+    }
+    return value;
+  }
+
+  /**
+   * Removes element from the end of the deque.
+   *
+   * @return value of removed element
+   * @throws NoSuchElementException when deque is empty
+   */
+  public Item removeLast() {
+    if (last == null) {
+      throw new NoSuchElementException();
+    }
+    final Node<Item> node = last;
+    --node.end;
+    final Item value = node.values[node.end];
+    node.values[node.end] = null;
+    --size;
+    if (node.start == node.end) {
+      last = node.prev;
+      if (last != null) {
+        last.next = null;
+      } else {
+        first = null;
+      }
+      release(node);
+    }
+    return value;
+  }
+
+  /**
+   * Returns empty node taken from the pool or allocated.
+   *
+   * @param offset start and end of the empty node
+   * @return empty node
+   */
+  private Node<Item> newNode(final int offset) {
+    final Node<Item> node;
+    if (poolSize > 0) {
+      --poolSize;
+      node = pool[poolSize];
+      pool[poolSize] = null;
+    } else {
+      node = new Node<>();
+    }
+    node.start = offset;
+    node.end = offset;
+    return node;
+  }
+
+  /**
+   * Returns drained node to the pool if there is space.
+   *
+   * @param node drained node
+   */
+  private void release(final Node<Item> node) {
+    node.next = null;
+    node.prev = null;
+    ++node.generation;
+    if (poolSize < POOL_SIZE) {
+      pool[poolSize] = node;
+      ++poolSize;
+    }
+  }
+
+  /**
+   * Iterator from the beginning of the list which stays valid while both ends change.
+   */
+  private final class UnrolledDequeIterator implements Iterator<Item> {
+    /**
+     * Node holding the next value, or null if it has to be found.
+     */
+    private Node<Item> node;
+    /**
+     * Generation of the node when the iterator reached it.
+     */
+    private int generation;
+    /**
+     * Index of the next value in the node, may be the end of the node.
+     */
+    private int index;
+    /**
+     * Position of the next value.
+     */
+    private long position = firstPosition;
+
+    @Override
+    public boolean hasNext() {
+      return Math.max(position, firstPosition) < firstPosition + size;
+    }
+
+    @Override
+    public Item next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      if (position < firstPosition || node == null || node.generation != generation) {
+        locate();
+      } else if (index == node.end) {
+        // only the last node is not full, so the next value is at the start of the next node
+        node = node.next;
+        generation = node.generation;
+        index = node.start;
+      }
+      final Item value = node.values[index];
+      ++index;
+      ++position;
+      return value;
+    }
+
+    /**
+     * Finds the node and the index of the next value, skipping values removed from the front.
+     * The node is lost only when it has been drained, so the value is searched for from the nearer end.
+     * Complexity: O(n / CHUNK_SIZE)
+     */
+    private void locate() {
+      if (position <= firstPosition) {
+        position = firstPosition;
+        node = first;
+        index = first.start;
+      } else {
+        long after = firstPosition + size - 1 - position;
+        node = last;
+        while (after >= node.end - node.start) {
+          after -= node.end - node.start;
+          node = node.prev;
+        }
+        index = node.end - 1 - (int) after;
+      }
+      generation = node.generation;
+    }
+  }
+
+  @Override
+  public Iterator<Item> iterator() {
+    return new UnrolledDequeIterator();
+  }
+}
@@ -0,0 +1,379 @@
+package com.github.michalzurawski.algorithms.queues;
+
+import edu.princeton.cs.algs4.StdRandom;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Class representing weighted randomized queue.
+ * The item removed is chosen at random with probability proportional to its weight.
+ * Items are stored in slots of the resizing array, the slot is returned by enqueue
+ * and stays valid until the item is removed so it can be used to update the weight.
+ * Prefix sums of weights are kept in a Fenwick tree hence dequeue, sample and weight update
+ * run in O(log n) time, enqueue runs in constant amortized time.
+ * Items never move between slots, so freed slots are reused by later items and the arrays shrink only when
+ * the free slots are at the end. An item left in a high slot keeps the arrays as large as its slot requires.
+ *
+ * @param <Item> the type of elements held in this collection
+ */
+public class WeightedRandomizedQueue<Item> {
+  /**
+   * Fraction of a removed weight below which the remaining total has lost too many bits and the tree is rebuilt.
+   */
+  private static final double CANCELLATION = 0x1p-20;
+  /**
+   * Stored values, null marks free slot.
+   */
+  private Item[] values = (Item[]) new Object[2];
+  /**
+   * Weights of stored values, 0 for free slots.
+   */
+  private double[] weights = new double[2];
+  /**
+   * Fenwick tree of weights (1-based).
+   * Length of the values array is always the power of two so the last element is the total weight.
+   */
+  private double[] tree = new double[3];
+  /**
+   * Stack of free slots below used.
+   */
+  private int[] free = new int[2];
+  /**
+   * Index of every free slot on the stack, so the slot can be taken off the stack when used shrinks.
+   */
+  private int[] freeIndex = new int[2];
+  /**
+   * Number of free slots on the stack.
+   */
+  private int freeCount = 0;
+  /**
+   * Number of slots up to the last occupied one.
+   */
+  private int used = 0;
+  /**
+   * Number of stored values.
+   */
+  private int size = 0;
+  /**
+   * Number of updates of the tree since it was rebuilt, used to bound the rounding error.
+   */
+  private int updates = 0;
+
+  /**
+   * Returns true if queue is empty.
+   *
+   * @return true if empty
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Return the number of items on the queue.
+   *
+   * @return number of items
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the sum of weights of all items on the queue.
+   *
+   * @return total weight
+   */
+  public double totalWeight() {
+    return size == 0 ? 0 : tree[values.length];
+  }
+
+  /**
+   * Adds item with given weight to the queue.
+   *
+   * @param item   item to be added
+   * @param weight positive weight of the item
+   * @return slot of the item valid until it is removed
+   */
+  public int enqueue(final Item item, final double weight) {
+    if (item == null) {
+      throw new NullPointerException();
+    }
+    checkWeight(weight);
+    final int slot;
+    if (freeCount > 0) {
+      --freeCount;
+      slot = free[freeCount];
+    } else {
+      if (used == values.length) {
+        resize(used * 2);
+      }
+      slot = used;
+      ++used;
+    }
+    values[slot] = item;
+    weights[slot] = weight;
+    add(slot, weight);
+    ++size;
+    return slot;
+  }
+
+  /**
+   * Returns the weight of the item in the slot.
+   *
+   * @param slot slot of the item
+   * @return weight of the item
+   */
+  public double weight(final int slot) {
+    checkSlot(slot);
+    return weights[slot];
+  }
+
+  /**
+   * Changes the weight of the item in the slot.
+   * Complexity: O(log n)
+   *
+   * @param slot   slot of the item
+   * @param weight new positive weight of the item
+   */
+  public void setWeight(final int slot, final double weight) {
+    checkSlot(slot);
+    checkWeight(weight);
+    // the weight is stored first, add may rebuild the tree from weights
+    final double delta = weight - weights[slot];
+    weights[slot] = weight;
+    add(slot, delta);
+  }
+
+  /**
+   * Removes and returns a random item from the queue chosen with probability proportional to its weight.
+   * Complexity: O(log n)
+   *
+   * @return removed item
+   */
+  public Item dequeue() {
+    if (size == 0) {
+      throw new NoSuchElementException();
+    }
+    final int slot = randomSlot();
+    final Item temp = values[slot];
+    values[slot] = null;
+    final double weight = weights[slot];
+    weights[slot] = 0;
+    add(slot, -weight);
+    --size;
+    if (slot == used - 1) {
+      trim();
+    } else {
+      free[freeCount] = slot;
+      freeIndex[slot] = freeCount;
+      ++freeCount;
+    }
+    return temp;
+  }
+
+  /**
+   * Returns but does not remove a random item chosen with probability proportional to its weight.
+   * Complexity: O(log n)
+   *
+   * @return random item from the queue
+   */
+  public Item sample() {
+    if (size == 0) {
+      throw new NoSuchElementException();
+    }
+    return values[randomSlot()];
+  }
+
+  /**
+   * Chooses k distinct items without replacement using Efraimidis-Spirakis keys u^(1/weight).
+   * Items with k largest keys are chosen and written to the output array in no particular order.
+   * Complexity: O(n log k)
+   *
+   * @param k   number of items to choose
+   * @param out array to store chosen items, of length at least min(k, size)
+   * @return number of chosen items, min(k, size)
+   */
+  public int sample(final int k, final Item[] out) {
+    if (k < 0) {
+      throw new IllegalArgumentException();
+    }
+    final int count = Math.min(k, size);
+    if (out.length < count) {
+      throw new IllegalArgumentException();
+    }
+    if (count == 0) {
+      return 0;
+    }
+    // min-heap of the largest keys, log(u) / weight is monotone in u^(1/weight)
+    final double[] keys = new double[count];
+    final int[] slots = new int[count];
+    int heapSize = 0;
+    for (int slot = 0; slot < used; ++slot) {
+      if (values[slot] == null) {
+        continue;
+      }
+      final double key = Math.log(1 - StdRandom.uniform()) / weights[slot];
+      if (heapSize < count) {
+        int child = heapSize;
+        ++heapSize;
+        while (child > 0 && keys[(child - 1) / 2] > key) {
+          keys[child] = keys[(child - 1) / 2];
+          slots[child] = slots[(child - 1) / 2];
+          child = (child - 1) / 2;
+        }
+        keys[child] = key;
+        slots[child] = slot;
+      } else if (key > keys[0]) {
+        int parent = 0;
+        while (true) {
+          int child = parent * 2 + 1;
+          if (child >= count) {
+            break;
+          }
+          if (child + 1 < count && keys[child + 1] < keys[child]) {
+            ++child;
+          }
+          if (keys[child] >= key) {
+            break;
+          }
+          keys[parent] = keys[child];
+          slots[parent] = slots[child];
+          parent = child;
+        }
+        keys[parent] = key;
+        slots[parent] = slot;
+      }
+    }
+    for (int i = 0; i < count; ++i) {
+      out[i] = values[slots[i]];
+    }
+    return count;
+  }
+
+  /**
+   * Finds random slot with probability proportional to its weight by descending the Fenwick tree.
+   * A draw which misses occupied slots means that rounding errors have accumulated in the tree,
+   * e.g. the total weight cancelled out after a dominant weight was removed, so the tree is rebuilt.
+   *
+   * @return random occupied slot
+   */
+  private int randomSlot() {
+    final int capacity = values.length;
+    while (true) {
+      double remaining = StdRandom.uniform() * tree[capacity];
+      int position = 0;
+      for (int step = capacity; step > 0; step >>= 1) {
+        final int next = position + step;
+        if (next <= capacity && tree[next] <= remaining) {
+          position = next;
+          remaining -= tree[next];
+        }
+      }
+      if (position < used && values[position] != null) {
+        return position;
+      }
+      rebuild();
+    }
+  }
+
+  /**
+   * Adds delta to the weight of the slot in the Fenwick tree.
+   * The new weight must already be stored in weights as the tree may be rebuilt from them.
+   *
+   * @param slot  slot to update
+   * @param delta difference of the weight
+   */
+  private void add(final int slot, final double delta) {
+    final int capacity = values.length;
+    for (int i = slot + 1; i <= capacity; i += i & -i) {
+      tree[i] += delta;
+    }
+    ++updates;
+    // removing a weight much larger than what is left cancels the significant bits of the total
+    if (updates > capacity || tree[capacity] < Math.abs(delta) * CANCELLATION) {
+      rebuild();
+    }
+  }
+
+  /**
+   * Frees the last slot: lowers used below trailing free slots, taking them off the stack,
+   * and halves the arrays while used is at most a quarter of their length.
+   * Complexity: O(1) amortized
+   */
+  private void trim() {
+    --used;
+    while (used > 0 && values[used - 1] == null) {
+      --used;
+      final int index = freeIndex[used];
+      --freeCount;
+      free[index] = free[freeCount];
+      freeIndex[free[index]] = index;
+    }
+    int length = values.length;
+    while (length > 2 && used <= length / 4) {
+      length /= 2;
+    }
+    if (length < values.length) {
+      resize(length);
+    }
+  }
+
+  /**
+   * Rebuilds the Fenwick tree from weights in linear time dropping accumulated rounding errors.
+   */
+  private void rebuild() {
+    final int capacity = values.length;
+    tree[0] = 0;
+    System.arraycopy(weights, 0, tree, 1, capacity);
+    for (int i = 1; i <= capacity; ++i) {
+      final int parent = i + (i & -i);
+      if (parent <= capacity) {
+        tree[parent] += tree[i];
+      }
+    }
+    updates = 0;
+  }
+
+  /**
+   * Resize the arrays to expected size.
+   *
+   * @param expectedSize size to resize the arrays, power of two
+   */
+  private void resize(final int expectedSize) {
+    final Item[] copy = (Item[]) new Object[expectedSize];
+    System.arraycopy(values, 0, copy, 0, used);
+    values = copy;
+    final double[] weightsCopy = new double[expectedSize];
+    System.arraycopy(weights, 0, weightsCopy, 0, used);
+    weights = weightsCopy;
+    final int[] freeCopy = new int[expectedSize];
+    System.arraycopy(free, 0, freeCopy, 0, freeCount);
+    free = freeCopy;
+    final int[] freeIndexCopy = new int[expectedSize];
+    System.arraycopy(freeIndex, 0, freeIndexCopy, 0, used);
+    freeIndex = freeIndexCopy;
+    tree = new double[expectedSize + 1];
+    rebuild();
+  }
+
+  /**
+   * Throws an exception if the slot is not occupied.
+   *
+   * @param slot slot to check
+   */
+  private void checkSlot(final int slot) {
+    if (slot < 0 || slot >= used || values[slot] == null) {
+      throw new IllegalArgumentException();
+    }
+  }
+
+  /**
+   * Throws an exception if the weight is not positive and finite.
+   *
+   * @param weight weight to check
+   */
+  private static void checkWeight(final double weight) {
+    if (!(weight > 0) || Double.isInfinite(weight)) {
+      throw new IllegalArgumentException();
+    }
+  }
+}
@@ -0,0 +1,92 @@
+package com.github.michalzurawski.algorithms.queues
+
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+
+class BoundedBlockingDequeSpec extends Specification {
+  def "should be initially empty"() {
+    given:
+    BoundedBlockingDeque<Integer> deque = new BoundedBlockingDeque<>(4)
+    when:
+    boolean isEmpty = deque.isEmpty()
+    then:
+    isEmpty
+    deque.capacity() == 4
+  }
+
+  def "should take elements from both ends"() {
+    given:
+    BoundedBlockingDeque<Integer> deque = new BoundedBlockingDeque<>(4)
+    deque.putLast(2)
+    deque.putLast(4)
+    deque.putFirst(8)
+    when:
+    int first = deque.takeFirst()
+    int last = deque.takeLast()
+    then:
+    first == 8
+    last == 4
+    deque.size() == 1
+  }
+
+  def "should time out when offering to the full deque"() {
+    given:
+    BoundedBlockingDeque<Integer> deque = new BoundedBlockingDeque<>(1)
+    deque.putLast(1)
+    when:
+    boolean added = deque.offerLast(2, 1, TimeUnit.MILLISECONDS)
+    then:
+    !added
+    deque.size() == 1
+  }
+
+  def "should time out when polling from the empty deque"() {
+    given:
+    BoundedBlockingDeque<Integer> deque = new BoundedBlockingDeque<>(1)
+    when:
+    Integer result = deque.pollFirst(1, TimeUnit.MILLISECONDS)
+    then:
+    result == null
+  }
+
+  def "should drain elements in order"() {
+    given:
+    BoundedBlockingDeque<Integer> deque = new BoundedBlockingDeque<>(4)
+    deque.putLast(1)
+    deque.takeFirst()
+    deque.putAll([2, 4, 8] as Integer[])
+    Integer[] out = new Integer[4]
+    when:
+    int count = deque.drainTo(out, 4)
+    then:
+    count == 3
+    out[0..2] == [2, 4, 8]
+    deque.isEmpty()
+  }
+
+  def "should pass all elements between threads"() {
+    given:
+    BoundedBlockingDeque<Integer> deque = new BoundedBlockingDeque<>(16)
+    Integer[] batch = (0..<100).toList() as Integer[]
+    Thread producer = Thread.start {
+      100.times { deque.putAll(batch) }
+    }
+    when:
+    long sum = 0
+    10000.times { sum += deque.takeFirst() }
+    producer.join()
+    then:
+    sum == 100 * 4950
+    deque.isEmpty()
+  }
+
+  def "should throw an error when adding null"() {
+    given:
+    BoundedBlockingDeque<Integer> deque = new BoundedBlockingDeque<>(4)
+    when:
+    deque.putLast(null)
+    then:
+    thrown(NullPointerException)
+  }
+}
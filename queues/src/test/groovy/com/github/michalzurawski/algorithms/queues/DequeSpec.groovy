@@ -2,6 +2,8 @@ package com.github.michalzurawski.algorithms.queues
 
 import spock.lang.Specification
 
+import java.util.stream.Collectors
+
 class DequeSpec extends Specification {
   def "should be initially empty"() {
     given:
@@ -194,4 +196,27 @@ class DequeSpec extends Specification {
     then:
     thrown(NoSuchElementException)
   }
+
+  def "should report exact size of split parts"() {
+    given:
+    Deque<Integer> deque = new Deque<>()
+    (0..<10).each { deque.addLast(it) }
+    Spliterator<Integer> suffix = deque.spliterator()
+    when:
+    Spliterator<Integer> prefix = suffix.trySplit()
+    then:
+    prefix.estimateSize() == 5
+    suffix.estimateSize() == 5
+    suffix.hasCharacteristics(Spliterator.SUBSIZED)
+  }
+
+  def "should stream elements in order in parallel"() {
+    given:
+    Deque<Integer> deque = new Deque<>()
+    (0..<10000).each { deque.addLast(it) }
+    when:
+    List<Integer> result = deque.parallelStream().map { it * 2 }.collect(Collectors.toList())
+    then:
+    result == (0..<10000).collect { it * 2 }
+  }
 }
@@ -0,0 +1,67 @@
+package com.github.michalzurawski.algorithms.queues
+
+import spock.lang.Specification
+
+class MergeableReservoirSpec extends Specification {
+  private static MergeableReservoir<Integer> reservoir(int k, List<Integer> population) {
+    ReservoirSampler<Integer> sampler = new ReservoirSampler<>(k)
+    population.each { sampler.add(it) }
+    return sampler.toReservoir()
+  }
+
+  def "should be initially empty"() {
+    given:
+    MergeableReservoir<Integer> reservoir = new MergeableReservoir<>(3)
+    when:
+    int size = reservoir.size()
+    then:
+    size == 0
+    reservoir.count() == 0
+  }
+
+  def "should merge reservoirs of small populations"() {
+    given:
+    MergeableReservoir<Integer> first = reservoir(5, [1, 2])
+    MergeableReservoir<Integer> second = reservoir(5, [3, 4])
+    when:
+    first.merge(second)
+    then:
+    first.count() == 4
+    first.sample().toList().sort() == [1, 2, 3, 4]
+  }
+
+  def "should keep at most k items after merge"() {
+    given:
+    MergeableReservoir<Integer> first = reservoir(3, (0..<10).toList())
+    MergeableReservoir<Integer> second = reservoir(3, (10..<30).toList())
+    when:
+    first.merge(second)
+    then:
+    first.count() == 30
+    first.size() == 3
+    first.sample().every { it >= 0 && it < 30 }
+  }
+
+  def "should weight reservoirs by population size"() {
+    given:
+    int fromFirst = 0
+    when:
+    10000.times {
+      MergeableReservoir<Integer> first = reservoir(1, [0])
+      first.merge(reservoir(1, [1, 2, 3]))
+      fromFirst += first.sample().sample() == 0 ? 1 : 0
+    }
+    then:
+    fromFirst > 2200 && fromFirst < 2800
+  }
+
+  def "should throw an error when sample size does not match population"() {
+    given:
+    RandomizedQueue<Integer> sample = new RandomizedQueue<>()
+    sample.enqueue(1)
+    when:
+    new MergeableReservoir<>(3, sample, 2)
+    then:
+    thrown(IllegalArgumentException)
+  }
+}
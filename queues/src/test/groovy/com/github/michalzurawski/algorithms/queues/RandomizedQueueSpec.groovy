@@ -126,4 +126,167 @@ class RandomizedQueueSpec extends Specification {
     then:
     thrown(NoSuchElementException)
   }
+
+  def "should enqueue all elements"() {
+    given:
+    RandomizedQueue<Integer> randomizedQueue = new RandomizedQueue<>()
+    randomizedQueue.enqueue(1)
+    when:
+    randomizedQueue.enqueueAll([2, 4, 8, 16, 32] as Integer[])
+    then:
+    randomizedQueue.size() == 6
+    randomizedQueue.toList().sort() == [1, 2, 4, 8, 16, 32]
+  }
+
+  def "should throw an error when enqueue all contains null"() {
+    given:
+    RandomizedQueue<Integer> randomizedQueue = new RandomizedQueue<>()
+    when:
+    randomizedQueue.enqueueAll([2, null] as Integer[])
+    then:
+    thrown(NullPointerException)
+    randomizedQueue.isEmpty()
+  }
+
+  def "should dequeue k distinct elements"() {
+    given:
+    RandomizedQueue<Integer> randomizedQueue = new RandomizedQueue<>()
+    randomizedQueue.enqueueAll((0..<10).toList() as Integer[])
+    Integer[] out = new Integer[4]
+    when:
+    int count = randomizedQueue.dequeue(4, out)
+    then:
+    count == 4
+    randomizedQueue.size() == 6
+    (out.toList() + randomizedQueue.toList()).sort() == (0..<10).toList()
+  }
+
+  def "should dequeue at most size elements"() {
+    given:
+    RandomizedQueue<Integer> randomizedQueue = new RandomizedQueue<>()
+    randomizedQueue.enqueueAll([2, 4] as Integer[])
+    Integer[] out = new Integer[5]
+    when:
+    int count = randomizedQueue.dequeue(5, out)
+    then:
+    count == 2
+    randomizedQueue.isEmpty()
+  }
+
+  def "should get k distinct sample elements"() {
+    given:
+    RandomizedQueue<Integer> randomizedQueue = new RandomizedQueue<>()
+    randomizedQueue.enqueueAll((0..<10).toList() as Integer[])
+    Integer[] out = new Integer[4]
+    when:
+    int count = randomizedQueue.sample(4, out)
+    then:
+    count == 4
+    randomizedQueue.size() == 10
+    out.toList().toSet().size() == 4
+  }
+
+  def "should drain all elements to collection"() {
+    given:
+    RandomizedQueue<Integer> randomizedQueue = new RandomizedQueue<>()
+    randomizedQueue.enqueueAll([2, 4, 8] as Integer[])
+    List<Integer> result = []
+    when:
+    int count = randomizedQueue.drainTo(result)
+    then:
+    count == 3
+    result.sort() == [2, 4, 8]
+    randomizedQueue.isEmpty()
+  }
+
+  def "should shrink the array when a quarter full"() {
+    given:
+    RandomizedQueue<Integer> randomizedQueue = new RandomizedQueue<>()
+    (0..<1024).each { randomizedQueue.enqueue(it) }
+    when:
+    (0..<1000).each { randomizedQueue.dequeue() }
+    then:
+    randomizedQueue.capacity() == 64
+  }
+
+  def "should shrink the array after dequeue of many elements"() {
+    given:
+    RandomizedQueue<Integer> randomizedQueue = new RandomizedQueue<>()
+    (0..<1024).each { randomizedQueue.enqueue(it) }
+    when:
+    randomizedQueue.dequeue(1020, new Integer[1020])
+    then:
+    // 4 items fill a quarter of 16, so the array is not shrunk further
+    randomizedQueue.capacity() == 16
+  }
+
+  def "should never shrink below initial capacity"() {
+    given:
+    RandomizedQueue<Integer> randomizedQueue = new RandomizedQueue<>(100)
+    (0..<1000).each { randomizedQueue.enqueue(it) }
+    when:
+    (0..<1000).each { randomizedQueue.dequeue() }
+    then:
+    randomizedQueue.capacity() == 100
+  }
+
+  def "should grow by the growth factor"() {
+    given:
+    RandomizedQueue<Integer> randomizedQueue = new RandomizedQueue<>(10, 1.5, 0.5)
+    when:
+    (0..<11).each { randomizedQueue.enqueue(it) }
+    then:
+    randomizedQueue.capacity() == 15
+  }
+
+  def "should trim to size"() {
+    given:
+    RandomizedQueue<Integer> randomizedQueue = new RandomizedQueue<>()
+    (0..<5).each { randomizedQueue.enqueue(it) }
+    when:
+    randomizedQueue.trimToSize()
+    then:
+    randomizedQueue.capacity() == 5
+    randomizedQueue.toList().sort() == [0, 1, 2, 3, 4]
+  }
+
+  def "should ensure capacity"() {
+    given:
+    RandomizedQueue<Integer> randomizedQueue = new RandomizedQueue<>()
+    when:
+    randomizedQueue.ensureCapacity(1000)
+    then:
+    randomizedQueue.capacity() == 1000
+    randomizedQueue.footprint() > 4000
+  }
+
+  def "should throw an error when shrink load does not leave hysteresis"() {
+    when:
+    new RandomizedQueue<Integer>(2, 2, 0.5)
+    then:
+    thrown(IllegalArgumentException)
+  }
+
+  def "should report exact size of split parts"() {
+    given:
+    RandomizedQueue<Integer> randomizedQueue = new RandomizedQueue<>()
+    (0..<10).each { randomizedQueue.enqueue(it) }
+    Spliterator<Integer> suffix = randomizedQueue.spliterator()
+    when:
+    Spliterator<Integer> prefix = suffix.trySplit()
+    then:
+    prefix.estimateSize() + suffix.estimateSize() == 10
+    suffix.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED)
+  }
+
+  def "should reduce all elements in parallel"() {
+    given:
+    RandomizedQueue<Integer> randomizedQueue = new RandomizedQueue<>()
+    (0..<10000).each { randomizedQueue.enqueue(it) }
+    when:
+    long sum = randomizedQueue.parallelStream().mapToLong { it }.sum()
+    then:
+    sum == 49995000
+    randomizedQueue.size() == 10000
+  }
 }
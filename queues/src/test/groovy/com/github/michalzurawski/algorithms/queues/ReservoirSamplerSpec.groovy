@@ -0,0 +1,106 @@
+package com.github.michalzurawski.algorithms.queues
+
+import spock.lang.Specification
+
+class ReservoirSamplerSpec extends Specification {
+  def "should keep all items when stream is shorter than k"() {
+    given:
+    ReservoirSampler<Integer> sampler = new ReservoirSampler<>(5)
+    when:
+    sampler.add(2)
+    sampler.add(4)
+    sampler.add(8)
+    then:
+    sampler.size() == 3
+    sampler.count() == 3
+    sampler.sample().toList().sort() == [2, 4, 8]
+  }
+
+  def "should not skip items while reservoir is filling"() {
+    given:
+    ReservoirSampler<Integer> sampler = new ReservoirSampler<>(3)
+    when:
+    sampler.add(1)
+    sampler.add(2)
+    then:
+    sampler.gap() == 0
+  }
+
+  def "should choose exactly k distinct items"() {
+    given:
+    ReservoirSampler<Integer> sampler = new ReservoirSampler<>(10)
+    when:
+    (0..<1000).each { sampler.add(it) }
+    then:
+    sampler.size() == 10
+    sampler.count() == 1000
+    sampler.sample().toSet().size() == 10
+  }
+
+  def "should count skipped items"() {
+    given:
+    ReservoirSampler<Integer> sampler = new ReservoirSampler<>(1)
+    sampler.add(1)
+    long gap = sampler.gap()
+    when:
+    sampler.skip(gap)
+    then:
+    sampler.count() == 1 + gap
+    sampler.gap() == 0
+  }
+
+  def "should choose nothing when k is 0"() {
+    given:
+    ReservoirSampler<Integer> sampler = new ReservoirSampler<>(0)
+    when:
+    sampler.add(1)
+    then:
+    sampler.size() == 0
+  }
+
+  def "should choose every item with the same probability"() {
+    given:
+    int[] histogram = new int[10]
+    when:
+    10000.times {
+      ReservoirSampler<Integer> sampler = new ReservoirSampler<>(2)
+      (0..<10).each { sampler.add(it) }
+      sampler.sample().each { histogram[it]++ }
+    }
+    then:
+    histogram.every { it > 1700 && it < 2300 }
+  }
+
+  def "should throw an error when skipping more than gap"() {
+    given:
+    ReservoirSampler<Integer> sampler = new ReservoirSampler<>(2)
+    when:
+    sampler.skip(1)
+    then:
+    thrown(IllegalArgumentException)
+  }
+
+  def "should throw an error when adding null"() {
+    given:
+    ReservoirSampler<Integer> sampler = new ReservoirSampler<>(2)
+    when:
+    sampler.add(null)
+    then:
+    thrown(NullPointerException)
+  }
+
+  def "should not wrap next position when weight is #w"() {
+    when:
+    long result = ReservoirSampler.nextPosition(1000, 0.5, w)
+    then:
+    result >= 1000
+
+    where:
+    w << [1e-20, 1e-17, Double.MIN_VALUE, 0.0d, 1e-10, 0.5]
+  }
+
+  def "should skip about log(u) / log(1 - w) items for tiny weight"() {
+    expect:
+    ReservoirSampler.nextPosition(0, 0.5, 1e-17) == (long) Math.floor(Math.log(0.5) / Math.log1p(-1e-17))
+  }
+}
@@ -0,0 +1,47 @@
+package com.github.michalzurawski.algorithms.queues
+
+import spock.lang.Specification
+
+import java.nio.file.Files
+import java.nio.file.Path
+
+class ShardedSamplerSpec extends Specification {
+  private static Path file(String content) {
+    Path path = Files.createTempFile("sharded", ".txt")
+    path.toFile().deleteOnExit()
+    Files.write(path, content.getBytes("UTF-8"))
+    return path
+  }
+
+  def "should read every token exactly once regardless of number of shards"() {
+    given:
+    Path path = file((0..<50).collect { "token" + it }.join(" \n"))
+    when:
+    MergeableReservoir<String> reservoir = ShardedSampler.sample(path, 100, shards)
+    then:
+    reservoir.count() == 50
+    reservoir.sample().toSet() == (0..<50).collect { "token" + it }.toSet()
+    where:
+    shards << [1, 2, 3, 7, 64, 500]
+  }
+
+  def "should choose k tokens"() {
+    given:
+    Path path = file("A B C D E F G H I")
+    when:
+    MergeableReservoir<String> reservoir = ShardedSampler.sample(path, 3, 4)
+    then:
+    reservoir.size() == 3
+    reservoir.sample().toSet().size() == 3
+  }
+
+  def "should sample empty file"() {
+    given:
+    Path path = file("")
+    when:
+    MergeableReservoir<String> reservoir = ShardedSampler.sample(path, 3, 4)
+    then:
+    reservoir.size() == 0
+    reservoir.count() == 0
+  }
+}
@@ -0,0 +1,171 @@
+package com.github.michalzurawski.algorithms.queues
+
+import spock.lang.Specification
+
+import java.nio.file.Files
+import java.nio.file.Path
+
+class SpillingDequeSpec extends Specification {
+  private static final Serializer<String> SERIALIZER = [
+      serialize  : { String value -> value.getBytes("UTF-8") },
+      deserialize: { byte[] bytes -> new String(bytes, "UTF-8") }
+  ] as Serializer<String>
+
+  private Path directory = Files.createTempDirectory("spilling")
+
+  def cleanup() {
+    directory.toFile().deleteDir()
+  }
+
+  def "should be initially empty"() {
+    given:
+    SpillingDeque<String> deque = new SpillingDeque<>(directory, SERIALIZER, 64, 2)
+    when:
+    boolean isEmpty = deque.isEmpty()
+    then:
+    isEmpty
+    deque.size() == 0
+  }
+
+  def "should remove elements from the front when added to the end"() {
+    given:
+    SpillingDeque<String> deque = new SpillingDeque<>(directory, SERIALIZER, 64, 2)
+    (0..<100).each { deque.addLast("value" + it) }
+    when:
+    List<String> result = (0..<100).collect { deque.removeFirst() }
+    then:
+    result == (0..<100).collect { "value" + it }
+    deque.isEmpty()
+  }
+
+  def "should remove elements from the end when added to the front"() {
+    given:
+    SpillingDeque<String> deque = new SpillingDeque<>(directory, SERIALIZER, 64, 2)
+    (0..<100).each { deque.addFirst("value" + it) }
+    when:
+    List<String> result = (0..<100).collect { deque.removeLast() }
+    then:
+    result == (0..<100).collect { "value" + it }
+    deque.isEmpty()
+  }
+
+  def "should behave as a deque when elements are added to both ends"() {
+    given:
+    SpillingDeque<String> deque = new SpillingDeque<>(directory, SERIALIZER, 64, 1)
+    java.util.Deque<String> expected = new ArrayDeque<>()
+    Random random = new Random(0)
+    when:
+    5000.times {
+      String value = "value" + it
+      switch (random.nextInt(4)) {
+        case 0:
+          deque.addFirst(value)
+          expected.addFirst(value)
+          break
+        case 1:
+          deque.addLast(value)
+          expected.addLast(value)
+          break
+        case 2:
+          if (!expected.isEmpty()) {
+            assert deque.removeFirst() == expected.removeFirst()
+          }
+          break
+        default:
+          if (!expected.isEmpty()) {
+            assert deque.removeLast() == expected.removeLast()
+          }
+      }
+    }
+    then:
+    deque.size() == expected.size()
+  }
+
+  def "should restore elements after restart"() {
+    given:
+    SpillingDeque<String> deque = new SpillingDeque<>(directory, SERIALIZER, 64, 2)
+    (0..<50).each { deque.addLast("value" + it) }
+    (0..<10).each { deque.removeFirst() }
+    deque.close()
+    when:
+    SpillingDeque<String> restored = new SpillingDeque<>(directory, SERIALIZER, 64, 2)
+    then:
+    restored.size() == 40
+    (10..<50).every { restored.removeFirst() == "value" + it }
+  }
+
+  def "should throw an error when restoring with different segment size"() {
+    given:
+    SpillingDeque<String> deque = new SpillingDeque<>(directory, SERIALIZER, 64, 2)
+    (0..<10).each { deque.addLast("value" + it) }
+    deque.close()
+    when:
+    new SpillingDeque<>(directory, SERIALIZER, 128, 2)
+    then:
+    thrown(IllegalArgumentException)
+  }
+
+  def "should restore filled segments when not closed"() {
+    given:
+    SpillingDeque<String> deque = new SpillingDeque<>(directory, SERIALIZER, 64, 0)
+    (0..<50).each { deque.addLast(String.format("value%02d", it)) }
+    when:
+    SpillingDeque<String> restored = new SpillingDeque<>(directory, SERIALIZER, 64, 0)
+    then:
+    restored.size() == 48
+    (0..<48).every { restored.removeFirst() == String.format("value%02d", it) }
+  }
+
+  def "should not overwrite restored records before saving"() {
+    given:
+    SpillingDeque<String> deque = new SpillingDeque<>(directory, SERIALIZER, 64, 0)
+    (0..<50).each { deque.addLast(String.format("value%02d", it)) }
+    SpillingDeque<String> restored = new SpillingDeque<>(directory, SERIALIZER, 64, 0)
+    (0..<3).each { restored.removeFirst() }
+    (0..<3).each { restored.addFirst("other" + it) }
+    when:
+    SpillingDeque<String> restoredAgain = new SpillingDeque<>(directory, SERIALIZER, 64, 0)
+    then:
+    restoredAgain.size() == 45
+    (3..<48).every { restoredAgain.removeFirst() == String.format("value%02d", it) }
+  }
+
+  def "should throw an error when record exceeds segment size"() {
+    given:
+    SpillingDeque<String> deque = new SpillingDeque<>(directory, SERIALIZER, 16, 0)
+    when:
+    deque.addLast("too long to fit into the segment")
+    then:
+    thrown(IllegalArgumentException)
+  }
+
+  def "should keep items when record exceeds segment size"() {
+    given:
+    SpillingDeque<String> deque = new SpillingDeque<>(directory, SERIALIZER, 16, 1)
+    deque.addLast("too long to fit into the segment")
+    when:
+    deque.addLast("next")
+    then:
+    thrown(IllegalArgumentException)
+    deque.size() == 1
+    deque.removeFirst() == "too long to fit into the segment"
+  }
+
+  def "should throw an error when removing from the front on the empty deque"() {
+    given:
+    SpillingDeque<String> deque = new SpillingDeque<>(directory, SERIALIZER, 64, 2)
+    when:
+    deque.removeFirst()
+    then:
+    thrown(NoSuchElementException)
+  }
+
+  def "should throw an error when adding null"() {
+    given:
+    SpillingDeque<String> deque = new SpillingDeque<>(directory, SERIALIZER, 64, 2)
+    when:
+    deque.addLast(null)
+    then:
+    thrown(NullPointerException)
+  }
+}
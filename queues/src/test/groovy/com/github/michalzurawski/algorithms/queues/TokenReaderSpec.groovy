@@ -0,0 +1,81 @@
+package com.github.michalzurawski.algorithms.queues
+
+import spock.lang.Specification
+
+import java.nio.channels.Channels
+import java.nio.channels.FileChannel
+import java.nio.file.Files
+import java.nio.file.Path
+
+class TokenReaderSpec extends Specification {
+  private static TokenReader reader(String input, int bufferSize) {
+    return new TokenReader(Channels.newChannel(new ByteArrayInputStream(input.getBytes("UTF-8"))), bufferSize)
+  }
+
+  def "should read whitespace separated tokens"() {
+    given:
+    TokenReader tokenReader = reader("  A\tBB\n\nCCC \r\n", 2)
+    when:
+    List<String> tokens = []
+    while (tokenReader.hasNext()) {
+      tokens << tokenReader.next()
+    }
+    then:
+    tokens == ["A", "BB", "CCC"]
+  }
+
+  def "should skip tokens"() {
+    given:
+    TokenReader tokenReader = reader("A B C D E", 3)
+    when:
+    long skipped = tokenReader.skip(3)
+    then:
+    skipped == 3
+    tokenReader.next() == "D"
+  }
+
+  def "should report fewer skipped tokens at the end of input"() {
+    given:
+    TokenReader tokenReader = reader("A B ", 16)
+    when:
+    long skipped = tokenReader.skip(5)
+    then:
+    skipped == 2
+    !tokenReader.hasNext()
+  }
+
+  def "should decode multibyte characters"() {
+    given:
+    TokenReader tokenReader = reader("zażółć gęślą", 3)
+    when:
+    String first = tokenReader.next()
+    String second = tokenReader.next()
+    then:
+    first == "zażółć"
+    second == "gęślą"
+  }
+
+  def "should throw an error when reading from the end"() {
+    given:
+    TokenReader tokenReader = reader(" ", 16)
+    when:
+    tokenReader.next()
+    then:
+    thrown(NoSuchElementException)
+  }
+
+  def "should read tokens starting in the range"() {
+    given:
+    Path path = Files.createTempFile("tokens", ".txt")
+    path.toFile().deleteOnExit()
+    Files.write(path, "AAA BBB CCC".getBytes("UTF-8"))
+    TokenReader tokenReader = new TokenReader(FileChannel.open(path), 2, 6, 2)
+    when:
+    List<String> tokens = []
+    while (tokenReader.hasNext()) {
+      tokens << tokenReader.next()
+    }
+    then:
+    tokens == ["BBB"]
+  }
+}
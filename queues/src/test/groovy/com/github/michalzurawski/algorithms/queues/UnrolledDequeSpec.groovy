@@ -0,0 +1,161 @@
+package com.github.michalzurawski.algorithms.queues
+
+import spock.lang.Specification
+
+class UnrolledDequeSpec extends Specification {
+  def "should be initially empty"() {
+    given:
+    UnrolledDeque<Integer> deque = new UnrolledDeque<>()
+    when:
+    boolean isEmpty = deque.isEmpty()
+    then:
+    isEmpty
+    deque.size() == 0
+  }
+
+  def "should add element to the front"() {
+    given:
+    UnrolledDeque<Integer> deque = new UnrolledDeque<>()
+    when:
+    deque.addFirst(2)
+    deque.addFirst(4)
+    deque.addFirst(8)
+    then:
+    deque.size() == 3
+    deque.toList() == [8, 4, 2]
+  }
+
+  def "should add element to the end"() {
+    given:
+    UnrolledDeque<Integer> deque = new UnrolledDeque<>()
+    when:
+    deque.addLast(2)
+    deque.addLast(4)
+    deque.addLast(8)
+    then:
+    deque.size() == 3
+    deque.toList() == [2, 4, 8]
+  }
+
+  def "should iterate over many chunks in order"() {
+    given:
+    UnrolledDeque<Integer> deque = new UnrolledDeque<>()
+    when:
+    (0..<500).each { deque.addLast(it) }
+    (1..500).each { deque.addFirst(-it) }
+    then:
+    deque.size() == 1000
+    deque.toList() == (-500..<500).toList()
+  }
+
+  def "should remove element from the end when added to the front"() {
+    given:
+    UnrolledDeque<Integer> deque = new UnrolledDeque<>()
+    (0..<300).each { deque.addFirst(it) }
+    when:
+    List<Integer> result = (0..<300).collect { deque.removeLast() }
+    then:
+    result == (0..<300).toList()
+    deque.isEmpty()
+  }
+
+  def "should remove element from the front when added to the end"() {
+    given:
+    UnrolledDeque<Integer> deque = new UnrolledDeque<>()
+    (0..<300).each { deque.addLast(it) }
+    when:
+    List<Integer> result = (0..<300).collect { deque.removeFirst() }
+    then:
+    result == (0..<300).toList()
+    deque.isEmpty()
+  }
+
+  def "should reuse deque after it has been drained"() {
+    given:
+    UnrolledDeque<Integer> deque = new UnrolledDeque<>()
+    (0..<200).each { deque.addLast(it) }
+    (0..<200).each { deque.removeLast() }
+    when:
+    deque.addFirst(1)
+    deque.addLast(2)
+    then:
+    deque.toList() == [1, 2]
+  }
+
+  def "should throw an error when adding null"() {
+    given:
+    UnrolledDeque<Integer> deque = new UnrolledDeque<>()
+    when:
+    deque.addFirst(null)
+    then:
+    thrown(NullPointerException)
+  }
+
+  def "should throw an error when removing from the empty deque"() {
+    given:
+    UnrolledDeque<Integer> deque = new UnrolledDeque<>()
+    when:
+    deque.removeLast()
+    then:
+    thrown(NoSuchElementException)
+  }
+
+  def "should not return elements removed from the end during iteration"() {
+    given:
+    UnrolledDeque<Integer> deque = new UnrolledDeque<>()
+    (0..<10).each { deque.addLast(it) }
+    Iterator<Integer> iterator = deque.iterator()
+    5.times { iterator.next() }
+    6.times { deque.removeLast() }
+    when:
+    boolean hasNext = iterator.hasNext()
+    then:
+    !hasNext
+  }
+
+  def "should continue from the front when its next element is removed during iteration"() {
+    given:
+    UnrolledDeque<Integer> deque = new UnrolledDeque<>()
+    (0..<100).each { deque.addLast(it) }
+    Iterator<Integer> iterator = deque.iterator()
+    iterator.next()
+    (0..<70).each { deque.removeFirst() }
+    deque.addFirst(-1)
+    when:
+    int value = iterator.next()
+    then:
+    value == -1
+  }
+
+  def "should iterate while pushing and popping at both ends"() {
+    given:
+    UnrolledDeque<Integer> deque = new UnrolledDeque<>()
+    (0..<200).each { deque.addLast(it) }
+    Iterator<Integer> iterator = deque.iterator()
+    List<Integer> result = []
+    when:
+    (0..<150).each {
+      result << iterator.next()
+      deque.addFirst(-it)
+      deque.removeFirst()
+      deque.removeFirst()
+      deque.removeFirst()
+      deque.removeLast()
+      deque.addLast(1000 + it)
+      deque.addLast(2000 + it)
+    }
+    then:
+    result.take(100) == (0..<100).collect { 2 * it }
+    result.drop(100) == (0..<50).collect { 1001 + 2 * it }
+  }
+
+  def "should throw an error when getting next value from the end"() {
+    given:
+    UnrolledDeque<Integer> deque = new UnrolledDeque<>()
+    Iterator<Integer> iterator = deque.iterator()
+    when:
+    iterator.next()
+    then:
+    thrown(NoSuchElementException)
+  }
+}
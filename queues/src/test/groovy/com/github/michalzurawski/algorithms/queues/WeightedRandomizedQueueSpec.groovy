@@ -0,0 +1,203 @@
+package com.github.michalzurawski.algorithms.queues
+
+import spock.lang.Specification
+
+class WeightedRandomizedQueueSpec extends Specification {
+  def "should be initially empty"() {
+    given:
+    WeightedRandomizedQueue<Integer> queue = new WeightedRandomizedQueue<>()
+    when:
+    boolean isEmpty = queue.isEmpty()
+    then:
+    isEmpty
+    queue.size() == 0
+    queue.totalWeight() == 0
+  }
+
+  def "should sum weights of enqueued items"() {
+    given:
+    WeightedRandomizedQueue<Integer> queue = new WeightedRandomizedQueue<>()
+    when:
+    queue.enqueue(2, 1.5)
+    queue.enqueue(4, 2.5)
+    queue.enqueue(8, 4)
+    then:
+    queue.size() == 3
+    queue.totalWeight() == 8
+  }
+
+  def "should dequeue all items"() {
+    given:
+    WeightedRandomizedQueue<Integer> queue = new WeightedRandomizedQueue<>()
+    queue.enqueue(2, 1)
+    queue.enqueue(4, 10)
+    queue.enqueue(8, 100)
+    when:
+    List<Integer> result = [queue.dequeue(), queue.dequeue(), queue.dequeue()]
+    then:
+    result.sort() == [2, 4, 8]
+    queue.isEmpty()
+  }
+
+  def "should update weight of the item"() {
+    given:
+    WeightedRandomizedQueue<Integer> queue = new WeightedRandomizedQueue<>()
+    queue.enqueue(2, 1)
+    int slot = queue.enqueue(4, 1)
+    when:
+    queue.setWeight(slot, 3)
+    then:
+    queue.weight(slot) == 3
+    queue.totalWeight() == 4
+  }
+
+  def "should sample items proportionally to their weights"() {
+    given:
+    WeightedRandomizedQueue<Integer> queue = new WeightedRandomizedQueue<>()
+    queue.enqueue(0, 1)
+    queue.enqueue(1, 3)
+    int[] histogram = new int[2]
+    when:
+    10000.times { histogram[queue.sample()]++ }
+    then:
+    histogram[0] > 2200 && histogram[0] < 2800
+  }
+
+  def "should never dequeue item with zero weight"() {
+    given:
+    WeightedRandomizedQueue<Integer> queue = new WeightedRandomizedQueue<>()
+    (0..<10).each { queue.enqueue(it, 1) }
+    when:
+    (0..<5).each { queue.dequeue() }
+    (10..<15).each { queue.enqueue(it, 1) }
+    Set<Integer> result = (0..<10).collect { queue.dequeue() }.toSet()
+    then:
+    result.size() == 10
+    queue.isEmpty()
+  }
+
+  def "should keep weights when updates rebuild the tree"() {
+    given:
+    WeightedRandomizedQueue<Integer> queue = new WeightedRandomizedQueue<>()
+    int light = queue.enqueue(0, 1)
+    int heavy = queue.enqueue(1, 1)
+    int[] histogram = new int[2]
+    when:
+    (1..20).each {
+      queue.setWeight(light, it)
+      queue.setWeight(heavy, 3 * it)
+    }
+    10000.times { histogram[queue.sample()]++ }
+    then:
+    queue.totalWeight() == 80
+    histogram[0] > 2200 && histogram[0] < 2800
+  }
+
+  def "should not sample dequeued items after the tree is rebuilt"() {
+    given:
+    WeightedRandomizedQueue<Integer> queue = new WeightedRandomizedQueue<>()
+    (0..<4).each { queue.enqueue(it, 1) }
+    (0..<3).each { queue.dequeue() }
+    when:
+    int left = queue.sample()
+    Set<Integer> samples = (0..<100).collect { queue.sample() }.toSet()
+    then:
+    queue.totalWeight() == 1
+    samples == [left] as Set
+  }
+
+  def "should sample remaining items after dominant weight is dequeued"() {
+    given:
+    WeightedRandomizedQueue<Integer> queue = new WeightedRandomizedQueue<>()
+    (0..<64).each { queue.enqueue(it, 1) }
+    queue.enqueue(-1, 1e20)
+    while (queue.dequeue() != -1) {
+    }
+    int size = queue.size()
+    when:
+    Set<Integer> result = (0..<size).collect { queue.dequeue() }.toSet()
+    then:
+    result.size() == size
+    !result.contains(-1)
+    queue.isEmpty()
+  }
+
+  def "should reuse low slots after items in high slots are dequeued"() {
+    given:
+    WeightedRandomizedQueue<Integer> queue = new WeightedRandomizedQueue<>()
+    (0..<100).each { queue.enqueue(it, 1) }
+    (0..<100).each { queue.dequeue() }
+    when:
+    int slot = queue.enqueue(7, 2)
+    then:
+    slot == 0
+    queue.totalWeight() == 2
+    queue.dequeue() == 7
+  }
+
+  def "should sample k distinct items"() {
+    given:
+    WeightedRandomizedQueue<Integer> queue = new WeightedRandomizedQueue<>()
+    (0..<10).each { queue.enqueue(it, it + 1) }
+    Integer[] out = new Integer[4]
+    when:
+    int count = queue.sample(4, out)
+    then:
+    count == 4
+    out.toList().toSet().size() == 4
+    queue.size() == 10
+  }
+
+  def "should sample all items when k is greater than size"() {
+    given:
+    WeightedRandomizedQueue<Integer> queue = new WeightedRandomizedQueue<>()
+    queue.enqueue(2, 1)
+    queue.enqueue(4, 2)
+    Integer[] out = new Integer[5]
+    when:
+    int count = queue.sample(5, out)
+    then:
+    count == 2
+    out[0..1].sort() == [2, 4]
+  }
+
+  def "should throw an error when enqueue null"() {
+    given:
+    WeightedRandomizedQueue<Integer> queue = new WeightedRandomizedQueue<>()
+    when:
+    queue.enqueue(null, 1)
+    then:
+    thrown(NullPointerException)
+  }
+
+  def "should throw an error when weight is not positive"() {
+    given:
+    WeightedRandomizedQueue<Integer> queue = new WeightedRandomizedQueue<>()
+    when:
+    queue.enqueue(1, weight)
+    then:
+    thrown(IllegalArgumentException)
+    where:
+    weight << [0, -1, Double.NaN, Double.POSITIVE_INFINITY]
+  }
+
+  def "should throw an error when updating removed item"() {
+    given:
+    WeightedRandomizedQueue<Integer> queue = new WeightedRandomizedQueue<>()
+    int slot = queue.enqueue(1, 1)
+    queue.dequeue()
+    when:
+    queue.setWeight(slot, 2)
+    then:
+    thrown(IllegalArgumentException)
+  }
+
+  def "should throw an error when dequeue on the empty queue"() {
+    given:
+    WeightedRandomizedQueue<Integer> queue = new WeightedRandomizedQueue<>()
+    when:
+    queue.dequeue()
+    then:
+    thrown(NoSuchElementException)
+  }
+}